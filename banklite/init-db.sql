@@ -30,14 +30,136 @@ CREATE TABLE IF NOT EXISTS accounts (
     account_number VARCHAR(50) NOT NULL UNIQUE,
     balance DECIMAL(19,2) NOT NULL DEFAULT 0.00,
     currency VARCHAR(3) NOT NULL CHECK (currency IN ('USD', 'EUR', 'GBP')),
+    -- Entry number of the account's latest ledger entry (see transactions.entry_no)
+    last_entry_no BIGINT NOT NULL DEFAULT 0,
+    -- Raised by every write; the account's ETag (see Account.version)
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Set on delete; the row is hidden from every read and removed later by AccountPurger
+    deleted_at TIMESTAMP
 );
 
+-- Hand out ids in blocks of 50 so Hibernate's pooled optimizer can batch inserts
+-- (must match allocationSize on Account.id)
+ALTER SEQUENCE accounts_id_seq INCREMENT BY 50;
+
 -- Create indexes for performance
 CREATE INDEX IF NOT EXISTS idx_accounts_account_number ON accounts(account_number);
-CREATE INDEX IF NOT EXISTS idx_accounts_currency ON accounts(currency);
+-- Also answers per-currency minimum and maximum balance with one index seek each
+CREATE INDEX IF NOT EXISTS idx_accounts_currency_balance ON accounts(currency, balance);
 CREATE INDEX IF NOT EXISTS idx_accounts_created_at ON accounts(created_at);
+-- Only deleted rows are indexed, so the index stays tiny and the purger never scans the table
+CREATE INDEX IF NOT EXISTS idx_accounts_deleted_at ON accounts(deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Purged accounts, when banklite.account-purge.archive=true
+CREATE TABLE IF NOT EXISTS accounts_archive (
+    id BIGINT PRIMARY KEY,
+    account_holder_name VARCHAR(255) NOT NULL,
+    account_number VARCHAR(255) NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    last_entry_no BIGINT NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    deleted_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+-- Trigram index for case-insensitive substring search on holder names
+-- (GET /api/v1/accounts/search runs lower(account_holder_name) LIKE '%...%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_accounts_holder_name_trgm
+    ON accounts USING gin (lower(account_holder_name) gin_trgm_ops);
+
+-- Append-only transaction ledger, partitioned by month so old history can be
+-- detached or dropped without touching the months still being written
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    entry_no BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    counterparty_account_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    -- A partitioned table's primary key must include the partition key
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS transactions_default PARTITION OF transactions DEFAULT;
+
+-- Same block size as accounts_id_seq (must match allocationSize on AccountTransaction.id)
+CREATE SEQUENCE IF NOT EXISTS transactions_id_seq INCREMENT BY 50;
+
+-- History pages and ledger balances are range scans on one account's entry numbers
+CREATE INDEX IF NOT EXISTS idx_transactions_account_entry ON transactions(account_id, entry_no);
+
+-- Creates the monthly partitions of transactions from this month to months_ahead
+-- months from now. Called here and daily by LedgerPartitionMaintainer.
+CREATE OR REPLACE FUNCTION create_transaction_partitions(months_ahead INT)
+RETURNS VOID AS $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        month_start := (date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+            'transactions_' || to_char(month_start, 'YYYY_MM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::DATE);
+    END LOOP;
+END;
+$$ language 'plpgsql';
+
+SELECT create_transaction_partitions(3);
+
+-- The balance after every Nth entry of an account (banklite.ledger.snapshot-interval)
+CREATE TABLE IF NOT EXISTS balance_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    entry_no BIGINT NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_balance_snapshots_account_entry ON balance_snapshots(account_id, entry_no);
+
+-- Running account count and balance total per currency, maintained by every
+-- balance write in its own transaction. Each currency is split over 16 stripes
+-- (stripe = account id mod 16) so concurrent writers rarely wait on one row;
+-- rows are seeded from accounts by the application at startup
+CREATE TABLE IF NOT EXISTS currency_stats (
+    currency VARCHAR(3) NOT NULL,
+    stripe INTEGER NOT NULL,
+    account_count BIGINT NOT NULL,
+    total_balance DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (currency, stripe)
+);
+
+-- Responses of write requests sent with an Idempotency-Key header, replayed to retries
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    -- NULL while the first request is still running
+    response_status INTEGER,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
+
+-- Account changes waiting for OutboxRelay, written in the transaction of the change.
+-- Identity ids are taken while the account row is locked, so they order each account's events
+CREATE TABLE IF NOT EXISTS account_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    -- JSON of the account after the change; NULL for deletions
+    payload VARCHAR(65535),
+    created_at TIMESTAMP NOT NULL
+);
 
 -- Create trigger function for auto-updating updated_at
 CREATE OR REPLACE FUNCTION update_updated_at_column()
@@ -55,18 +177,49 @@ CREATE TRIGGER update_accounts_updated_at
     FOR EACH ROW 
     EXECUTE FUNCTION update_updated_at_column();
 
+-- Announce every committed change to an account on the account_changes channel,
+-- so each replica evicts it from its account cache (AccountCacheInvalidationListener).
+-- Payload: id,epoch millis of the change[,account number on delete]
+CREATE OR REPLACE FUNCTION notify_account_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('account_changes',
+        OLD.id || ',' || floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT
+            || CASE WHEN TG_OP = 'DELETE' THEN ',' || OLD.account_number ELSE '' END);
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER IF EXISTS notify_accounts_changed ON accounts;
+CREATE TRIGGER notify_accounts_changed
+    AFTER UPDATE OR DELETE ON accounts
+    FOR EACH ROW
+    EXECUTE FUNCTION notify_account_change();
+
 -- Insert sample data for testing
-INSERT INTO accounts (account_holder_name, account_number, balance, currency) VALUES
-('John Doe', 'ACC1698765432001', 1500.00, 'USD'),
-('Jane Smith', 'ACC1698765432002', 2750.50, 'EUR'),
-('Bob Johnson', 'ACC1698765432003', 850.25, 'GBP'),
-('Alice Brown', 'ACC1698765432004', 3200.00, 'USD'),
-('Charlie Wilson', 'ACC1698765432005', 975.75, 'EUR')
+INSERT INTO accounts (account_holder_name, account_number, balance, currency, last_entry_no) VALUES
+('John Doe', 'ACC1698765432001', 1500.00, 'USD', 1),
+('Jane Smith', 'ACC1698765432002', 2750.50, 'EUR', 1),
+('Bob Johnson', 'ACC1698765432003', 850.25, 'GBP', 1),
+('Alice Brown', 'ACC1698765432004', 3200.00, 'USD', 1),
+('Charlie Wilson', 'ACC1698765432005', 975.75, 'EUR', 1)
 ON CONFLICT (account_number) DO NOTHING;
 
+-- Opening ledger entries for the sample accounts
+INSERT INTO transactions (id, account_id, entry_no, type, amount, created_at)
+SELECT nextval('transactions_id_seq'), a.id, 1, 'OPENING', a.balance, a.created_at
+FROM accounts a
+WHERE NOT EXISTS (SELECT 1 FROM transactions t WHERE t.account_id = a.id);
+
 -- Grant permissions on the created table to banklite_user
 GRANT ALL PRIVILEGES ON TABLE accounts TO banklite_user;
+GRANT ALL PRIVILEGES ON TABLE accounts_archive TO banklite_user;
 GRANT ALL PRIVILEGES ON SEQUENCE accounts_id_seq TO banklite_user;
+GRANT ALL PRIVILEGES ON TABLE transactions TO banklite_user;
+GRANT ALL PRIVILEGES ON SEQUENCE transactions_id_seq TO banklite_user;
+GRANT ALL PRIVILEGES ON TABLE balance_snapshots TO banklite_user;
+GRANT ALL PRIVILEGES ON SEQUENCE balance_snapshots_id_seq TO banklite_user;
+GRANT ALL PRIVILEGES ON TABLE idempotency_keys TO banklite_user;
 
 -- Verify setup
 SELECT 'Database setup completed successfully!' as status;
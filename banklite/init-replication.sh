@@ -0,0 +1,10 @@
+#!/bin/bash
+# Lets the read replica in docker-compose.replica.yml stream WAL from this primary.
+# Runs once, when the primary's data directory is first initialised.
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+    CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD '${REPLICATION_PASSWORD:-replicator_password}';
+EOSQL
+
+echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
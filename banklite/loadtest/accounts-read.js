@@ -0,0 +1,45 @@
+// BankLite read-path load test (k6)
+//
+// Holds CONNECTIONS concurrent virtual users, each repeatedly fetching a random
+// account by id and a page of accounts, and reports throughput and p99 latency.
+//
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e CONNECTIONS=10000 accounts-read.js
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CONNECTIONS = parseInt(__ENV.CONNECTIONS || '10000');
+const DURATION = __ENV.DURATION || '2m';
+const ACCOUNT_IDS = parseInt(__ENV.ACCOUNT_IDS || '1000');
+
+export const options = {
+  scenarios: {
+    steady: {
+      executor: 'constant-vus',
+      vus: CONNECTIONS,
+      duration: DURATION,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  discardResponseBodies: true,
+};
+
+export function setup() {
+  // Learn the real id range, since ids come from a pooled sequence
+  const res = http.get(`${BASE_URL}/api/v1/accounts?size=${ACCOUNT_IDS}`, { responseType: 'text' });
+  const ids = res.json('content').map((account) => account.id);
+  if (ids.length === 0) {
+    throw new Error('No accounts found; run seed-accounts.sh first');
+  }
+  return { ids };
+}
+
+export default function (data) {
+  const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+  const byId = http.get(`${BASE_URL}/api/v1/accounts/${id}`, { tags: { name: 'getAccount' } });
+  check(byId, { 'getAccount 200': (r) => r.status === 200 });
+
+  const page = http.get(`${BASE_URL}/api/v1/accounts?after=${id}&size=20`, { tags: { name: 'getAccounts' } });
+  check(page, { 'getAccounts 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,55 @@
+#!/bin/bash
+
+# Compares platform-thread (default) and virtual-thread request handling
+# under the same k6 load, printing throughput and p99 latency for each.
+#
+# Requires: k6, a built jar (mvn package -DskipTests) and, for realistic
+# numbers, PostgreSQL (set DB_PROFILE=postgres and the DB_* variables).
+# Raise the open-file limit first: ulimit -n 65536
+#
+# Usage: ./compare-threading.sh [connections] [duration]
+
+CONNECTIONS=${1:-10000}
+DURATION=${2:-2m}
+DB_PROFILE=${DB_PROFILE:-dev}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:$PORT"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR=$(ls "$SCRIPT_DIR"/../target/Banklite-*.jar | head -n 1)
+RESULTS_DIR="$SCRIPT_DIR/results"
+
+mkdir -p "$RESULTS_DIR"
+
+run_mode() {
+    local mode=$1
+    local profiles=$2
+
+    echo "🚀 Starting BankLite ($mode threads, profiles: $profiles)..."
+    java -jar "$JAR" --spring.profiles.active="$profiles" --server.port="$PORT" \
+        > "$RESULTS_DIR/$mode-app.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do sleep 1; done
+    "$SCRIPT_DIR/seed-accounts.sh" 10000 "$BASE_URL" > /dev/null
+
+    echo "🔥 Running $CONNECTIONS connections for $DURATION..."
+    k6 run --quiet -e BASE_URL="$BASE_URL" -e CONNECTIONS="$CONNECTIONS" -e DURATION="$DURATION" \
+        --summary-export "$RESULTS_DIR/$mode-summary.json" "$SCRIPT_DIR/accounts-read.js"
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null
+}
+
+run_mode platform "$DB_PROFILE"
+run_mode virtual "$DB_PROFILE,virtual-threads"
+
+echo ""
+echo "📊 Results ($CONNECTIONS connections, $DURATION)"
+printf "%-10s %15s %12s %12s\n" "threads" "requests/s" "p99 (ms)" "failed"
+for mode in platform virtual; do
+    summary="$RESULTS_DIR/$mode-summary.json"
+    printf "%-10s %15.1f %12.1f %12.4f\n" "$mode" \
+        "$(jq '.metrics.http_reqs.rate' "$summary")" \
+        "$(jq '.metrics.http_req_duration["p(99)"]' "$summary")" \
+        "$(jq '.metrics.http_req_failed.value' "$summary")"
+done
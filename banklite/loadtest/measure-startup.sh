@@ -0,0 +1,91 @@
+#!/bin/bash
+
+# Measures time to first successful GET /api/v1/status, from launching the
+# JVM, for the default startup and for the fast-startup setup (Spring AOT,
+# CDS archive, fast-startup profile). Each mode is started several times and
+# the median, minimum and maximum are printed.
+#
+# Requires: a jar built with AOT (./mvnw -Pfast-startup -DskipTests package)
+# and PostgreSQL with the schema of init-db.sql (docker-compose up -d postgres),
+# as the fast-startup profile does no schema work of its own.
+#
+# Usage: ./measure-startup.sh [runs]
+
+RUNS=${1:-5}
+DB_PROFILE=${DB_PROFILE:-postgres}
+PORT=${PORT:-8080}
+STATUS_URL="http://localhost:$PORT/api/v1/status"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR=$(ls "$SCRIPT_DIR"/../target/Banklite-*.jar | head -n 1)
+RESULTS_DIR="$SCRIPT_DIR/results"
+EXTRACTED="$RESULTS_DIR/fast-startup"
+
+mkdir -p "$RESULTS_DIR"
+
+if ! unzip -l "$JAR" | grep -q "__ApplicationContextInitializer"; then
+    echo "❌ $JAR has no AOT classes; build it with ./mvnw -Pfast-startup -DskipTests package"
+    exit 1
+fi
+
+# Same extraction and training run as the Dockerfile
+echo "📦 Extracting the jar and recording the CDS archive..."
+rm -rf "$EXTRACTED"
+java -Djarmode=tools -jar "$JAR" extract --destination "$EXTRACTED" > /dev/null
+JAR_NAME=$(basename "$JAR")
+(cd "$EXTRACTED" && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh -jar "$JAR_NAME" \
+    --spring.datasource.url=jdbc:h2:mem:cds --spring.datasource.driver-class-name=org.h2.Driver \
+    --spring.r2dbc.url=r2dbc:h2:mem:///cds --spring.jpa.hibernate.ddl-auto=create-drop \
+    --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect \
+    > "$RESULTS_DIR/cds-training.log" 2>&1)
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints the milliseconds from launch to the first 200 from /api/v1/status
+measure() {
+    local log=$1
+    shift
+    local started
+    started=$(now_ms)
+    "$@" --server.port="$PORT" > "$log" 2>&1 &
+    local pid=$!
+
+    until curl -sf -o /dev/null "$STATUS_URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "❌ Application exited during startup, see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    echo $(($(now_ms) - started))
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null
+}
+
+run_mode() {
+    local mode=$1
+    shift
+    local times=()
+    for ((i = 1; i <= RUNS; i++)); do
+        times+=("$(measure "$RESULTS_DIR/startup-$mode-$i.log" "$@")")
+        [ -n "${times[-1]}" ] || exit 1
+        echo "⏱️  $mode run $i: ${times[-1]} ms" >&2
+    done
+    printf "%s\n" "${times[@]}" | sort -n | tr '\n' ' '
+}
+
+echo "🚀 Starting BankLite $RUNS times per mode (profiles: $DB_PROFILE)..."
+DEFAULT=$(run_mode default java -jar "$JAR" --spring.profiles.active="$DB_PROFILE") || exit 1
+FAST=$(cd "$EXTRACTED" && run_mode fast java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true \
+    -jar "$JAR_NAME" --spring.profiles.active="$DB_PROFILE,fast-startup") || exit 1
+
+echo ""
+echo "📊 Time to first successful GET /api/v1/status ($RUNS runs)"
+printf "%-10s %12s %12s %12s\n" "mode" "median (ms)" "min (ms)" "max (ms)"
+for mode in default fast; do
+    [ "$mode" = default ] && sorted=($DEFAULT) || sorted=($FAST)
+    printf "%-10s %12s %12s %12s\n" "$mode" "${sorted[$((RUNS / 2))]}" "${sorted[0]}" "${sorted[-1]}"
+done
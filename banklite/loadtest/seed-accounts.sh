@@ -0,0 +1,18 @@
+#!/bin/bash
+
+# Seeds BankLite with test accounts through the batch endpoint
+# Usage: ./seed-accounts.sh [count] [base-url]
+
+COUNT=${1:-10000}
+BASE_URL=${2:-http://localhost:8080}
+
+echo "🌱 Seeding $COUNT accounts into $BASE_URL..."
+
+CURRENCIES=(USD EUR GBP)
+for ((i = 0; i < COUNT; i++)); do
+    echo "{\"accountHolderName\":\"Load Test $i\",\"balance\":$((i % 5000)).00,\"currency\":\"${CURRENCIES[$((i % 3))]}\"}"
+done | curl -s -o /dev/null -w "HTTP %{http_code}\n" \
+    -H "Content-Type: application/x-ndjson" \
+    --data-binary @- "$BASE_URL/api/v1/accounts/batch"
+
+echo "✅ Seeding done"
@@ -0,0 +1,41 @@
+package com.banklite.benchmark;
+
+import com.banklite.model.Account;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping an {@link Account} entity to its API response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountMappingBenchmark {
+    
+    private Account account;
+    
+    @Setup
+    public void setUp() {
+        account = BenchmarkData.account(42L);
+    }
+    
+    @Benchmark
+    public AccountResponse mapToResponse() {
+        return AccountService.mapToResponse(account);
+    }
+}
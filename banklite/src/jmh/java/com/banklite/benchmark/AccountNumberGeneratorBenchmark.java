@@ -0,0 +1,52 @@
+package com.banklite.benchmark;
+
+import com.banklite.config.AccountNumberProperties;
+import com.banklite.service.SnowflakeAccountNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of account number generation, single-threaded and under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberGeneratorBenchmark {
+    
+    private SnowflakeAccountNumberGenerator generator;
+    
+    @Setup
+    public void setUp() {
+        generator = new SnowflakeAccountNumberGenerator(new AccountNumberProperties());
+    }
+    
+    @Benchmark
+    public String nextAccountNumber() {
+        return generator.nextAccountNumber();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String nextAccountNumberContended() {
+        return generator.nextAccountNumber();
+    }
+    
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,114 @@
+package com.banklite.benchmark;
+
+import com.banklite.model.dto.AccountResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson encoding and decoding of {@link AccountResponse} lists in each format
+ * the REST API negotiates, using ObjectMappers configured the way Spring Boot
+ * configures the ones behind it (see {@link com.banklite.config.CborConfig}).
+ *
+ * The size of each encoding, plain and gzipped as {@code server.compression}
+ * would send it, is reported alongside {@code serializeList} as the secondary
+ * results {@code bytes} and {@code gzippedBytes}, so it ends up in the JMH
+ * result file next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountSerializationBenchmark {
+    
+    @Param({"1", "50", "500"})
+    private int size;
+    
+    @Param({"json", "cbor"})
+    private String format;
+    
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<AccountResponse> accounts;
+    private byte[] encoded;
+    
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = "cbor".equals(format)
+            ? Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()
+            : Jackson2ObjectMapperBuilder.json().build();
+        CollectionType listType = objectMapper.getTypeFactory()
+            .constructCollectionType(List.class, AccountResponse.class);
+        writer = objectMapper.writerFor(listType);
+        reader = objectMapper.readerFor(listType);
+        accounts = BenchmarkData.responses(size);
+        encoded = writer.writeValueAsBytes(accounts);
+    }
+    
+    @Benchmark
+    public byte[] serializeList(EncodedSize encodedSize) throws IOException {
+        return writer.writeValueAsBytes(accounts);
+    }
+    
+    @Benchmark
+    public List<AccountResponse> deserializeList() throws IOException {
+        return reader.readValue(encoded);
+    }
+    
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Sizes of one encoded list. JMH zeroes public counter fields before each
+     * iteration, so the sizes are exposed through methods instead.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        
+        private long bytes;
+        private long gzippedBytes;
+        
+        @Setup
+        public void measure(AccountSerializationBenchmark benchmark) throws IOException {
+            bytes = benchmark.encoded.length;
+            gzippedBytes = gzip(benchmark.encoded).length;
+        }
+        
+        public long bytes() {
+            return bytes;
+        }
+        
+        public long gzippedBytes() {
+            return gzippedBytes;
+        }
+    }
+}
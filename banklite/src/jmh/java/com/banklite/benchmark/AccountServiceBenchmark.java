@@ -0,0 +1,183 @@
+package com.banklite.benchmark;
+
+import com.banklite.BankliteApplication;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountPageResponse;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.BatchCreateResponse;
+import com.banklite.model.dto.BatchUpdateResponse;
+import com.banklite.service.AccountBatchService;
+import com.banklite.service.AccountBatchUpdateService;
+import com.banklite.service.AccountPatch;
+import com.banklite.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AccountService} CRUD against an in-memory H2 database, with the full
+ * Spring context (transactions, JPA, JDBC batching) but no web layer.
+ *
+ * The account cache is switched off so reads measure the database path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+    
+    private static final int SEED_ACCOUNTS = 10_000;
+    private static final int BATCH = 500;
+    
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountBatchService accountBatchService;
+    private AccountBatchUpdateService accountBatchUpdateService;
+    private long[] ids;
+    private List<AccountRequest> batch;
+    private List<Long> migrated;
+    private boolean migratedToEur;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankliteApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark",
+                "spring.cache.type=none",
+                "spring.devtools.restart.enabled=false",
+                "logging.level.root=WARN")
+            .run();
+        accountService = context.getBean(AccountService.class);
+        accountBatchService = context.getBean(AccountBatchService.class);
+        accountBatchUpdateService = context.getBean(AccountBatchUpdateService.class);
+        
+        ids = new long[SEED_ACCOUNTS];
+        List<AccountRequest> seed = new ArrayList<>(SEED_ACCOUNTS);
+        for (int i = 0; i < SEED_ACCOUNTS; i++) {
+            seed.add(BenchmarkData.request(i));
+        }
+        BatchCreateResponse created = accountBatchService.createAccounts(seed.iterator());
+        for (int i = 0; i < SEED_ACCOUNTS; i++) {
+            ids[i] = created.getResults().get(i).getAccount().getId();
+        }
+        
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(BenchmarkData.request(i));
+        }
+        migrated = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            migrated.add(ids[i]);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public AccountResponse createAccount() {
+        return accountService.createAccount(BenchmarkData.request(ThreadLocalRandom.current().nextInt()));
+    }
+    
+    /**
+     * Baseline for {@link #createAccountsBatch()}: the same 500 accounts, one call each.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int createAccountsOneByOne() {
+        int created = 0;
+        for (AccountRequest request : batch) {
+            accountService.createAccount(request);
+            created++;
+        }
+        return created;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BatchCreateResponse createAccountsBatch() {
+        return accountBatchService.createAccounts(batch.iterator());
+    }
+    
+    @Benchmark
+    public AccountResponse getAccount() {
+        return accountService.getAccount(randomId());
+    }
+    
+    @Benchmark
+    public AccountPageResponse getAccountsPage() {
+        return accountService.getAccounts(randomId(), 50);
+    }
+    
+    @Benchmark
+    public AccountResponse updateAccount() {
+        long id = randomId();
+        return accountService.updateAccount(id, BenchmarkData.request(id));
+    }
+    
+    @Benchmark
+    public AccountResponse patchAccountName() {
+        long id = randomId();
+        return accountService.patchAccount(id, new AccountPatch("Patched Holder " + id, null, null));
+    }
+    
+    /**
+     * Baseline for {@link #migrateCurrencyBatch()}: the same 500 accounts moved
+     * to another currency through the per-entity update, one call each.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int migrateCurrencyOneByOne() {
+        Currency target = nextMigrationTarget();
+        int updated = 0;
+        for (int i = 0; i < BATCH; i++) {
+            AccountRequest request = BenchmarkData.request(i);
+            request.setCurrency(target);
+            accountService.updateAccount(ids[i], request);
+            updated++;
+        }
+        return updated;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BatchUpdateResponse migrateCurrencyBatch() {
+        return accountBatchUpdateService.updateAccounts(migrated, new AccountPatch(null, null, nextMigrationTarget()));
+    }
+    
+    /**
+     * Alternates the target, so every invocation really rewrites all 500 rows.
+     */
+    private Currency nextMigrationTarget() {
+        migratedToEur = !migratedToEur;
+        return migratedToEur ? Currency.EUR : Currency.GBP;
+    }
+    
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
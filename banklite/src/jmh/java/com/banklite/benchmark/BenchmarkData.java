@@ -0,0 +1,48 @@
+package com.banklite.benchmark;
+
+import com.banklite.model.Account;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.service.AccountService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures for the benchmarks, so every benchmark measures the same shapes of data.
+ */
+final class BenchmarkData {
+    
+    private static final Currency[] CURRENCIES = Currency.values();
+    
+    private BenchmarkData() {
+    }
+    
+    static Account account(long id) {
+        Account account = new Account();
+        account.setId(id);
+        account.setAccountHolderName("Account Holder " + id);
+        account.setAccountNumber("ACC" + (1_000_000_000L + id));
+        account.setBalance(BigDecimal.valueOf(100_000 + id * 37, 2));
+        account.setCurrency(CURRENCIES[(int) (id % CURRENCIES.length)]);
+        account.setCreatedAt(LocalDateTime.of(2025, 1, 28, 12, 0).plusSeconds(id));
+        account.setUpdatedAt(account.getCreatedAt());
+        return account;
+    }
+    
+    static List<AccountResponse> responses(int size) {
+        List<AccountResponse> responses = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            responses.add(AccountService.mapToResponse(account(id)));
+        }
+        return responses;
+    }
+    
+    static AccountRequest request(long seed) {
+        return new AccountRequest("Benchmark Holder " + seed, BigDecimal.valueOf(10_000 + seed, 2),
+            CURRENCIES[(int) Math.floorMod(seed, (long) CURRENCIES.length)]);
+    }
+}
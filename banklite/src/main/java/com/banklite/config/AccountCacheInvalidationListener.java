@@ -0,0 +1,231 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps this replica's account cache consistent with writes made on other replicas.
+ *
+ * An AFTER UPDATE OR DELETE trigger on {@code accounts} (see init-db.sql) sends
+ * {@code pg_notify} on {@link #CHANNEL}. PostgreSQL delivers notifications only
+ * when the writing transaction commits, so a listener never evicts ahead of the
+ * change becoming visible. This listener holds one dedicated connection outside
+ * the pool, LISTENs on it, and evicts each changed account as its notification
+ * arrives.
+ *
+ * Staleness is bounded by {@code banklite.cache-invalidation.max-staleness}
+ * even when notifications fail:
+ * <ul>
+ *   <li>A read that started before a commit can put the old row back just after
+ *       its eviction. Every account evicted is evicted again at the next
+ *       heartbeat, one interval later.</li>
+ *   <li>Notifications sent while the connection is down are lost. A failed
+ *       heartbeat clears the whole cache, and the cache is cleared again on every
+ *       reconnect attempt until the listener is back.</li>
+ * </ul>
+ * The cache's own expireAfterWrite stays the last line of defence.
+ *
+ * Only active when {@code banklite.cache-invalidation.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "banklite.cache-invalidation", name = "enabled", havingValue = "true")
+public class AccountCacheInvalidationListener {
+
+    /**
+     * Must match the channel in init-db.sql.
+     */
+    public static final String CHANNEL = "account_changes";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration maxStaleness;
+    private final Cache accountCache;
+    private final Cache accountIdCache;
+    private final Timer lagTimer;
+    private final Counter invalidations;
+    private final Counter cacheClears;
+    private final AtomicBoolean connected = new AtomicBoolean();
+
+    /**
+     * Accounts evicted since the last heartbeat, evicted again at the next one.
+     */
+    private final Set<Long> recentlyEvicted = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public AccountCacheInvalidationListener(DataSourceProperties dataSourceProperties,
+                                            CacheInvalidationProperties properties,
+                                            CacheManager cacheManager,
+                                            MeterRegistry meterRegistry) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.maxStaleness = properties.getMaxStaleness();
+        this.accountCache = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        this.accountIdCache = cacheManager.getCache(CacheConfig.ACCOUNT_IDS_BY_NUMBER);
+        this.lagTimer = Timer.builder("banklite.cache.invalidation.lag")
+                .description("Time from an account change on any replica to its eviction here")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("banklite.cache.invalidations")
+                .description("Accounts evicted on a change notification")
+                .register(meterRegistry);
+        this.cacheClears = Counter.builder("banklite.cache.invalidation.clears")
+                .description("Whole-cache clears while change notifications were unavailable")
+                .register(meterRegistry);
+        Gauge.builder("banklite.cache.invalidation.connected", connected, flag -> flag.get() ? 1 : 0)
+                .description("Whether this replica is listening for account change notifications")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        thread = new Thread(this::run, "account-cache-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        closeQuietly(connection);
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything changed before LISTEN took effect was never announced to us
+                clearCaches();
+                connected.set(true);
+                log.info("Listening for account changes on channel {}", CHANNEL);
+                listen(listening);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                if (connected.getAndSet(false)) {
+                    log.warn("Lost account change notifications, clearing the account cache until they are back", e);
+                } else {
+                    log.debug("Account change listener still unavailable", e);
+                }
+                clearCaches();
+                sleepQuietly(maxStaleness);
+            }
+        }
+    }
+
+    private void listen(Connection listening) throws SQLException {
+        PGConnection pgConnection = listening.unwrap(PGConnection.class);
+        long nextHeartbeat = System.nanoTime() + maxStaleness.toNanos();
+        while (running) {
+            long waitMillis = TimeUnit.NANOSECONDS.toMillis(nextHeartbeat - System.nanoTime());
+            // A timeout of 0 would block until the next notification
+            PGNotification[] notifications = pgConnection.getNotifications((int) Math.max(1, waitMillis));
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    handle(notification.getParameter(), System.currentTimeMillis());
+                }
+            }
+            if (System.nanoTime() - nextHeartbeat >= 0) {
+                heartbeat(listening);
+                nextHeartbeat = System.nanoTime() + maxStaleness.toNanos();
+            }
+        }
+    }
+
+    /**
+     * Proves the connection is still alive, since a silently dropped one would
+     * just never deliver anything, then re-evicts the accounts evicted since the
+     * previous heartbeat.
+     */
+    private void heartbeat(Connection listening) throws SQLException {
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+        for (Long id : recentlyEvicted) {
+            recentlyEvicted.remove(id);
+            accountCache.evict(id);
+        }
+    }
+
+    /**
+     * Evicts the account named by a notification payload of the form
+     * {@code <id>,<epoch millis of the change>[,<account number, on delete>]}.
+     */
+    void handle(String payload, long receivedAtMillis) {
+        String[] fields = payload.split(",");
+        try {
+            Long id = Long.valueOf(fields[0]);
+            accountCache.evict(id);
+            recentlyEvicted.add(id);
+            if (fields.length > 2) {
+                accountIdCache.evict(fields[2]);
+            }
+            invalidations.increment();
+            // Negative when the database clock runs ahead of ours
+            lagTimer.record(Math.max(0, receivedAtMillis - Long.parseLong(fields[1])), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed account change notification '{}'", payload);
+        }
+    }
+
+    private void clearCaches() {
+        accountCache.clear();
+        accountIdCache.clear();
+        recentlyEvicted.clear();
+        cacheClears.increment();
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close the account change listener connection", e);
+        }
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for account number generation.
+ *
+ * Bound from {@code banklite.account-number.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.account-number")
+public class AccountNumberProperties {
+
+    /**
+     * Id of this node, 0-1023. Every replica must use a different value.
+     */
+    private int nodeId = 0;
+
+    /**
+     * Epoch the timestamp part of the number counts from, in epoch millis.
+     * Defaults to 2025-01-01T00:00:00Z, which leaves room for ~69 years.
+     */
+    private long epochMillis = 1735689600000L;
+}
@@ -0,0 +1,49 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for removing soft-deleted accounts in the background.
+ *
+ * Bound from {@code banklite.account-purge.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.account-purge")
+public class AccountPurgeProperties {
+
+    /**
+     * Run the purger on this replica. Deleted accounts stay hidden either way.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a deleted account is kept before it is purged.
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    /**
+     * How often to look for accounts due for purging.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /**
+     * Rows removed per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Upper bound on rows removed per second, so a large cleanup is spread out
+     * instead of competing with API traffic on the primary.
+     */
+    private int maxRowsPerSecond = 2000;
+
+    /**
+     * Copy each row to {@code accounts_archive} before removing it.
+     */
+    private boolean archive = false;
+}
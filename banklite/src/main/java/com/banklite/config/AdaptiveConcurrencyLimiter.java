@@ -0,0 +1,106 @@
+package com.banklite.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the requests in flight at a limit that adapts to their latency (AIMD).
+ *
+ * Every request that completes within the latency threshold while the limit
+ * was actually in use raises the limit by {@code 1 / limit}, i.e. by about one
+ * per round of requests. A slower request multiplies it by the backoff ratio.
+ * Only requests started after the last decrease can decrease it again, so one
+ * round of slow requests, admitted under the old limit, backs off once rather
+ * than once per request.
+ *
+ * {@link #tryAcquire} never waits: when the limit is reached the caller is
+ * expected to turn the request away at once. Samples are applied under a
+ * {@link ReentrantLock} rather than {@code synchronized}, which on JDK 21 pins
+ * the carrier of a virtual thread that has to wait for it.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+
+    private volatile int limit;
+    private double estimate;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max, got "
+                + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.estimate = initialLimit;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a slot if fewer than {@link #getLimit()} requests are in flight.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a request started at {@code startNanos} and adapts the
+     * limit to how long it took.
+     */
+    public void release(long startNanos, long endNanos) {
+        int before = inFlight.getAndDecrement();
+        onSample(startNanos, endNanos - startNanos, before);
+    }
+
+    /**
+     * Frees a slot without taking its latency into account, e.g. for a
+     * streaming response whose duration depends on the client.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private void onSample(long startNanos, long latencyNanos, int inFlightBefore) {
+        sampleLock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                if (startNanos - lastDecreaseNanos >= 0) {
+                    estimate = Math.max(minLimit, estimate * backoffRatio);
+                    lastDecreaseNanos = System.nanoTime();
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                // Only grow while the limit is what holds requests back
+                estimate = Math.min(maxLimit, estimate + 1.0 / estimate);
+            }
+            limit = (int) estimate;
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
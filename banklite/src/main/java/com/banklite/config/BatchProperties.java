@@ -0,0 +1,27 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for batch account creation.
+ *
+ * Bound from {@code banklite.batch.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.batch")
+public class BatchProperties {
+
+    /**
+     * Accounts inserted per transaction. Keep it a multiple of
+     * {@code hibernate.jdbc.batch_size} so every JDBC batch is full.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Largest number of accounts accepted in one request.
+     */
+    private int maxItems = 50_000;
+}
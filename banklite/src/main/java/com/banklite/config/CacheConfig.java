@@ -0,0 +1,33 @@
+package com.banklite.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cache configuration for BankLite.
+ *
+ * The caches themselves are Caffeine caches declared under {@code spring.cache.*}
+ * in application.yml, so Spring Boot binds their hit, miss and eviction counts
+ * to the actuator metrics endpoint.
+ *
+ * The caching advice is ordered just outside the transactional advice: a cache
+ * hit never opens a transaction or borrows a connection, and evictions only run
+ * once the writing transaction has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    /**
+     * Account responses keyed by account id.
+     */
+    public static final String ACCOUNTS = "accounts";
+
+    /**
+     * Account ids keyed by account number. Account numbers never change, so
+     * entries only go stale when an account is deleted, and a stale id then
+     * simply resolves to "not found".
+     */
+    public static final String ACCOUNT_IDS_BY_NUMBER = "accountIdsByNumber";
+}
@@ -0,0 +1,32 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for cross-replica account cache invalidation.
+ *
+ * Bound from {@code banklite.cache-invalidation.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.cache-invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * Evict accounts changed by other replicas, as announced by PostgreSQL
+     * NOTIFY (see init-db.sql). PostgreSQL only.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Longest a cached account may outlive a change made on another replica
+     * when a notification is lost or raced: how often the listener checks its
+     * connection, re-evicts recently changed accounts, and, while disconnected,
+     * clears the cache.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+}
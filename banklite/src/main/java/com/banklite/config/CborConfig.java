@@ -0,0 +1,29 @@
+package com.banklite.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Lets clients exchange request and response bodies as CBOR
+ * ({@code application/cbor}) instead of JSON, chosen by their Accept and
+ * Content-Type headers.
+ *
+ * The DTOs keep one schema in both formats: the same field names and types,
+ * but numbers, including {@code BigDecimal} balances, are written in binary
+ * rather than as decimal text. The mapper is built from Spring Boot's
+ * {@link Jackson2ObjectMapperBuilder}, so {@code spring.jackson.*} settings
+ * apply to CBOR as they do to JSON.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(
+            objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,31 @@
+package com.banklite.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts {@link ConcurrencyLimitFilter} in front of the v1 account endpoints.
+ *
+ * It keeps the default, lowest order, so it runs after the observation filter
+ * and rejections still show up in {@code http.server.requests}. Only active when
+ * {@code banklite.concurrency-limit.enabled=true}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "banklite.concurrency-limit", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/v1/accounts", "/api/v1/accounts/*");
+        return registration;
+    }
+}
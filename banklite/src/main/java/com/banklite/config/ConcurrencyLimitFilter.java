@@ -0,0 +1,142 @@
+package com.banklite.config;
+
+import com.banklite.model.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Admits account requests only while their budget has room, and turns the
+ * rest away at once with 503 and Retry-After.
+ *
+ * When the database slows down, waiting requests would otherwise pile up on
+ * Tomcat threads in front of the connection pool, and every request would wait
+ * behind all of them. Reads and writes have separate
+ * {@link AdaptiveConcurrencyLimiter}s, so a burst of one cannot starve the other.
+ *
+ * Streaming responses hold their slot until they complete but do not adapt
+ * the limit, as their duration depends on the client. Async dispatches are not
+ * filtered again, so they run on the slot of the original request.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.reads = properties.getReads().newLimiter();
+        this.writes = properties.getWrites().newLimiter();
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.readRejections = register("read", reads, meterRegistry);
+        this.writeRejections = register("write", writes, meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = isRead(request);
+        AdaptiveConcurrencyLimiter limiter = read ? reads : writes;
+        if (!limiter.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new SlotReleasingListener(limiter));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(start, System.nanoTime());
+            }
+        }
+    }
+
+    AdaptiveConcurrencyLimiter reads() {
+        return reads;
+    }
+
+    AdaptiveConcurrencyLimiter writes() {
+        return writes;
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setError(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        error.setMessage("Too many concurrent requests, retry later");
+        error.setPath(request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static Counter register(String budget, AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("banklite.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive limit on concurrent account requests")
+            .tag("budget", budget)
+            .register(meterRegistry);
+        Gauge.builder("banklite.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Account requests currently admitted")
+            .tag("budget", budget)
+            .register(meterRegistry);
+        return Counter.builder("banklite.concurrency.rejected")
+            .description("Account requests turned away with 503 because the limit was reached")
+            .tag("budget", budget)
+            .register(meterRegistry);
+    }
+
+    private record SlotReleasingListener(AdaptiveConcurrencyLimiter limiter) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.releaseWithoutSample();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the adaptive concurrency limits in front of /api/v1/accounts.
+ *
+ * Bound from {@code banklite.concurrency-limit.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether account requests over the limit are turned away with 503.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sent as Retry-After with every rejection.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * GET and HEAD requests.
+     */
+    private Budget reads = new Budget(50, 400, Duration.ofMillis(250));
+
+    /**
+     * All other methods.
+     */
+    private Budget writes = new Budget(20, 100, Duration.ofMillis(500));
+
+    @Getter
+    @Setter
+    public static class Budget {
+
+        private int initialLimit;
+
+        private int minLimit = 1;
+
+        private int maxLimit;
+
+        /**
+         * Requests slower than this shrink the limit; faster ones grow it.
+         */
+        private Duration latencyThreshold;
+
+        /**
+         * Factor the limit is multiplied by after a slow request.
+         */
+        private double backoffRatio = 0.5;
+
+        public Budget() {
+        }
+
+        Budget(int initialLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        AdaptiveConcurrencyLimiter newLimiter() {
+            return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold.toNanos(),
+                backoffRatio);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.banklite.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * JDBC wiring that lets the blocking JPA stack (/api/v1) and the reactive
+ * R2DBC stack (/api/v2) share one application context.
+ *
+ * Spring Boot skips its own DataSource as soon as an R2DBC ConnectionFactory
+ * exists, so the Hikari pool is declared here from the usual
+ * {@code spring.datasource.*} properties. With two transaction managers in the
+ * context, the JPA one is primary: plain {@code @Transactional} keeps meaning a
+ * JDBC transaction, and reactive code uses the auto-configured
+ * {@code TransactionalOperator} instead.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
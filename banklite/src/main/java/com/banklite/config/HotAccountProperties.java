@@ -0,0 +1,45 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Settings for coalescing balance updates on designated hot accounts.
+ *
+ * Bound from {@code banklite.hot-accounts.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.hot-accounts")
+public class HotAccountProperties {
+
+    /**
+     * Whether deposits and withdrawals on hot accounts are coalesced at all.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Ids of the accounts whose updates are buffered and flushed in batches.
+     */
+    private Set<Long> accountIds = new HashSet<>();
+
+    /**
+     * How often buffered updates are flushed to the database.
+     */
+    private Duration flushInterval = Duration.ofMillis(5);
+
+    /**
+     * Number of buffered updates on one account that triggers an early flush.
+     */
+    private int maxBatchSize = 1000;
+
+    /**
+     * How long a caller waits for its update to be flushed before giving up.
+     */
+    private Duration ackTimeout = Duration.ofSeconds(5);
+}
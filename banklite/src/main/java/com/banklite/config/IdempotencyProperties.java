@@ -0,0 +1,41 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@code Idempotency-Key} handling on the account write endpoints.
+ *
+ * Bound from {@code banklite.idempotency.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a key and its stored response are kept; a retry after this runs again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a request may hold its key before completing; after this a retry runs again
+     * instead of getting 409. Must be longer than the slowest account write, the write
+     * transaction timeout plus {@code banklite.hot-accounts.ack-timeout}, or a retry could
+     * run alongside a request that is still going.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    /**
+     * Most recently completed keys kept in memory, so their retries skip the database.
+     */
+    private int cacheMaxSize = 10000;
+
+    /**
+     * How often expired keys are deleted from the database.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
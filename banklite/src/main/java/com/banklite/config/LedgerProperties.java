@@ -0,0 +1,32 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the transaction ledger.
+ *
+ * Bound from {@code banklite.ledger.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.ledger")
+public class LedgerProperties {
+
+    /**
+     * A balance snapshot is written every this many entries per account, which
+     * caps how many entries a ledger balance read has to add up.
+     */
+    private int snapshotInterval = 100;
+
+    /**
+     * Create monthly partitions of the transactions table ahead of time (PostgreSQL only).
+     */
+    private boolean partitionMaintenance = false;
+
+    /**
+     * How many months of partitions to keep created ahead of the current one.
+     */
+    private int partitionMonthsAhead = 3;
+}
@@ -0,0 +1,84 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the account change outbox and its relay.
+ *
+ * Bound from {@code banklite.outbox.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.outbox")
+public class OutboxProperties {
+
+    public enum Sink {
+        FILE, WEBHOOK
+    }
+
+    /**
+     * Whether account changes are written to the outbox and relayed at all.
+     * Off unless configured, so local and test runs write no event files.
+     */
+    private boolean enabled;
+
+    /**
+     * Where the relay delivers events.
+     */
+    private Sink sink = Sink.FILE;
+
+    /**
+     * Most events delivered in one batch.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How often the relay looks for new events once the outbox is drained.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Longest wait between retries while the sink keeps failing; the wait
+     * doubles from {@code poll-interval} up to this.
+     */
+    private Duration maxBackoff = Duration.ofSeconds(30);
+
+    private File file = new File();
+
+    private Webhook webhook = new Webhook();
+
+    @Getter
+    @Setter
+    public static class File {
+
+        /**
+         * NDJSON file events are appended to, one per line.
+         */
+        private Path path = Path.of("account-events.ndjson");
+    }
+
+    @Getter
+    @Setter
+    public static class Webhook {
+
+        /**
+         * Receives each batch as a JSON array in one POST.
+         */
+        private URI url;
+
+        /**
+         * Limit on connecting to {@code url}, and again on waiting for its response.
+         * The relay holds the batch's {@code FOR UPDATE} claim, and the pooled
+         * connection it was taken on, for the whole POST, so this bounds how long
+         * a slow receiver keeps that connection and makes relays on other nodes
+         * wait: about twice this per attempt.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,36 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paging limits for account listing endpoints.
+ *
+ * Bound from {@code banklite.pagination.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.pagination")
+public class PaginationProperties {
+
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Upper bound on the page size a client may request.
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Clamps a client-requested page size to the configured limits.
+     */
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
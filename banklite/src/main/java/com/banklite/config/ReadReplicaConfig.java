@@ -0,0 +1,64 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to {@link ReadReplicaRouter} and everything
+ * else to the primary pool.
+ *
+ * The primary {@code dataSource} is wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which only fetches a real connection
+ * at the first statement. By then the transaction manager has marked the
+ * connection read-only for {@code @Transactional(readOnly = true)}, so the
+ * proxy knows which side to take it from. Writes and reads inside a read-write
+ * transaction always stay on the primary.
+ *
+ * Only active when {@code banklite.read-replicas.enabled=true}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "banklite.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadReplicaRouter readReplicaRouter(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReadReplicaRouter(properties, meterRegistry);
+    }
+
+    // Static so that declaring a post-processor does not initialise this configuration early
+    @Bean
+    public static BeanPostProcessor readReplicaRoutingProxy(ObjectProvider<ReadReplicaRouter> router) {
+        return new RoutingPostProcessor(router);
+    }
+
+    /**
+     * Ordered, so it runs before {@link SqlTelemetryConfig}'s post-processor,
+     * whose proxy then sits in front of the routing and times replica
+     * statements as well.
+     */
+    private record RoutingPostProcessor(ObjectProvider<ReadReplicaRouter> router) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource primary) {
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+                proxy.setReadOnlyDataSource(router.getObject().readOnlyDataSource(primary));
+                return proxy;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for offloading read-only transactions to streaming replicas.
+ *
+ * Bound from {@code banklite.read-replicas.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * PostgreSQL: zero when the replica has replayed everything it received
+     * (an idle primary sends nothing, so the replay timestamp alone would make
+     * an idle replica look ever further behind), otherwise the age of the last
+     * replayed transaction.
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Whether read-only transactions are sent to the replicas below.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replicas further behind the primary than this get no reads until they
+     * catch up; with none left, reads go to the primary.
+     */
+    private Duration maxLag = Duration.ofSeconds(1);
+
+    /**
+     * How often every replica's lag is measured.
+     */
+    private Duration lagCheckInterval = Duration.ofMillis(500);
+
+    /**
+     * Query returning, in seconds, how far a replica is behind the primary.
+     */
+    private String lagQuery = POSTGRES_LAG_QUERY;
+
+    /**
+     * How long a read waits for a replica connection before falling back to the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        /**
+         * Names the replica's pool and tags its metrics.
+         */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
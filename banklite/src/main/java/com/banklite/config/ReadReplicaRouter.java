@@ -0,0 +1,196 @@
+package com.banklite.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions from streaming replicas,
+ * round robin, falling back to the primary whenever no replica is close
+ * enough behind it.
+ *
+ * Every {@code banklite.read-replicas.lag-check-interval} each replica's lag is
+ * measured with {@code lag-query}. A replica more than {@code max-lag} behind,
+ * or unreachable, gets no reads until a later check finds it caught up. A
+ * replica that fails to hand out a connection in between is skipped at once.
+ *
+ * Each replica has its own Hikari pool, published with the usual
+ * {@code hikaricp.*} metrics under the replica's name.
+ */
+@Slf4j
+public class ReadReplicaRouter {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final long lagCheckIntervalMillis;
+    private final Counter primaryReads;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ScheduledExecutorService scheduler;
+
+    public ReadReplicaRouter(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.maxLagSeconds = properties.getMaxLag().toNanos() / 1e9;
+        this.lagQuery = properties.getLagQuery();
+        this.lagCheckIntervalMillis = properties.getLagCheckInterval().toMillis();
+        this.primaryReads = readCounter(PRIMARY, meterRegistry);
+        this.replicas = properties.getReplicas().stream()
+                .map(replica -> new Replica(replica.getName(), createPool(replica, properties, meterRegistry),
+                        readCounter(replica.getName(), meterRegistry)))
+                .toList();
+        for (Replica replica : replicas) {
+            Gauge.builder("banklite.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Seconds the replica is behind the primary, NaN while unreachable")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("banklite.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("Whether the replica currently receives reads")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Reads go to the primary until the first check has vouched for a replica
+        scheduler.scheduleWithFixedDelay(this::checkLag, 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    /**
+     * A DataSource that serves from the replicas and falls back to {@code primary}.
+     */
+    public DataSource readOnlyDataSource(DataSource primary) {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return connection(primary);
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                throw new UnsupportedOperationException("Replica connections use the configured credentials");
+            }
+        };
+    }
+
+    private Connection connection(DataSource primary) throws SQLException {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Gone since the last check; the next check that reaches it brings it back
+                replica.available = false;
+                log.warn("Read replica {} unavailable, skipping it", replica.name, e);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                resultSet.next();
+                replica.lagSeconds = resultSet.getDouble(1);
+                replica.available = replica.lagSeconds <= maxLagSeconds;
+            } catch (SQLException | RuntimeException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.available = false;
+                log.debug("Failed to measure the lag of read replica {}", replica.name, e);
+            }
+            if (wasAvailable != replica.available) {
+                log.info("Read replica {} {} (lag {}s)", replica.name,
+                        replica.available ? "receives reads" : "skipped", replica.lagSeconds);
+            }
+        }
+    }
+
+    private static HikariDataSource createPool(ReadReplicaProperties.Replica replica,
+                                               ReadReplicaProperties properties,
+                                               MeterRegistry meterRegistry) {
+        String url = replica.getUrl();
+        // Spring keeps a placeholder it cannot resolve as text, and such a replica would silently never
+        // receive reads; a replica that is configured but not addressed is a deployment error
+        if (url == null || url.isBlank() || url.contains("${")) {
+            throw new IllegalStateException("Read replica " + replica.getName() + " has no usable url: " + url);
+        }
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(replica.getName());
+        config.setJdbcUrl(replica.getUrl());
+        config.setUsername(replica.getUsername());
+        config.setPassword(replica.getPassword());
+        config.setMaximumPoolSize(replica.getMaximumPoolSize());
+        config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        config.setReadOnly(true);
+        // Start even while the replica is down; the lag check keeps reads away from it
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+    private static Counter readCounter(String target, MeterRegistry meterRegistry) {
+        return Counter.builder("banklite.datasource.reads")
+                .description("Read-only transactions by the database that served them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final HikariDataSource dataSource;
+        final Counter reads;
+        volatile double lagSeconds = Double.NaN;
+        volatile boolean available;
+
+        Replica(String name, HikariDataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+}
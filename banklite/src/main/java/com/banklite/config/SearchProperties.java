@@ -0,0 +1,27 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for account holder name search.
+ *
+ * Bound from {@code banklite.search.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.search")
+public class SearchProperties {
+
+    /**
+     * Answer searches from an in-process trigram index instead of the database.
+     * For databases without a trigram index (H2); PostgreSQL uses pg_trgm.
+     */
+    private boolean inMemoryIndex = false;
+
+    /**
+     * Longest search query accepted; longer ones are cut to this length.
+     */
+    private int maxQueryLength = 100;
+}
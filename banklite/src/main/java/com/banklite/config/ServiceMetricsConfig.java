@@ -0,0 +1,62 @@
+package com.banklite.config;
+
+import com.banklite.service.AccountBatchService;
+import com.banklite.service.AccountBatchUpdateService;
+import com.banklite.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+/**
+ * Times the public methods of the account services the controllers call, with
+ * {@link ServiceTimingInterceptor}. Services those operations call in turn, such
+ * as {@code CurrencyStatsService} or {@code IdempotencyService}, are not timed:
+ * their time is already part of the operation's, and timing them too would
+ * count it twice in any sum over {@code banklite.service}.
+ *
+ * The advice runs just outside the caching advice, so the timings include cache
+ * hits and the whole transaction, commit included. Methods returning a
+ * {@link Publisher} are skipped: they return before any work is done, and
+ * /api/v2 is timed by {@code http.server.requests} instead. Repository calls are
+ * timed by Spring Data ({@code spring.data.repository.invocations}) and
+ * connection-pool waits by Hikari ({@code hikaricp.connections.acquire}); see
+ * {@code management.metrics} in application.yml.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ServiceMetricsConfig {
+
+    private static final Set<Class<?>> TIMED_SERVICES =
+            Set.of(AccountService.class, AccountBatchService.class, AccountBatchUpdateService.class);
+
+    // Infrastructure role, so the auto-proxy creator behind @EnableCaching applies it.
+    // Static so that declaring an advisor does not initialise this configuration early.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return TIMED_SERVICES.contains(ClassUtils.getUserClass(targetClass))
+                        && Modifier.isPublic(method.getModifiers())
+                        && !Modifier.isStatic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class
+                        && !Publisher.class.isAssignableFrom(method.getReturnType());
+            }
+        }, new ServiceTimingInterceptor(meterRegistry));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        return advisor;
+    }
+}
@@ -0,0 +1,154 @@
+package com.banklite.config;
+
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.TransferResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call to a service method into {@value #METRIC}, tagged with the
+ * operation ({@code AccountService.deposit}), the account currency when the
+ * call involves one, and the outcome and exception.
+ *
+ * Recording allocates nothing once a timer exists: timers are looked up by
+ * method in a map filled on first use, then by currency and outcome in a fixed
+ * array. Timers are registered lazily, so tag combinations that never occur
+ * publish no histogram buckets.
+ */
+public class ServiceTimingInterceptor implements MethodInterceptor {
+
+    public static final String METRIC = "banklite.service";
+
+    static final String NONE = "none";
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final Map<Method, OperationTimers> timers = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Takes a provider because advisors are created before the meter registry.
+     */
+    public ServiceTimingInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            timers(invocation).failure(currencyOf(invocation.getArguments(), null), e.getClass())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        timers(invocation).success(currencyOf(invocation.getArguments(), result))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private OperationTimers timers(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        OperationTimers operation = timers.get(method);
+        if (operation == null) {
+            Class<?> target = invocation.getThis() == null
+                    ? method.getDeclaringClass() : ClassUtils.getUserClass(invocation.getThis());
+            operation = timers.computeIfAbsent(method,
+                    m -> new OperationTimers(target.getSimpleName() + "." + m.getName()));
+        }
+        return operation;
+    }
+
+    /**
+     * The currency of the account a call returned or was given, as an index into
+     * {@link #CURRENCIES}, or {@code CURRENCIES.length} when there is none.
+     */
+    private static int currencyOf(Object[] arguments, Object result) {
+        Currency currency = null;
+        if (result instanceof AccountResponse account) {
+            currency = account.getCurrency();
+        } else if (result instanceof TransferResponse transfer && transfer.getFromAccount() != null) {
+            currency = transfer.getFromAccount().getCurrency();
+        }
+        for (int i = 0; currency == null && i < arguments.length; i++) {
+            if (arguments[i] instanceof AccountRequest request) {
+                currency = request.getCurrency();
+            }
+        }
+        return currency == null ? CURRENCIES.length : currency.ordinal();
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getObject();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+
+    /**
+     * The timers of one operation. Success timers sit in an array by currency;
+     * failures, which are rare, in a map by currency and exception type.
+     */
+    private final class OperationTimers {
+
+        private final String operation;
+        private final Timer[] successes = new Timer[CURRENCIES.length + 1];
+        private final Map<Class<?>, Timer[]> failures = new ConcurrentHashMap<>();
+
+        private OperationTimers(String operation) {
+            this.operation = operation;
+        }
+
+        Timer success(int currency) {
+            Timer timer = successes[currency];
+            if (timer == null) {
+                // Registering is idempotent, so a racing thread gets the same timer
+                timer = register(currency, "success", NONE);
+                successes[currency] = timer;
+            }
+            return timer;
+        }
+
+        Timer failure(int currency, Class<?> exception) {
+            Timer[] byCurrency = failures.computeIfAbsent(exception, e -> new Timer[CURRENCIES.length + 1]);
+            Timer timer = byCurrency[currency];
+            if (timer == null) {
+                timer = register(currency, "error", exception.getSimpleName());
+                byCurrency[currency] = timer;
+            }
+            return timer;
+        }
+
+        private Timer register(int currency, String outcome, String exception) {
+            return Timer.builder(METRIC)
+                    .description("Service method latency")
+                    .tag("operation", operation)
+                    .tag("currency", currency == CURRENCIES.length ? NONE : CURRENCIES[currency].name())
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    // Bounds the histogram to the buckets between these two
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every JDBC DataSource through {@link SqlTelemetryListener}.
+ *
+ * The wrapping happens after the pool has been bound to its
+ * {@code spring.datasource.hikari.*} settings, and the proxy still unwraps to
+ * the Hikari pool for the connection-pool metrics.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "banklite.sql-telemetry", name = "enabled", matchIfMissing = true)
+public class SqlTelemetryConfig {
+
+    @Bean
+    public SqlTelemetryListener sqlTelemetryListener(SqlTelemetryProperties properties, MeterRegistry meterRegistry) {
+        return new SqlTelemetryListener(properties, meterRegistry);
+    }
+
+    // Static so that declaring a post-processor does not initialise this configuration early
+    @Bean
+    public static BeanPostProcessor sqlTelemetryDataSourceProxy(ObjectProvider<SqlTelemetryListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC statement and reports slow ones, in place of Hibernate's
+ * synchronous SQL logging.
+ *
+ * Each execution is recorded in the {@code banklite.sql.queries} timer (with a
+ * percentile histogram), tagged by statement type, batch and outcome. Statements
+ * over the slow-query threshold, plus a configurable sample of the rest, are
+ * logged from a single background thread through a bounded queue, so a burst of
+ * slow queries never makes the request threads wait on the logger. Only the
+ * statement text is logged: Hibernate always uses prepared statements, so bound
+ * values such as balances appear as {@code ?} and are never read.
+ */
+@Slf4j
+public class SqlTelemetryListener implements QueryExecutionListener, DisposableBean {
+
+    private static final String START_NANOS = SqlTelemetryListener.class.getName() + ".startNanos";
+    private static final int MAX_LOGGED_SQL_LENGTH = 1000;
+
+    private final Map<QueryType, Timer[]> timers = new EnumMap<>(QueryType.class);
+    private final Map<QueryType, Counter> slowQueries = new EnumMap<>(QueryType.class);
+    private final Counter droppedLogLines;
+    private final long slowQueryThresholdNanos;
+    private final double sampleRate;
+    private final ThreadPoolExecutor logWriter;
+
+    public SqlTelemetryListener(SqlTelemetryProperties properties, MeterRegistry meterRegistry) {
+        this.slowQueryThresholdNanos = properties.getSlowQueryThreshold().toNanos();
+        this.sampleRate = properties.getSampleRate();
+
+        // Registered up front so the hot path is an array lookup, not a registry lookup
+        for (QueryType type : QueryType.values()) {
+            Timer[] byOutcome = new Timer[4];
+            for (int i = 0; i < byOutcome.length; i++) {
+                byOutcome[i] = Timer.builder("banklite.sql.queries")
+                        .description("JDBC statement execution time")
+                        .tag("type", type.tag)
+                        .tag("batch", String.valueOf((i & 1) != 0))
+                        .tag("outcome", (i & 2) != 0 ? "error" : "success")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+            }
+            timers.put(type, byOutcome);
+            slowQueries.put(type, Counter.builder("banklite.sql.slow_queries")
+                    .description("JDBC statements slower than the slow-query threshold")
+                    .tag("type", type.tag)
+                    .register(meterRegistry));
+        }
+        this.droppedLogLines = Counter.builder("banklite.sql.telemetry.dropped")
+                .description("Slow or sampled query log lines dropped because the log queue was full")
+                .register(meterRegistry);
+        this.logWriter = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sql-telemetry");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> droppedLogLines.increment());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (startNanos == null) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        QueryType type = QueryType.of(sql);
+        boolean success = execInfo.isSuccess();
+        int outcome = (execInfo.isBatch() ? 1 : 0) | (success ? 0 : 2);
+        timers.get(type)[outcome].record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos >= slowQueryThresholdNanos) {
+            slowQueries.get(type).increment();
+            int batchSize = execInfo.getBatchSize();
+            logWriter.execute(() -> log.warn("Slow query type={} elapsedMs={} batchSize={} success={} sql={}",
+                    type.tag, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), batchSize, success, abbreviate(sql)));
+        } else if (sampleRate > 0 && log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logWriter.execute(() -> log.debug("Query type={} elapsedMicros={} success={} sql={}",
+                    type.tag, TimeUnit.NANOSECONDS.toMicros(elapsedNanos), success, abbreviate(sql)));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        logWriter.shutdown();
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    enum QueryType {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        /**
+         * Classifies a statement by its leading keyword, without allocating.
+         */
+        static QueryType of(String sql) {
+            int start = 0;
+            while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+                start++;
+            }
+            for (QueryType type : values()) {
+                if (type != OTHER && sql.regionMatches(true, start, type.name(), 0, type.name().length())) {
+                    return type;
+                }
+            }
+            // Common table expressions are read queries in this application
+            return sql.regionMatches(true, start, "WITH", 0, 4) ? SELECT : OTHER;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for JDBC query telemetry.
+ *
+ * Bound from {@code banklite.sql-telemetry.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.sql-telemetry")
+public class SqlTelemetryProperties {
+
+    /**
+     * Whether JDBC statements are timed at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements slower than this are always logged.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /**
+     * Fraction (0.0 - 1.0) of the remaining statements that are logged at DEBUG.
+     */
+    private double sampleRate = 0.0;
+
+    /**
+     * Log lines waiting for the background logger; further ones are dropped and counted.
+     */
+    private int queueCapacity = 1000;
+}
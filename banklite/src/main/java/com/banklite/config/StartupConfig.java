@@ -0,0 +1,72 @@
+package com.banklite.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Decides which beans are still created at startup when the
+ * {@code fast-startup} profile turns on {@code spring.main.lazy-initialization}.
+ *
+ * BankLite's own beans stay eager: several start background work from
+ * {@code @PostConstruct} (relays, purgers, the status snapshot) that would
+ * otherwise never run, and the controllers and services behind them should not
+ * make the first request pay for their creation. Framework beans that only
+ * some requests need, such as springdoc and the OpenAPI description from
+ * {@link OpenApiConfig}, are created on first use.
+ *
+ * springdoc declares its configuration {@code @Lazy(false)}, which the exclude
+ * filter cannot override, and its api-docs controller builds the whole OpenAPI
+ * description when it is created. Its bean definitions are therefore marked
+ * lazy explicitly.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final String APPLICATION_PACKAGE = "com.banklite";
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    /**
+     * Static, so that registering the filter does not create this configuration early.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        return (beanName, beanDefinition, beanType) -> isEager(beanType);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.main.lazy-initialization", havingValue = "true")
+    static BeanFactoryPostProcessor lazySpringdoc() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isSpringdoc(beanFactory, definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isSpringdoc(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        // @Bean methods are registered with their configuration class as factory bean
+        String factoryBean = definition.getFactoryBeanName();
+        if (className == null && factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+            className = beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+        }
+        return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+    }
+
+    static boolean isEager(Class<?> beanType) {
+        // Configuration classes are registered as their CGLIB subclass
+        Class<?> type = ClassUtils.getUserClass(beanType);
+        return type != OpenApiConfig.class
+            && (type.getPackageName().equals(APPLICATION_PACKAGE)
+                || type.getPackageName().startsWith(APPLICATION_PACKAGE + "."));
+    }
+}
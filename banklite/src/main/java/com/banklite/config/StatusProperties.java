@@ -0,0 +1,24 @@
+package com.banklite.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the /api/v1/status and /api/v1/welcome snapshots.
+ *
+ * Bound from {@code banklite.status.*} in application.yml.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "banklite.status")
+public class StatusProperties {
+
+    /**
+     * How often the runtime figures in the status snapshot are re-read. Both
+     * endpoints serve the latest snapshot, so this is also their staleness.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,87 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Watches for virtual threads pinned to their carrier while blocking.
+ *
+ * A virtual thread that blocks inside a {@code synchronized} block (as some JDBC
+ * drivers and H2 still do) cannot unmount, so it holds a carrier thread for the
+ * whole wait and quietly caps concurrency at the number of carriers. This
+ * component streams the JDK's {@code jdk.VirtualThreadPinned} JFR events,
+ * counts them in {@code banklite.virtual_threads.pinned} and logs where each
+ * pin happened, so such paths show up in metrics and logs rather than only
+ * as lost throughput.
+ *
+ * Only active when {@code spring.threads.virtual.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private final Duration threshold;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${banklite.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("banklite.virtual_threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("banklite.virtual_threads.pinned.duration")
+                .description("How long pinned virtual threads held their carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recordingStream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {}", threshold);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        if (log.isWarnEnabled() && event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            String where = frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining("\n\tat "));
+            log.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), where);
+        }
+    }
+}
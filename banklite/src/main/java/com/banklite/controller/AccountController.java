@@ -1,62 +1,361 @@
 package com.banklite.controller;
 
+import com.banklite.model.dto.AccountPageResponse;
+import com.banklite.model.dto.AmountRequest;
+import com.banklite.model.dto.BatchCreateResponse;
+import com.banklite.model.dto.BatchUpdateRequest;
+import com.banklite.model.dto.BatchUpdateResponse;
+import com.banklite.model.dto.CurrencyStatsResponse;
 import com.banklite.model.dto.AccountRequest;
 import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.LedgerBalanceResponse;
+import com.banklite.model.dto.PatchOperation;
+import com.banklite.model.dto.TransactionPageResponse;
+import com.banklite.model.dto.TransferRequest;
+import com.banklite.model.dto.TransferResponse;
+import com.banklite.service.AccountBatchService;
+import com.banklite.service.AccountBatchUpdateService;
+import com.banklite.service.AccountPatch;
 import com.banklite.service.AccountService;
+import com.banklite.service.CurrencyStatsService;
+import com.banklite.service.HotAccountCoalescer;
+import com.banklite.service.IdempotencyService;
+import com.banklite.service.LedgerService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
 @Tag(name = "Account Management")
 public class AccountController {
     
+    private static final String JSON_PATCH_VALUE = "application/json-patch+json";
+    
+    // A CBOR sequence (RFC 8742): CBOR items back to back, with no framing
+    private static final String CBOR_SEQ_VALUE = "application/cbor-seq";
+    private static final MediaType CBOR_SEQ = MediaType.parseMediaType(CBOR_SEQ_VALUE);
+    
+    private static final String IDEMPOTENCY_KEY_DESCRIPTION = "Client-chosen key that makes retries of this request "
+            + "return the first response instead of running it again (kept for 24 hours by default)";
+    
     private final AccountService accountService;
+    private final AccountBatchService accountBatchService;
+    private final AccountBatchUpdateService accountBatchUpdateService;
+    private final HotAccountCoalescer hotAccountCoalescer;
+    private final LedgerService ledgerService;
+    private final CurrencyStatsService currencyStatsService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
     
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService,
+                             AccountBatchService accountBatchService,
+                             AccountBatchUpdateService accountBatchUpdateService,
+                             HotAccountCoalescer hotAccountCoalescer,
+                             LedgerService ledgerService,
+                             CurrencyStatsService currencyStatsService,
+                             IdempotencyService idempotencyService,
+                             ObjectMapper objectMapper,
+                             MappingJackson2CborHttpMessageConverter cborConverter) {
         this.accountService = accountService;
+        this.accountBatchService = accountBatchService;
+        this.accountBatchUpdateService = accountBatchUpdateService;
+        this.hotAccountCoalescer = hotAccountCoalescer;
+        this.ledgerService = ledgerService;
+        this.currencyStatsService = currencyStatsService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
     }
     
     @PostMapping
     @Operation(summary = "Create new account")
-    public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody AccountRequest request) {
-        AccountResponse response = accountService.createAccount(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<AccountResponse> createAccount(
+            @Valid @RequestBody AccountRequest request,
+            @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION)
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "create", request, AccountResponse.class, () -> {
+            AccountResponse response = accountService.createAccount(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+    
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Create accounts in bulk",
+            description = "Each item is validated separately; the response reports the outcome of every item by index.")
+    public ResponseEntity<BatchCreateResponse> createAccounts(@RequestBody List<AccountRequest> requests) {
+        BatchCreateResponse response = accountBatchService.createAccounts(requests.iterator());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create accounts in bulk from newline-delimited JSON",
+            description = "Items are read from the request body as they arrive instead of being buffered first.")
+    public ResponseEntity<BatchCreateResponse> createAccountsFromStream(InputStream body) throws IOException {
+        try (MappingIterator<AccountRequest> requests =
+                     objectMapper.readerFor(AccountRequest.class).readValues(body)) {
+            BatchCreateResponse response = accountBatchService.createAccounts(requests);
+            return ResponseEntity.ok(response);
+        }
+    }
+    
+    @PatchMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Apply one JSON Patch to many accounts",
+            description = "Only /accountHolderName and /currency can be patched in bulk. Ids are updated in chunks "
+                    + "with set-based statements, writing only the accounts whose values change.")
+    public ResponseEntity<BatchUpdateResponse> updateAccounts(@Valid @RequestBody BatchUpdateRequest request) {
+        AccountPatch patch = AccountPatch.from(request.getOperations());
+        BatchUpdateResponse response = accountBatchUpdateService.updateAccounts(request.getIds(), patch);
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping("/{id}")
-    @Operation(summary = "Get account by ID")
-    public ResponseEntity<AccountResponse> getAccount(@PathVariable Long id) {
+    @Operation(summary = "Get account by ID",
+            description = "Returns 304 without a body when If-None-Match lists the account's current ETag.")
+    public ResponseEntity<AccountResponse> getAccount(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long currentVersion = null;
+        if (ifNoneMatch != null) {
+            // Only the version is read, so a revalidation never loads or serializes the account
+            currentVersion = accountService.getAccountVersion(id);
+            String etag = AccountETags.of(id, currentVersion);
+            if (AccountETags.noneMatchHits(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         AccountResponse response = accountService.getAccount(id);
-        return ResponseEntity.ok(response);
+        if (currentVersion != null && response.getVersion() != currentVersion) {
+            // The cached copy predates the version just compared; never answer a failed revalidation with it
+            response = accountService.refreshAccount(id);
+        }
+        return AccountETags.tagged(ResponseEntity.ok(response));
+    }
+    
+    @GetMapping("/number/{accountNumber}")
+    @Operation(summary = "Get account by account number")
+    public ResponseEntity<AccountResponse> getAccountByNumber(@PathVariable String accountNumber) {
+        Long id = accountService.getAccountIdByNumber(accountNumber);
+        AccountResponse response = accountService.getAccount(id);
+        return AccountETags.tagged(ResponseEntity.ok(response));
     }
     
     @GetMapping
-    @Operation(summary = "Get all accounts")
-    public ResponseEntity<List<AccountResponse>> getAllAccounts() {
-        List<AccountResponse> accounts = accountService.getAllAccounts();
-        return ResponseEntity.ok(accounts);
+    @Operation(summary = "Get accounts, one keyset page at a time",
+            description = "Pass the nextCursor of the previous page as 'after' to fetch the following page.")
+    public ResponseEntity<AccountPageResponse> getAccounts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        AccountPageResponse page = accountService.getAccounts(after, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search accounts by holder name",
+            description = "Case-insensitive substring match, in id order. Pass the nextCursor of the previous page "
+                    + "as 'after' to fetch the following page.")
+    public ResponseEntity<AccountPageResponse> searchAccounts(
+            @RequestParam String q,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        AccountPageResponse page = accountService.searchAccounts(q, after, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Get account count and balance statistics per currency",
+            description = "Served from running totals, so the cost does not grow with the number of accounts.")
+    public ResponseEntity<List<CurrencyStatsResponse>> getStats() {
+        return ResponseEntity.ok(currencyStatsService.getStats());
+    }
+    
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, CBOR_SEQ_VALUE})
+    @Operation(summary = "Export all accounts as newline-delimited JSON, or as a CBOR sequence",
+            description = "A CBOR sequence, one CBOR map per account, is returned when Accept names "
+                    + "application/cbor-seq before any type that also matches NDJSON.")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        // One method for both types: two mappings would be ambiguous for Accept: */*
+        return prefersCborSequence(accept)
+                ? export(cborMapper, CBOR_SEQ, false)
+                : export(objectMapper, MediaType.APPLICATION_NDJSON, true);
+    }
+    
+    private static boolean prefersCborSequence(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (type.equalsTypeAndSubtype(CBOR_SEQ)) {
+                return true;
+            }
+            if (type.includes(MediaType.APPLICATION_NDJSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    private ResponseEntity<StreamingResponseBody> export(ObjectMapper mapper, MediaType contentType,
+                                                         boolean newlineDelimited) {
+        // Let the servlet buffer decide when to flush instead of flushing after every row
+        ObjectWriter writer = mapper.writerFor(AccountResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                if (newlineDelimited) {
+                    // Rows are separated by our own newline, not Jackson's default root separator
+                    generator.setRootValueSeparator(null);
+                }
+                accountService.exportAccounts(account -> {
+                    try {
+                        writer.writeValue(generator, account);
+                        if (newlineDelimited) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(body);
     }
     
     @PutMapping("/{id}")
-    @Operation(summary = "Update account")
+    @Operation(summary = "Update account",
+            description = "With If-Match, the update only applies while the account still has one of the given "
+                    + "ETags, and fails with 412 otherwise.")
     public ResponseEntity<AccountResponse> updateAccount(
             @PathVariable Long id, 
-            @Valid @RequestBody AccountRequest request) {
-        AccountResponse response = accountService.updateAccount(id, request);
+            @Valid @RequestBody AccountRequest request,
+            @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION)
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Set<Long> expectedVersions = ifMatch == null ? null : AccountETags.matchingVersions(ifMatch, id);
+        ResponseEntity<AccountResponse> result = idempotencyService.execute(idempotencyKey, "update " + id, request,
+                AccountResponse.class, () -> {
+            AccountResponse response = accountService.updateAccount(id, request, expectedVersions);
+            return ResponseEntity.ok(response);
+        });
+        // Tagged here rather than in the action, so replayed responses carry the ETag too
+        return AccountETags.tagged(result);
+    }
+    
+    @PatchMapping(value = "/{id}", consumes = JSON_PATCH_VALUE)
+    @Operation(summary = "Partially update an account with a JSON Patch",
+            description = "Supports replace (or add) of /accountHolderName, /balance and /currency. "
+                    + "Only the changed columns are written. With If-Match, the patch only applies while the "
+                    + "account still has one of the given ETags, and fails with 412 otherwise.")
+    public ResponseEntity<AccountResponse> patchAccount(
+            @PathVariable Long id,
+            @Valid @RequestBody List<PatchOperation> operations,
+            @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION)
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AccountPatch patch = AccountPatch.from(operations);
+        Set<Long> expectedVersions = ifMatch == null ? null : AccountETags.matchingVersions(ifMatch, id);
+        ResponseEntity<AccountResponse> result = idempotencyService.execute(idempotencyKey, "patch " + id,
+                operations, AccountResponse.class, () -> {
+            AccountResponse response = accountService.patchAccount(id, patch, expectedVersions);
+            return ResponseEntity.ok(response);
+        });
+        return AccountETags.tagged(result);
+    }
+    
+    @PostMapping("/{id}/deposit")
+    @Operation(summary = "Deposit funds into an account")
+    public ResponseEntity<AccountResponse> deposit(
+            @PathVariable Long id,
+            @Valid @RequestBody AmountRequest request,
+            @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION)
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "deposit " + id, request, AccountResponse.class, () -> {
+            // Hot accounts are routed outside any transaction so waiting callers do not pin connections
+            AccountResponse response = hotAccountCoalescer.isHot(id)
+                    ? hotAccountCoalescer.deposit(id, request.getAmount())
+                    : accountService.deposit(id, request.getAmount());
+            return ResponseEntity.ok(response);
+        });
+    }
+    
+    @PostMapping("/{id}/withdraw")
+    @Operation(summary = "Withdraw funds from an account")
+    public ResponseEntity<AccountResponse> withdraw(
+            @PathVariable Long id,
+            @Valid @RequestBody AmountRequest request,
+            @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION)
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "withdraw " + id, request, AccountResponse.class, () -> {
+            AccountResponse response = hotAccountCoalescer.isHot(id)
+                    ? hotAccountCoalescer.withdraw(id, request.getAmount())
+                    : accountService.withdraw(id, request.getAmount());
+            return ResponseEntity.ok(response);
+        });
+    }
+    
+    @PostMapping("/transfer")
+    @Operation(summary = "Transfer funds between two accounts of the same currency")
+    public ResponseEntity<TransferResponse> transfer(
+            @Valid @RequestBody TransferRequest request,
+            @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION)
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "transfer", request, TransferResponse.class, () -> {
+            TransferResponse response = accountService.transfer(
+                    request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+            return ResponseEntity.ok(response);
+        });
+    }
+    
+    @GetMapping("/{id}/transactions")
+    @Operation(summary = "Get an account's transaction history, newest first",
+            description = "Pass the nextCursor of the previous page as 'before' to fetch older entries.")
+    public ResponseEntity<TransactionPageResponse> getTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
+        TransactionPageResponse page = ledgerService.getHistory(id, before, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/{id}/ledger-balance")
+    @Operation(summary = "Get the balance rebuilt from the transaction ledger")
+    public ResponseEntity<LedgerBalanceResponse> getLedgerBalance(@PathVariable Long id) {
+        LedgerBalanceResponse response = ledgerService.getLedgerBalance(id);
         return ResponseEntity.ok(response);
     }
     
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete account")
-    public ResponseEntity<Void> deleteAccount(@PathVariable Long id) {
-        accountService.deleteAccount(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Void> deleteAccount(
+            @PathVariable Long id,
+            @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION)
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "delete " + id, null, Void.class, () -> {
+            accountService.deleteAccount(id);
+            return ResponseEntity.noContent().build();
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.banklite.controller;
+
+import com.banklite.model.dto.AccountResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entity tags of accounts, {@code "<id>-<version>"}. The version is raised by
+ * every write to the row, so a tag is strong: equal tags mean equal
+ * representations, and no two accounts share one.
+ */
+final class AccountETags {
+    
+    private static final String WILDCARD = "*";
+    private static final String WEAK_PREFIX = "W/";
+    
+    private AccountETags() {
+    }
+    
+    static String of(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+    
+    /**
+     * The response with the ETag of its account, when it has one.
+     */
+    static ResponseEntity<AccountResponse> tagged(ResponseEntity<AccountResponse> response) {
+        AccountResponse account = response.getBody();
+        if (account == null || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+            .headers(response.getHeaders())
+            .eTag(of(account.getId(), account.getVersion()))
+            .body(account);
+    }
+    
+    /**
+     * Whether an If-None-Match header lists {@code etag}, by the weak comparison
+     * RFC 9110 prescribes for it, or is {@code *}.
+     */
+    static boolean noneMatchHits(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.strip();
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(WILDCARD) || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Versions of account {@code id} that an If-Match header accepts, or null for
+     * {@code *}, which any existing account satisfies. Weak tags and tags of
+     * other accounts never match, so they are left out.
+     */
+    static Set<Long> matchingVersions(String ifMatch, Long id) {
+        String prefix = "\"" + id + "-";
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.strip();
+            if (tag.equals(WILDCARD)) {
+                return null;
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(prefix.length(), tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Not one of our tags
+                }
+            }
+        }
+        return versions;
+    }
+}
@@ -1,24 +1,27 @@
 package com.banklite.controller;
 
+import com.banklite.model.dto.ApplicationStatusResponse;
+import com.banklite.service.ApplicationStatusService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Health and Status Controller for BankLite Application
  * 
  * This controller provides basic health check and application status endpoints
- * for monitoring and verification purposes.
+ * for monitoring and verification purposes. Both bodies are pre-serialized
+ * snapshots kept by {@link ApplicationStatusService}, so polling them costs
+ * next to nothing.
  * 
  * @author BankLite Team
  * @version 1.0
@@ -26,61 +29,30 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/v1")
+@RequiredArgsConstructor
 @Tag(name = "Health & Monitoring", description = "Application health checks, metrics, and system status endpoints")
 public class HealthController {
 
+    private final ApplicationStatusService statusService;
+
     /**
      * Basic application status endpoint.
      * 
      * This endpoint provides a simple health check to verify that the application
-     * is running and responsive. It returns basic application information and
-     * current timestamp.
+     * is running and responsive. It returns basic application information along
+     * with connection pool, cache and garbage collector figures, as of the
+     * snapshot timestamp.
      * 
      * @return ResponseEntity containing application status information
      */
-    @GetMapping("/status")
-    @Operation(summary = "Get application status", description = "Returns basic application health and status information including version, timestamp, and operational status.")
+    @GetMapping(value = "/status", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get application status", description = "Returns application health and status information including version, snapshot timestamp, memory, connection pool, cache and GC statistics. Runtime figures are refreshed every banklite.status.refresh-interval.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Application is healthy and operational"),
-            @ApiResponse(responseCode = "500", description = "Application encountered an error")
+            @ApiResponse(responseCode = "200", description = "Application is healthy and operational",
+                    content = @Content(schema = @Schema(implementation = ApplicationStatusResponse.class)))
     })
-    public ResponseEntity<Map<String, Object>> getApplicationStatus() {
-        Map<String, Object> status = new HashMap<>();
-
-        try {
-            // Basic application information
-            status.put("application", "BankLite Banking System");
-            status.put("version", "1.0.0-SNAPSHOT");
-            status.put("status", "UP");
-            status.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-
-            // Runtime information
-            Runtime runtime = Runtime.getRuntime();
-            Map<String, Object> systemInfo = new HashMap<>();
-            systemInfo.put("javaVersion", System.getProperty("java.version"));
-            systemInfo.put("totalMemory", formatBytes(runtime.totalMemory()));
-            systemInfo.put("freeMemory", formatBytes(runtime.freeMemory()));
-            systemInfo.put("processors", runtime.availableProcessors());
-            status.put("system", systemInfo);
-
-            // API endpoints information
-            Map<String, String> endpoints = new HashMap<>();
-            endpoints.put("swagger", "/swagger-ui.html");
-            endpoints.put("health", "/actuator/health");
-            endpoints.put("info", "/actuator/info");
-            endpoints.put("h2Console", "/h2-console");
-            status.put("endpoints", endpoints);
-
-            return ResponseEntity.ok(status);
-
-        } catch (Exception e) {
-            status.put("application", "BankLite Banking System");
-            status.put("status", "DOWN");
-            status.put("error", e.getMessage());
-            status.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-
-            return ResponseEntity.status(500).body(status);
-        }
+    public ResponseEntity<byte[]> getApplicationStatus() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(statusService.statusJson());
     }
 
     /**
@@ -91,61 +63,12 @@ public class HealthController {
      * 
      * @return ResponseEntity containing welcome message and API information
      */
-    @GetMapping("/welcome")
+    @GetMapping(value = "/welcome", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Welcome message and API overview", description = "Provides a welcome message with overview of available API endpoints and documentation links.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Welcome message returned successfully")
     })
-    public ResponseEntity<Map<String, Object>> getWelcomeMessage() {
-        Map<String, Object> welcome = new HashMap<>();
-
-        welcome.put("message", "Welcome to BankLite Banking API");
-        welcome.put("description", "Modern Banking Application with comprehensive REST API");
-        welcome.put("version", "1.0.0");
-        welcome.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-
-        // Available features
-        Map<String, Object> features = new HashMap<>();
-        features.put("accountManagement", "Create and manage bank accounts");
-        features.put("transactions", "Process deposits, withdrawals, and transfers");
-        features.put("balanceInquiry", "Check account balances in real-time");
-        features.put("transactionHistory", "View detailed transaction logs");
-        features.put("jwtAuthentication", "Secure JWT-based authentication");
-        welcome.put("features", features);
-
-        // Documentation links
-        Map<String, String> documentation = new HashMap<>();
-        documentation.put("swaggerUI", "/swagger-ui.html");
-        documentation.put("openApiJson", "/v3/api-docs");
-        documentation.put("openApiYaml", "/v3/api-docs.yaml");
-        documentation.put("actuatorHealth", "/actuator/health");
-        documentation.put("actuatorInfo", "/actuator/info");
-        welcome.put("documentation", documentation);
-
-        // Quick start guide
-        Map<String, String> quickStart = new HashMap<>();
-        quickStart.put("step1", "Visit /swagger-ui.html for interactive API documentation");
-        quickStart.put("step2", "Check /actuator/health for application health status");
-        quickStart.put("step3", "Use /h2-console for database access (development)");
-        quickStart.put("step4", "Explore API endpoints using Swagger UI");
-        welcome.put("quickStart", quickStart);
-
-        return ResponseEntity.ok(welcome);
-    }
-
-    /**
-     * Formats bytes into human-readable format.
-     * 
-     * @param bytes the number of bytes
-     * @return formatted string (e.g., "256 MB", "1.5 GB")
-     */
-    private String formatBytes(long bytes) {
-        if (bytes < 1024)
-            return bytes + " B";
-        if (bytes < 1024 * 1024)
-            return String.format("%.2f KB", bytes / 1024.0);
-        if (bytes < 1024 * 1024 * 1024)
-            return String.format("%.2f MB", bytes / (1024.0 * 1024.0));
-        return String.format("%.2f GB", bytes / (1024.0 * 1024.0 * 1024.0));
+    public ResponseEntity<byte[]> getWelcomeMessage() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(statusService.welcomeJson());
     }
 }
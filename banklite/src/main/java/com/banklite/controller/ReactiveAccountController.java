@@ -0,0 +1,180 @@
+package com.banklite.controller;
+
+import com.banklite.model.dto.AccountPageResponse;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.AmountRequest;
+import com.banklite.model.dto.BatchCreateResponse;
+import com.banklite.model.dto.LedgerBalanceResponse;
+import com.banklite.model.dto.TransactionPageResponse;
+import com.banklite.model.dto.TransferRequest;
+import com.banklite.model.dto.TransferResponse;
+import com.banklite.service.AccountBatchService;
+import com.banklite.service.HotAccountCoalescer;
+import com.banklite.service.ReactiveAccountService;
+import com.banklite.service.ReactiveLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Version 2 of the account API. Same resources, payloads and status codes as
+ * {@link AccountController}, but handlers return {@link Mono}/{@link Flux} backed
+ * by R2DBC: the request thread is released while the database works, and the
+ * response completes asynchronously.
+ */
+@RestController
+@RequestMapping("/api/v2/accounts")
+@Tag(name = "Account Management (reactive)")
+public class ReactiveAccountController {
+
+    private final ReactiveAccountService accountService;
+    private final ReactiveLedgerService ledgerService;
+    private final AccountBatchService accountBatchService;
+    private final HotAccountCoalescer hotAccountCoalescer;
+
+    public ReactiveAccountController(ReactiveAccountService accountService,
+                                     ReactiveLedgerService ledgerService,
+                                     AccountBatchService accountBatchService,
+                                     HotAccountCoalescer hotAccountCoalescer) {
+        this.accountService = accountService;
+        this.ledgerService = ledgerService;
+        this.accountBatchService = accountBatchService;
+        this.hotAccountCoalescer = hotAccountCoalescer;
+    }
+
+    @PostMapping
+    @Operation(summary = "Create new account")
+    public Mono<ResponseEntity<AccountResponse>> createAccount(@Valid @RequestBody AccountRequest request) {
+        return accountService.createAccount(request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create accounts in bulk",
+            description = "Runs the JDBC batch import of /api/v1 off the request thread.")
+    public Mono<ResponseEntity<BatchCreateResponse>> createAccounts(@RequestBody List<AccountRequest> requests) {
+        return Mono.fromCallable(() -> accountBatchService.createAccounts(requests.iterator()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get account by ID")
+    public Mono<ResponseEntity<AccountResponse>> getAccount(@PathVariable Long id) {
+        return accountService.getAccount(id)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/number/{accountNumber}")
+    @Operation(summary = "Get account by account number")
+    public Mono<ResponseEntity<AccountResponse>> getAccountByNumber(@PathVariable String accountNumber) {
+        return accountService.getAccountIdByNumber(accountNumber)
+                .flatMap(accountService::getAccount)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get accounts, one keyset page at a time",
+            description = "Pass the nextCursor of the previous page as 'after' to fetch the following page.")
+    public Mono<ResponseEntity<AccountPageResponse>> getAccounts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return accountService.getAccounts(after, size)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search accounts by holder name",
+            description = "Case-insensitive substring match, in id order. Pass the nextCursor of the previous page "
+                    + "as 'after' to fetch the following page.")
+    public Mono<ResponseEntity<AccountPageResponse>> searchAccounts(
+            @RequestParam String q,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return accountService.searchAccounts(q, after, size)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all accounts as newline-delimited JSON",
+            description = "Rows are pulled from the database only as fast as the client reads them.")
+    public Flux<AccountResponse> exportAccounts() {
+        return accountService.exportAccounts();
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update account")
+    public Mono<ResponseEntity<AccountResponse>> updateAccount(
+            @PathVariable Long id,
+            @Valid @RequestBody AccountRequest request) {
+        return accountService.updateAccount(id, request)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/{id}/deposit")
+    @Operation(summary = "Deposit funds into an account")
+    public Mono<ResponseEntity<AccountResponse>> deposit(
+            @PathVariable Long id,
+            @Valid @RequestBody AmountRequest request) {
+        // The coalescer blocks its caller until the batch is durable, so wait on a worker thread
+        Mono<AccountResponse> response = hotAccountCoalescer.isHot(id)
+                ? Mono.fromCallable(() -> hotAccountCoalescer.deposit(id, request.getAmount()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                : accountService.deposit(id, request.getAmount());
+        return response.map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/{id}/withdraw")
+    @Operation(summary = "Withdraw funds from an account")
+    public Mono<ResponseEntity<AccountResponse>> withdraw(
+            @PathVariable Long id,
+            @Valid @RequestBody AmountRequest request) {
+        Mono<AccountResponse> response = hotAccountCoalescer.isHot(id)
+                ? Mono.fromCallable(() -> hotAccountCoalescer.withdraw(id, request.getAmount()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                : accountService.withdraw(id, request.getAmount());
+        return response.map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/transfer")
+    @Operation(summary = "Transfer funds between two accounts of the same currency")
+    public Mono<ResponseEntity<TransferResponse>> transfer(@Valid @RequestBody TransferRequest request) {
+        return accountService.transfer(request.getFromAccountId(), request.getToAccountId(), request.getAmount())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}/transactions")
+    @Operation(summary = "Get an account's transaction history, newest first",
+            description = "Pass the nextCursor of the previous page as 'before' to fetch older entries.")
+    public Mono<ResponseEntity<TransactionPageResponse>> getTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
+        return ledgerService.getHistory(id, before, size)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}/ledger-balance")
+    @Operation(summary = "Get the balance rebuilt from the transaction ledger")
+    public Mono<ResponseEntity<LedgerBalanceResponse>> getLedgerBalance(@PathVariable Long id) {
+        return ledgerService.getLedgerBalance(id)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete account")
+    public Mono<ResponseEntity<Void>> deleteAccount(@PathVariable Long id) {
+        return accountService.deleteAccount(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.banklite.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class AccountVersionMismatchException extends RuntimeException {
+    public AccountVersionMismatchException(String message) {
+        super(message);
+    }
+}
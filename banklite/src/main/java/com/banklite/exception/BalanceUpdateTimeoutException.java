@@ -0,0 +1,11 @@
+package com.banklite.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BalanceUpdateTimeoutException extends RuntimeException {
+    public BalanceUpdateTimeoutException(String message) {
+        super(message);
+    }
+}
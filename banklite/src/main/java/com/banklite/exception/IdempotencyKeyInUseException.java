@@ -0,0 +1,11 @@
+package com.banklite.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInUseException extends RuntimeException {
+    public IdempotencyKeyInUseException(String message) {
+        super(message);
+    }
+}
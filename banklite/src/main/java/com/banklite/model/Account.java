@@ -6,22 +6,43 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "accounts")
+// Serves per-currency minimum and maximum balance lookups (see CurrencyStatsService)
+@Table(name = "accounts", indexes = {
+    @Index(name = "idx_accounts_currency_balance", columnList = "currency, balance"),
+    // Partial (deleted rows only) in init-db.sql; lets AccountPurger find its next batch without a scan
+    @Index(name = "idx_accounts_deleted_at", columnList = "deleted_at")
+})
+// Soft-deleted accounts are invisible to every entity load and JPQL query
+@SQLRestriction("deleted_at IS NULL")
+// UPDATEs write only the columns that changed, e.g. a patched name leaves the balance index alone
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Account {
     
+    /**
+     * Ids reserved per sequence call. The reactive API draws from the same sequence.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Sequence ids with pooled allocation let Hibernate batch inserts; IDENTITY cannot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_id_seq")
+    @SequenceGenerator(name = "accounts_id_seq", sequenceName = "accounts_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotNull
@@ -36,13 +57,37 @@ public class Account {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
     
+    // Plain VARCHAR as in init-db.sql, rather than H2's native ENUM, so R2DBC can bind it as text
     @NotNull
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 3)
     private Currency currency;
     
+    /**
+     * Entry number of the latest ledger entry for this account; see {@link AccountTransaction}.
+     */
+    @Column(nullable = false)
+    private long lastEntryNo;
+    
+    /**
+     * Raised by every change to the row, including the bulk UPDATEs that bypass
+     * this entity; the account's ETag in {@link com.banklite.controller.AccountController}.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+    
     @CreationTimestamp
     private LocalDateTime createdAt;
     
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+    
+    /**
+     * Set by {@link com.banklite.service.AccountService#deleteAccount}; the row
+     * itself is removed later by {@link com.banklite.service.AccountPurger}.
+     */
+    private LocalDateTime deletedAt;
 }
\ No newline at end of file
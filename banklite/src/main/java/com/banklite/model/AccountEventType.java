@@ -0,0 +1,5 @@
+package com.banklite.model;
+
+public enum AccountEventType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,48 @@
+package com.banklite.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code accounts} table used by the reactive API.
+ *
+ * Kept apart from the JPA {@link Account} entity so each Spring Data module
+ * claims only its own repositories. Columns follow the same snake_case names
+ * Hibernate generates.
+ */
+@Table("accounts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountRow {
+    
+    @Id
+    private Long id;
+    
+    private String accountHolderName;
+    
+    private String accountNumber;
+    
+    private BigDecimal balance;
+    
+    private Currency currency;
+    
+    private long lastEntryNo;
+    
+    // Null until inserted, which R2DBC then sets to 0 like Hibernate does
+    @Version
+    private Long version;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,66 @@
+package com.banklite.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry in the append-only ledger. Entries are never updated or deleted.
+ *
+ * {@code entryNo} numbers an account's entries 1, 2, 3... in the order they were
+ * committed: it is taken from {@link Account#getLastEntryNo()} while the account
+ * row is locked, so unlike ids or timestamps it cannot interleave across
+ * concurrent writers or application nodes.
+ */
+@Entity
+@Immutable
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_account_entry", columnList = "account_id, entry_no"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTransaction {
+    
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_seq")
+    @SequenceGenerator(name = "transactions_id_seq", sequenceName = "transactions_id_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+    
+    // A plain id rather than an association: the ledger outlives deleted accounts
+    @NotNull
+    @Column(nullable = false)
+    private Long accountId;
+    
+    @Column(nullable = false)
+    private long entryNo;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private TransactionType type;
+    
+    /**
+     * Signed change to the balance: negative for withdrawals and outgoing transfers.
+     */
+    @NotNull
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+    
+    private Long counterpartyAccountId;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package com.banklite.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code transactions} ledger; see {@link AccountTransaction}.
+ */
+@Table("transactions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTransactionRow {
+    
+    @Id
+    private Long id;
+    
+    private Long accountId;
+    
+    private long entryNo;
+    
+    private TransactionType type;
+    
+    private BigDecimal amount;
+    
+    private Long counterpartyAccountId;
+    
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,57 @@
+package com.banklite.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A deleted account copied out of {@code accounts} by
+ * {@link com.banklite.service.AccountPurger} before the row was removed, when
+ * {@code banklite.account-purge.archive=true}. Written only in SQL; mapped so
+ * the table exists wherever the schema is generated.
+ */
+@Entity
+@Table(name = "accounts_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedAccount {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private String accountHolderName;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+    
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 3, nullable = false)
+    private Currency currency;
+    
+    @Column(nullable = false)
+    private long lastEntryNo;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,45 @@
+package com.banklite.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An account's balance right after ledger entry {@code entryNo}. The ledger
+ * balance is the latest snapshot plus the entries after it.
+ */
+@Entity
+@Immutable
+@Table(name = "balance_snapshots", indexes = @Index(name = "idx_balance_snapshots_account_entry", columnList = "account_id, entry_no"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @Column(nullable = false)
+    private Long accountId;
+    
+    @Column(nullable = false)
+    private long entryNo;
+    
+    @NotNull
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
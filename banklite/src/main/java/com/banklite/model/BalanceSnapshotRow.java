@@ -0,0 +1,33 @@
+package com.banklite.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of {@code balance_snapshots}; see {@link BalanceSnapshot}.
+ */
+@Table("balance_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshotRow {
+    
+    @Id
+    private Long id;
+    
+    private Long accountId;
+    
+    private long entryNo;
+    
+    private BigDecimal balance;
+    
+    private LocalDateTime createdAt;
+}
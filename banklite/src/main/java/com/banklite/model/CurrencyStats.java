@@ -0,0 +1,70 @@
+package com.banklite.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One stripe of the running account count and balance total of a currency.
+ *
+ * Writers add their change to a stripe picked for their transaction, in the
+ * same transaction as the balance change. The totals are spread over
+ * {@link #STRIPES} rows per currency so concurrent writers rarely wait for the
+ * same row lock; readers add the stripes back up.
+ */
+@Entity
+@Table(name = "currency_stats")
+@IdClass(CurrencyStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyStats {
+    
+    public static final int STRIPES = 16;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 3)
+    private Currency currency;
+    
+    @Id
+    private int stripe;
+    
+    @Column(nullable = false)
+    private long accountCount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalBalance;
+    
+    /**
+     * A stripe for the changes of one transaction. Only the sum over stripes is
+     * ever read, so any stripe will do; choosing it per transaction rather than
+     * per account keeps writers of different accounts off one row lock.
+     */
+    public static int anyStripe() {
+        return ThreadLocalRandom.current().nextInt(STRIPES);
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        
+        private Currency currency;
+        
+        private int stripe;
+    }
+}
@@ -0,0 +1,61 @@
+package com.banklite.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The outcome of a request sent with an {@code Idempotency-Key} header.
+ *
+ * The row is inserted before the request runs, so a second request with the same
+ * key finds it even while the first is still in progress; the response is filled
+ * in once the request has succeeded.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    
+    public static final int MAX_KEY_LENGTH = 255;
+    
+    @Id
+    @Column(length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+    
+    /**
+     * SHA-256 of the operation and request body, to reject a key reused for a different request.
+     */
+    @NotNull
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    
+    /**
+     * HTTP status of the stored response; null while the request is in progress.
+     */
+    private Integer responseStatus;
+    
+    /**
+     * JSON body of the stored response.
+     */
+    @Column(length = 65535)
+    private String responseBody;
+    
+    /**
+     * When the key was claimed; an in-progress record older than the claim timeout can be claimed again.
+     */
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,54 @@
+package com.banklite.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * An account change waiting to be relayed downstream, written in the same
+ * transaction as the change itself and deleted once delivered.
+ *
+ * Rows are written with plain JDBC by {@code AccountOutbox}; the entity only
+ * declares the table. Ids come from an identity column rather than a pooled
+ * sequence: they are assigned while the account row is locked, so the events of
+ * one account are numbered in commit order even across application nodes.
+ */
+@Entity
+@Table(name = "account_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @Column(nullable = false)
+    private Long accountId;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private AccountEventType eventType;
+    
+    /**
+     * JSON of the account after the change; null for deletions.
+     */
+    @Column(length = 65535)
+    private String payload;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,5 @@
+package com.banklite.model;
+
+public enum TransactionType {
+    OPENING, DEPOSIT, WITHDRAWAL, TRANSFER_IN, TRANSFER_OUT, ADJUSTMENT
+}
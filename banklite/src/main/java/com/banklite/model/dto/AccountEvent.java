@@ -0,0 +1,30 @@
+package com.banklite.model.dto;
+
+import com.banklite.model.AccountEventType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An account change as delivered to downstream systems. Delivery is at least
+ * once: consumers should skip event ids they have already seen.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountEvent {
+    
+    private Long eventId;
+    private AccountEventType type;
+    private Long accountId;
+    private LocalDateTime occurredAt;
+    
+    /**
+     * The account after the change; null for {@link AccountEventType#DELETED}.
+     */
+    private AccountResponse account;
+}
@@ -0,0 +1,20 @@
+package com.banklite.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountPageResponse {
+    
+    private List<AccountResponse> content;
+    private int size;
+    private boolean hasNext;
+    private Long nextCursor;
+}
@@ -20,5 +20,6 @@ public class AccountResponse {
     private String accountNumber;
     private BigDecimal balance;
     private Currency currency;
+    private long version;
     private LocalDateTime createdAt;
 }
\ No newline at end of file
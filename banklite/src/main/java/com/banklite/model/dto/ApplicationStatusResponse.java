@@ -0,0 +1,78 @@
+package com.banklite.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApplicationStatusResponse {
+    
+    private String application;
+    private String version;
+    private String status;
+    // When the snapshot was taken
+    private String timestamp;
+    private SystemInfo system;
+    // Null when the datasource is not a Hikari pool
+    private ConnectionPool connectionPool;
+    private Map<String, CacheStats> caches;
+    private Map<String, GcStats> garbageCollectors;
+    private Map<String, String> endpoints;
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SystemInfo {
+        
+        private String javaVersion;
+        private String totalMemory;
+        private String freeMemory;
+        private int processors;
+        private long heapUsedBytes;
+        private long heapMaxBytes;
+        private int liveThreads;
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConnectionPool {
+        
+        private int active;
+        private int idle;
+        private int total;
+        // Threads waiting for a connection
+        private int pending;
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheStats {
+        
+        private long size;
+        private double hitRate;
+        private long evictions;
+    }
+    
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GcStats {
+        
+        private long collections;
+        private long timeMillis;
+    }
+}
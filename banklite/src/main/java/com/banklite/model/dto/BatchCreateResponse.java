@@ -0,0 +1,19 @@
+package com.banklite.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateResponse {
+    
+    private int created;
+    private int rejected;
+    private List<BatchItemResult> results;
+}
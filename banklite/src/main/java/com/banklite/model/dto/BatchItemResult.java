@@ -0,0 +1,22 @@
+package com.banklite.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    
+    public enum Status { CREATED, INVALID, FAILED }
+    
+    private int index;
+    private Status status;
+    private AccountResponse account;
+    private List<String> errors;
+}
@@ -0,0 +1,24 @@
+package com.banklite.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUpdateRequest {
+    
+    @NotEmpty(message = "At least one account id is required")
+    private List<Long> ids;
+    
+    // Applied to every account in ids
+    @NotEmpty(message = "At least one patch operation is required")
+    private List<@Valid PatchOperation> operations;
+}
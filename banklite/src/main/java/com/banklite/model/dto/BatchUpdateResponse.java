@@ -0,0 +1,21 @@
+package com.banklite.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUpdateResponse {
+    
+    // Accounts written
+    private int updated;
+    // Accounts that already had the patched values, and were not written
+    private int unchanged;
+    private List<Long> notFound;
+}
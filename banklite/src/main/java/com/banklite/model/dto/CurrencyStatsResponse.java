@@ -0,0 +1,24 @@
+package com.banklite.model.dto;
+
+import com.banklite.model.Currency;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyStatsResponse {
+    
+    private Currency currency;
+    private long count;
+    private BigDecimal totalBalance;
+    // Null while the currency has no accounts
+    private BigDecimal minBalance;
+    private BigDecimal maxBalance;
+    private BigDecimal averageBalance;
+}
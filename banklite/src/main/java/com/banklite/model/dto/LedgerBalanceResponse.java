@@ -0,0 +1,22 @@
+package com.banklite.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalanceResponse {
+    
+    private Long accountId;
+    private BigDecimal balance;
+    // Latest entry included in the balance
+    private long asOfEntryNo;
+    // Snapshot the balance was rebuilt from (0 when none exists yet)
+    private long snapshotEntryNo;
+}
@@ -0,0 +1,28 @@
+package com.banklite.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One operation of an RFC 6902 JSON Patch document, e.g.
+ * {@code {"op": "replace", "path": "/currency", "value": "EUR"}}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatchOperation {
+    
+    @NotBlank(message = "Patch operation is required")
+    private String op;
+    
+    @NotBlank(message = "Patch path is required")
+    private String path;
+    
+    // Kept as a tree so a balance is read from its JSON text, not through a double
+    private JsonNode value;
+}
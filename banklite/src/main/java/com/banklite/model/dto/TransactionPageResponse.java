@@ -0,0 +1,20 @@
+package com.banklite.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageResponse {
+    
+    private List<TransactionResponse> content;
+    private int size;
+    private boolean hasNext;
+    private Long nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.banklite.model.dto;
+
+import com.banklite.model.TransactionType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionResponse {
+    
+    private Long id;
+    private Long accountId;
+    private long entryNo;
+    private TransactionType type;
+    private BigDecimal amount;
+    private Long counterpartyAccountId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package com.banklite.model.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferRequest {
+    
+    @NotNull(message = "Source account is required")
+    private Long fromAccountId;
+    
+    @NotNull(message = "Destination account is required")
+    private Long toAccountId;
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be at least 0.01")
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most 2 decimal places")
+    private BigDecimal amount;
+}
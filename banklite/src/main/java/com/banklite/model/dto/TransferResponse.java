@@ -0,0 +1,19 @@
+package com.banklite.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResponse {
+    
+    private AccountResponse fromAccount;
+    private AccountResponse toAccount;
+    private BigDecimal amount;
+}
@@ -2,18 +2,102 @@ package com.banklite.repository;
 
 import com.banklite.model.Account;
 import com.banklite.model.Currency;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     
+    String EXPORT_FETCH_SIZE = "500";
+    
     Optional<Account> findByAccountNumber(String accountNumber);
     
-    List<Account> findByAccountHolderNameContaining(String name);
+    /**
+     * Accounts after {@code afterId} whose lower-cased holder name matches
+     * {@code pattern}. On PostgreSQL the LIKE is served by the trigram index on
+     * lower(account_holder_name).
+     */
+    @Query("select a from Account a where lower(a.accountHolderName) like :pattern escape '!' "
+            + "and a.id > :afterId order by a.id")
+    List<Account> searchByHolderName(@Param("pattern") String pattern, @Param("afterId") Long afterId, Limit limit);
     
     List<Account> findByCurrency(Currency currency);
-}
\ No newline at end of file
+    
+    /**
+     * Full scan, only used to seed {@link com.banklite.model.CurrencyStats}.
+     */
+    @Query("select a.currency as currency, count(a) as accountCount, sum(a.balance) as totalBalance "
+            + "from Account a group by a.currency")
+    List<CurrencyStatsRepository.CurrencyTotals> sumBalancesByCurrency();
+    
+    // With a limit of 1, one seek on the (currency, balance) index
+    @Query("select a.balance from Account a where a.currency = :currency order by a.balance asc")
+    List<BigDecimal> findLowestBalances(@Param("currency") Currency currency, Limit limit);
+    
+    @Query("select a.balance from Account a where a.currency = :currency order by a.balance desc")
+    List<BigDecimal> findHighestBalances(@Param("currency") Currency currency, Limit limit);
+    
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    @Query("select a from Account a order by a.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Account> streamAllByOrderByIdAsc();
+    
+    /**
+     * The version alone, for conditional requests that only need to compare it.
+     */
+    @Query("select a.version from Account a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+    
+    // Bulk updates state the deleted filter themselves rather than rely on @SQLRestriction,
+    // and raise the version, which Hibernate only does for entity updates
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, a.lastEntryNo = a.lastEntryNo + 1, "
+            + "a.version = a.version + 1, a.updatedAt = :now where a.id = :id and a.deletedAt is null")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.lastEntryNo = a.lastEntryNo + 1, "
+            + "a.version = a.version + 1, a.updatedAt = :now "
+            + "where a.id = :id and a.deletedAt is null and a.balance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+    
+    /**
+     * Raises the version by {@code count} on top of the entity update Hibernate flushes
+     * first, for a flush that applied several changes to the row at once.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Account a set a.version = a.version + :count where a.id = :id")
+    int raiseVersion(@Param("id") Long id, @Param("count") long count);
+    
+    /**
+     * Hides the account from every read in one statement, without loading it.
+     * Zero when there is no such account or it is already deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.deletedAt = :now, a.updatedAt = :now, a.version = a.version + 1 "
+            + "where a.id = :id and a.deletedAt is null")
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
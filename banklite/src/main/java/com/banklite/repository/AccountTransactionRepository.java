@@ -0,0 +1,37 @@
+package com.banklite.repository;
+
+import com.banklite.model.AccountTransaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountTransactionRepository extends JpaRepository<AccountTransaction, Long> {
+    
+    /**
+     * Newest-first page of an account's entries below {@code entryNo}; a range scan
+     * on the (account_id, entry_no) index.
+     */
+    List<AccountTransaction> findByAccountIdAndEntryNoLessThanOrderByEntryNoDesc(Long accountId, long entryNo, Limit limit);
+    
+    boolean existsByAccountId(Long accountId);
+    
+    @Query("select sum(t.amount) as amount, max(t.entryNo) as lastEntryNo "
+            + "from AccountTransaction t where t.accountId = :accountId and t.entryNo > :afterEntryNo")
+    LedgerDelta sumAfter(@Param("accountId") Long accountId, @Param("afterEntryNo") long afterEntryNo);
+    
+    /**
+     * Net change of the entries after a snapshot; both values are null when there are none.
+     */
+    interface LedgerDelta {
+        
+        BigDecimal getAmount();
+        
+        Long getLastEntryNo();
+    }
+}
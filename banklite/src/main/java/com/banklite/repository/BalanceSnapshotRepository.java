@@ -0,0 +1,13 @@
+package com.banklite.repository;
+
+import com.banklite.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    
+    Optional<BalanceSnapshot> findFirstByAccountIdOrderByEntryNoDesc(Long accountId);
+}
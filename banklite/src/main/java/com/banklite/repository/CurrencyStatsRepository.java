@@ -0,0 +1,59 @@
+package com.banklite.repository;
+
+import com.banklite.model.Currency;
+import com.banklite.model.CurrencyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface CurrencyStatsRepository extends JpaRepository<CurrencyStats, CurrencyStats.Key> {
+    
+    @Modifying(flushAutomatically = true)
+    @Query("update CurrencyStats s set s.accountCount = s.accountCount + :count, "
+            + "s.totalBalance = s.totalBalance + :amount where s.currency = :currency and s.stripe = :stripe")
+    int adjust(@Param("currency") Currency currency, @Param("stripe") int stripe,
+               @Param("count") long count, @Param("amount") BigDecimal amount);
+    
+    /**
+     * Creates a stripe unless it exists already, for instance because another
+     * instance seeded it at the same time.
+     */
+    @Modifying
+    @Query("insert into CurrencyStats (currency, stripe, accountCount, totalBalance) "
+            + "values (:currency, :stripe, :count, :total) on conflict do nothing")
+    int insertIfAbsent(@Param("currency") Currency currency, @Param("stripe") int stripe,
+                       @Param("count") long count, @Param("total") BigDecimal total);
+    
+    /**
+     * Takes a soft-deleted account out of a stripe, reading its currency and
+     * balance inside the statement instead of loading the account first.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE currency_stats SET account_count = account_count - 1, "
+            + "total_balance = total_balance - (SELECT a.balance FROM accounts a WHERE a.id = :accountId) "
+            + "WHERE stripe = :stripe AND currency = (SELECT a.currency FROM accounts a WHERE a.id = :accountId)",
+            nativeQuery = true)
+    int removeAccount(@Param("accountId") Long accountId, @Param("stripe") int stripe);
+    
+    /**
+     * Adds the stripes back up: {@link CurrencyStats#STRIPES} rows per currency, whatever the number of accounts.
+     */
+    @Query("select s.currency as currency, sum(s.accountCount) as accountCount, sum(s.totalBalance) as totalBalance "
+            + "from CurrencyStats s group by s.currency")
+    List<CurrencyTotals> sumStripes();
+    
+    interface CurrencyTotals {
+        
+        Currency getCurrency();
+        
+        Long getAccountCount();
+        
+        BigDecimal getTotalBalance();
+    }
+}
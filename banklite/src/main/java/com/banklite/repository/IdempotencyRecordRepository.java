@@ -0,0 +1,70 @@
+package com.banklite.repository;
+
+import com.banklite.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Each write commits on its own: a claim has to be visible to concurrent
+ * retries before the request it guards starts running.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    /**
+     * Inserts an in-progress record unless the key already has one, in one
+     * statement: 1 means the key is now claimed, 0 that it was taken.
+     */
+    @Transactional
+    @Modifying
+    @Query("insert into IdempotencyRecord (idempotencyKey, requestHash, createdAt, expiresAt) "
+            + "values (:key, :requestHash, :claimedAt, :expiresAt) on conflict do nothing")
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash,
+              @Param("claimedAt") LocalDateTime claimedAt, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Stores the response, if the claim made at {@code claimedAt} still holds the
+     * key. 0 means it lapsed and the key was claimed again since.
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseStatus = :status, r.responseBody = :body "
+            + "where r.idempotencyKey = :key and r.createdAt = :claimedAt and r.requestHash = :requestHash "
+            + "and r.responseStatus is null")
+    int complete(@Param("key") String key, @Param("requestHash") String requestHash,
+                 @Param("claimedAt") LocalDateTime claimedAt, @Param("status") int status, @Param("body") String body);
+    
+    /**
+     * Drops the claim of a request that failed, so the client can retry it;
+     * like {@link #complete}, only if the claim still holds the key.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.createdAt = :claimedAt "
+            + "and r.requestHash = :requestHash and r.responseStatus is null")
+    int release(@Param("key") String key, @Param("requestHash") String requestHash,
+                @Param("claimedAt") LocalDateTime claimedAt);
+    
+    /**
+     * Deletes the record for {@code key} if it has expired but has not been purged yet,
+     * or if it is still in progress but was claimed before {@code claimedBefore}, so that
+     * the key can be claimed again.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and (r.expiresAt <= :now "
+            + "or (r.responseStatus is null and r.createdAt <= :claimedBefore))")
+    int deleteIfReclaimable(@Param("key") String key, @Param("now") LocalDateTime now,
+                            @Param("claimedBefore") LocalDateTime claimedBefore);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,111 @@
+package com.banklite.repository;
+
+import com.banklite.model.AccountRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of {@link AccountRepository}. Queries are written in
+ * SQL that both H2 and PostgreSQL accept.
+ *
+ * R2DBC has no equivalent of {@code @SQLRestriction}, so every read states the
+ * soft-delete filter itself, including the inherited lookups redeclared here.
+ */
+@Repository
+public interface ReactiveAccountRepository extends R2dbcRepository<AccountRow, Long> {
+    
+    @Override
+    @Query("SELECT * FROM accounts WHERE id = :id AND deleted_at IS NULL")
+    Mono<AccountRow> findById(Long id);
+    
+    @Override
+    @Query("SELECT * FROM accounts WHERE id IN (:ids) AND deleted_at IS NULL")
+    Flux<AccountRow> findAllById(Iterable<Long> ids);
+    
+    @Override
+    @Query("SELECT COUNT(*) > 0 FROM accounts WHERE id = :id AND deleted_at IS NULL")
+    Mono<Boolean> existsById(Long id);
+    
+    @Query("SELECT * FROM accounts WHERE account_number = :accountNumber AND deleted_at IS NULL")
+    Mono<AccountRow> findByAccountNumber(String accountNumber);
+    
+    @Query("SELECT * FROM accounts WHERE id > :id AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+    Flux<AccountRow> findByIdGreaterThanOrderByIdAsc(Long id, int limit);
+    
+    @Query("SELECT * FROM accounts WHERE deleted_at IS NULL ORDER BY id")
+    Flux<AccountRow> findAllByOrderByIdAsc();
+    
+    /**
+     * See {@link AccountRepository#searchByHolderName}.
+     */
+    @Query("SELECT * FROM accounts WHERE LOWER(account_holder_name) LIKE :pattern ESCAPE '!' "
+            + "AND id > :afterId AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+    Flux<AccountRow> searchByHolderName(String pattern, Long afterId, int limit);
+    
+    /**
+     * Reserves a block of ids. The sequence steps by the same allocation size
+     * Hibernate uses, and the returned value is the top of a block no one else
+     * will be handed.
+     */
+    @Query("SELECT NEXTVAL('accounts_id_seq')")
+    Mono<Long> nextIdBlock();
+    
+    @Query("SELECT * FROM accounts WHERE id = :id AND deleted_at IS NULL FOR UPDATE")
+    Mono<AccountRow> findByIdForUpdate(Long id);
+    
+    @Modifying
+    @Query("UPDATE accounts SET balance = balance + :amount, last_entry_no = last_entry_no + 1, "
+            + "version = version + 1, updated_at = :now WHERE id = :id AND deleted_at IS NULL")
+    Mono<Integer> credit(Long id, BigDecimal amount, LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE accounts SET balance = balance - :amount, last_entry_no = last_entry_no + 1, "
+            + "version = version + 1, updated_at = :now "
+            + "WHERE id = :id AND deleted_at IS NULL AND balance >= :amount")
+    Mono<Integer> debit(Long id, BigDecimal amount, LocalDateTime now);
+    
+    /**
+     * See {@link AccountRepository#softDelete}.
+     */
+    @Modifying
+    @Query("UPDATE accounts SET deleted_at = :now, updated_at = :now, version = version + 1 "
+            + "WHERE id = :id AND deleted_at IS NULL")
+    Mono<Integer> softDelete(Long id, LocalDateTime now);
+    
+    /**
+     * See {@link CurrencyStatsRepository#adjust}. The currency is bound as its name.
+     */
+    @Modifying
+    @Query("UPDATE currency_stats SET account_count = account_count + :count, "
+            + "total_balance = total_balance + :amount WHERE currency = :currency AND stripe = :stripe")
+    Mono<Integer> adjustCurrencyStats(String currency, int stripe, long count, BigDecimal amount);
+    
+    /**
+     * See {@link CurrencyStatsRepository#removeAccount}.
+     */
+    @Modifying
+    @Query("UPDATE currency_stats SET account_count = account_count - 1, "
+            + "total_balance = total_balance - (SELECT a.balance FROM accounts a WHERE a.id = :accountId) "
+            + "WHERE stripe = :stripe AND currency = (SELECT a.currency FROM accounts a WHERE a.id = :accountId)")
+    Mono<Integer> removeFromCurrencyStats(Long accountId, int stripe);
+    
+    /**
+     * See {@link com.banklite.service.AccountOutbox}; runs in the transaction of the change.
+     */
+    @Modifying
+    @Query("INSERT INTO account_outbox (account_id, event_type, payload, created_at) "
+            + "VALUES (:accountId, :eventType, :payload, :now)")
+    Mono<Integer> recordEvent(Long accountId, String eventType, String payload, LocalDateTime now);
+    
+    @Modifying
+    @Query("INSERT INTO account_outbox (account_id, event_type, payload, created_at) "
+            + "VALUES (:accountId, 'DELETED', NULL, :now)")
+    Mono<Integer> recordDeletedEvent(Long accountId, LocalDateTime now);
+}
@@ -0,0 +1,157 @@
+package com.banklite.service;
+
+import com.banklite.config.BatchProperties;
+import com.banklite.model.Account;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.BatchCreateResponse;
+import com.banklite.model.dto.BatchItemResult;
+import com.banklite.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates accounts in bulk for onboarding imports.
+ *
+ * Items are validated one by one, so a bad row is reported rather than failing
+ * the whole import. Valid rows are inserted in chunks of
+ * {@code banklite.batch.chunk-size}, one transaction per chunk. Ids come from a
+ * pooled sequence, so Hibernate can group each chunk's INSERTs into JDBC batches.
+ * The persistence context is cleared after every chunk to keep memory flat.
+ */
+@Slf4j
+@Service
+public class AccountBatchService {
+    
+    private final AccountRepository accountRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final LedgerService ledgerService;
+    private final AccountNameIndex accountNameIndex;
+    private final CurrencyStatsService currencyStatsService;
+    private final AccountOutbox accountOutbox;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final BatchProperties properties;
+    
+    public AccountBatchService(AccountRepository accountRepository,
+                               AccountNumberGenerator accountNumberGenerator,
+                               LedgerService ledgerService,
+                               AccountNameIndex accountNameIndex,
+                               CurrencyStatsService currencyStatsService,
+                               AccountOutbox accountOutbox,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               Validator validator,
+                               BatchProperties properties) {
+        this.accountRepository = accountRepository;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.ledgerService = ledgerService;
+        this.accountNameIndex = accountNameIndex;
+        this.currencyStatsService = currencyStatsService;
+        this.accountOutbox = accountOutbox;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.properties = properties;
+    }
+    
+    public BatchCreateResponse createAccounts(Iterator<AccountRequest> requests) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<Integer> chunkIndexes = new ArrayList<>(properties.getChunkSize());
+        List<Account> chunk = new ArrayList<>(properties.getChunkSize());
+        
+        int index = 0;
+        while (requests.hasNext()) {
+            AccountRequest request = requests.next();
+            List<String> errors = validate(request, index);
+            if (!errors.isEmpty()) {
+                results.add(new BatchItemResult(index, BatchItemResult.Status.INVALID, null, errors));
+            } else {
+                chunk.add(toAccount(request));
+                chunkIndexes.add(index);
+                if (chunk.size() == properties.getChunkSize()) {
+                    insertChunk(chunk, chunkIndexes, results);
+                }
+            }
+            index++;
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, chunkIndexes, results);
+        }
+        
+        results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        int created = (int) results.stream()
+            .filter(result -> result.getStatus() == BatchItemResult.Status.CREATED)
+            .count();
+        return new BatchCreateResponse(created, results.size() - created, results);
+    }
+    
+    private List<String> validate(AccountRequest request, int index) {
+        if (index >= properties.getMaxItems()) {
+            return List.of("Batch limit of " + properties.getMaxItems() + " accounts exceeded");
+        }
+        if (request == null) {
+            return List.of("Account request is required");
+        }
+        Set<ConstraintViolation<AccountRequest>> violations = validator.validate(request);
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .toList();
+    }
+    
+    private Account toAccount(AccountRequest request) {
+        Account account = new Account();
+        account.setAccountHolderName(request.getAccountHolderName());
+        account.setAccountNumber(accountNumberGenerator.nextAccountNumber());
+        account.setBalance(request.getBalance());
+        account.setCurrency(request.getCurrency());
+        account.setLastEntryNo(1);
+        return account;
+    }
+    
+    private void insertChunk(List<Account> chunk, List<Integer> chunkIndexes, List<BatchItemResult> results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accountRepository.saveAll(chunk);
+                // Ids are assigned on persist, so the opening entries join the same INSERT batches
+                CurrencyStatsService.Changes stats = new CurrencyStatsService.Changes();
+                chunk.forEach(account -> {
+                    ledgerService.recordNumbered(account, TransactionType.OPENING, account.getBalance(), null);
+                    stats.add(account.getCurrency(), 1, account.getBalance());
+                });
+                currencyStatsService.apply(stats);
+                accountOutbox.recordAll(AccountEventType.CREATED,
+                    chunk.stream().map(AccountService::mapToResponse).toList());
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                accountNameIndex.put(chunk.get(i).getId(), chunk.get(i).getAccountHolderName());
+                results.add(new BatchItemResult(chunkIndexes.get(i), BatchItemResult.Status.CREATED,
+                    AccountService.mapToResponse(chunk.get(i)), null));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Batch chunk of {} accounts failed", chunk.size(), e);
+            List<String> errors = List.of("Insert failed: " + e.getMessage());
+            for (Integer index : chunkIndexes) {
+                results.add(new BatchItemResult(index, BatchItemResult.Status.FAILED, null, errors));
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+}
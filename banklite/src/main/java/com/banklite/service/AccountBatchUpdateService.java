@@ -0,0 +1,213 @@
+package com.banklite.service;
+
+import com.banklite.config.BatchProperties;
+import com.banklite.config.CacheConfig;
+import com.banklite.exception.InvalidPatchException;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.BatchUpdateResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Applies one patch to many accounts, e.g. a currency migration or a holder
+ * name correction.
+ *
+ * Ids are sorted and processed in chunks of {@code banklite.batch.chunk-size},
+ * one transaction per chunk. Each chunk costs two statements whatever its size:
+ * a {@code SELECT ... WHERE id = ANY(?) FOR UPDATE} that locks the rows in id
+ * order and reads what the statistics need, and a single
+ * {@code UPDATE ... WHERE id = ANY(?)} that sets only the patched columns, on
+ * only the rows whose values actually change.
+ *
+ * Chunks commit independently, so a failure leaves earlier chunks applied.
+ * Setting the same values again is harmless, so the request can simply be retried.
+ */
+@Service
+public class AccountBatchUpdateService {
+
+    private static final String LOCK_SQL = "SELECT id, account_holder_name, account_number, currency, balance, "
+        + "version, created_at FROM accounts WHERE id = ANY(?) AND deleted_at IS NULL ORDER BY id FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CurrencyStatsService currencyStatsService;
+    private final AccountNameIndex accountNameIndex;
+    private final AccountOutbox accountOutbox;
+    private final Cache accountCache;
+    private final BatchProperties properties;
+
+    public AccountBatchUpdateService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     CurrencyStatsService currencyStatsService,
+                                     AccountNameIndex accountNameIndex,
+                                     AccountOutbox accountOutbox,
+                                     CacheManager cacheManager,
+                                     BatchProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.currencyStatsService = currencyStatsService;
+        this.accountNameIndex = accountNameIndex;
+        this.accountOutbox = accountOutbox;
+        this.accountCache = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        this.properties = properties;
+    }
+
+    /**
+     * Balances cannot be set in bulk: every balance change is journaled in the
+     * ledger with its own amount, which a set-based UPDATE cannot do.
+     */
+    public BatchUpdateResponse updateAccounts(List<Long> ids, AccountPatch patch) {
+        if (patch.balance() != null) {
+            throw new InvalidPatchException("Balances can only be patched one account at a time");
+        }
+        long[] sorted = ids.stream()
+            .filter(Objects::nonNull)
+            .mapToLong(Long::longValue)
+            .distinct()
+            .sorted()
+            .toArray();
+        if (sorted.length > properties.getMaxItems()) {
+            throw new InvalidPatchException("Batch limit of " + properties.getMaxItems() + " accounts exceeded");
+        }
+
+        int updated = 0;
+        int unchanged = 0;
+        List<Long> notFound = new ArrayList<>();
+        for (int from = 0; from < sorted.length; from += properties.getChunkSize()) {
+            Long[] chunk = Arrays.stream(sorted, from, Math.min(from + properties.getChunkSize(), sorted.length))
+                .boxed()
+                .toArray(Long[]::new);
+            ChunkResult result = transactionTemplate.execute(status -> updateChunk(chunk, patch));
+            // After the commit, so no reader can cache the old row again
+            result.updated().forEach(accountCache::evict);
+            updated += result.updated().size();
+            unchanged += result.found() - result.updated().size();
+            if (result.found() < chunk.length) {
+                notFound.addAll(missing(chunk, result.foundIds()));
+            }
+        }
+        return new BatchUpdateResponse(updated, unchanged, notFound);
+    }
+
+    private ChunkResult updateChunk(Long[] ids, AccountPatch patch) {
+        List<Row> rows = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOCK_SQL);
+            statement.setArray(1, connection.createArrayOf("BIGINT", ids));
+            return statement;
+        }, (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("account_holder_name"),
+            rs.getString("account_number"), Currency.valueOf(rs.getString("currency")), rs.getBigDecimal("balance"),
+            rs.getLong("version"), rs.getTimestamp("created_at").toLocalDateTime()));
+
+        List<Long> changed = new ArrayList<>();
+        List<AccountResponse> events = new ArrayList<>();
+        CurrencyStatsService.Changes stats = new CurrencyStatsService.Changes();
+        for (Row row : rows) {
+            boolean renamed = patch.accountHolderName() != null
+                && !patch.accountHolderName().equals(row.accountHolderName());
+            boolean moved = patch.currency() != null && patch.currency() != row.currency();
+            if (renamed || moved) {
+                changed.add(row.id());
+                events.add(row.patched(patch));
+            }
+            if (moved) {
+                stats.add(row.currency(), -1, row.balance().negate())
+                    .add(patch.currency(), 1, row.balance());
+            }
+            if (renamed) {
+                accountNameIndex.putAfterCommit(row.id(), patch.accountHolderName());
+            }
+        }
+        if (!changed.isEmpty()) {
+            update(changed, patch);
+            // Only once every account row is locked, the order all writers take these locks in
+            currencyStatsService.apply(stats);
+            accountOutbox.recordAll(AccountEventType.UPDATED, events);
+        }
+        return new ChunkResult(rows.stream().map(Row::id).toList(), changed);
+    }
+
+    /**
+     * Rows that changed in only one of two patched columns get the other one
+     * rewritten with its current value. That costs nothing extra: PostgreSQL
+     * writes a new row version either way, and only touches an index whose
+     * column value actually differs.
+     */
+    private void update(List<Long> ids, AccountPatch patch) {
+        StringBuilder sql = new StringBuilder("UPDATE accounts SET ");
+        List<Object> values = new ArrayList<>();
+        if (patch.accountHolderName() != null) {
+            sql.append("account_holder_name = ?, ");
+            values.add(patch.accountHolderName());
+        }
+        if (patch.currency() != null) {
+            sql.append("currency = ?, ");
+            values.add(patch.currency().name());
+        }
+        sql.append("version = version + 1, updated_at = ? WHERE id = ANY(?)");
+        values.add(Timestamp.valueOf(LocalDateTime.now()));
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            for (int i = 0; i < values.size(); i++) {
+                statement.setObject(i + 1, values.get(i));
+            }
+            Array idArray = connection.createArrayOf("BIGINT", ids.toArray(Long[]::new));
+            statement.setArray(values.size() + 1, idArray);
+            return statement;
+        });
+    }
+
+    private static List<Long> missing(Long[] requested, List<Long> found) {
+        // Both are in id order
+        List<Long> missing = new ArrayList<>();
+        int next = 0;
+        for (Long id : requested) {
+            if (next < found.size() && found.get(next).equals(id)) {
+                next++;
+            } else {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    private record Row(long id, String accountHolderName, String accountNumber, Currency currency,
+                       BigDecimal balance, long version, LocalDateTime createdAt) {
+
+        AccountResponse patched(AccountPatch patch) {
+            AccountResponse response = new AccountResponse();
+            response.setId(id);
+            response.setAccountHolderName(
+                patch.accountHolderName() != null ? patch.accountHolderName() : accountHolderName);
+            response.setAccountNumber(accountNumber);
+            response.setBalance(balance);
+            response.setCurrency(patch.currency() != null ? patch.currency() : currency);
+            response.setVersion(version + 1);
+            response.setCreatedAt(createdAt);
+            return response;
+        }
+    }
+
+    private record ChunkResult(List<Long> foundIds, List<Long> updated) {
+
+        int found() {
+            return foundIds.size();
+        }
+    }
+}
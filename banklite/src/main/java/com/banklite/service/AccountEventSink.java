@@ -0,0 +1,26 @@
+package com.banklite.service;
+
+import com.banklite.model.dto.AccountEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the account change events relayed by {@link OutboxRelay}.
+ *
+ * A batch counts as delivered once {@link #publish} returns; when it throws,
+ * the whole batch is retried later, so a sink may see events more than once but
+ * never out of order for the same account.
+ */
+public interface AccountEventSink {
+
+    /**
+     * Delivers the events, in the order given.
+     */
+    void publish(List<AccountEvent> events) throws IOException;
+
+    /**
+     * Tags the relay metrics.
+     */
+    String name();
+}
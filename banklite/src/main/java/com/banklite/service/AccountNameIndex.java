@@ -0,0 +1,219 @@
+package com.banklite.service;
+
+import com.banklite.config.SearchProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process trigram index of account holder names, standing in for PostgreSQL's
+ * {@code pg_trgm} index where the database has none (H2).
+ *
+ * Every three-character substring of a lower-cased name maps to the ids of the
+ * accounts containing it, in id order. A substring query walks the rarest of its
+ * trigrams from the keyset cursor and checks each candidate's name, so a page
+ * costs a handful of map lookups whatever the number of accounts. Queries
+ * shorter than a trigram walk the names themselves in id order, where nearly
+ * every name matches anyway.
+ *
+ * The index is loaded from the database at startup and updated by the write
+ * paths once their transaction has committed. Only active when
+ * {@code banklite.search.in-memory-index=true}; otherwise every method but
+ * {@link #isEnabled()} is a no-op.
+ */
+@Slf4j
+@Component
+public class AccountNameIndex {
+
+    private static final int GRAM = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    /**
+     * Lower-cased name of every indexed account, in id order.
+     */
+    private final ConcurrentSkipListMap<Long, String> names = new ConcurrentSkipListMap<>();
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+
+    public AccountNameIndex(JdbcTemplate jdbcTemplate, SearchProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = properties.isInMemoryIndex();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.query("SELECT id, account_holder_name FROM accounts WHERE deleted_at IS NULL",
+            rs -> {
+                long id = rs.getLong(1);
+                // A write that raced the load has already indexed the newer name
+                if (!names.containsKey(id)) {
+                    put(id, rs.getString(2));
+                }
+            });
+        log.info("Indexed {} account holder names for search", names.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indexes or re-indexes an account's name.
+     */
+    public void put(Long id, String name) {
+        if (!enabled) {
+            return;
+        }
+        String normalized = normalize(name);
+        String previous = names.put(id, normalized);
+        if (normalized.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            for (String gram : grams(previous)) {
+                if (!normalized.contains(gram)) {
+                    removePosting(gram, id);
+                }
+            }
+        }
+        for (String gram : grams(normalized)) {
+            // Inside compute(), so a concurrent removal cannot drop the posting mid-add
+            postings.compute(gram, (g, posting) -> {
+                Posting target = posting == null ? new Posting() : posting;
+                target.add(id);
+                return target;
+            });
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        String previous = names.remove(id);
+        if (previous != null) {
+            for (String gram : grams(previous)) {
+                removePosting(gram, id);
+            }
+        }
+    }
+
+    /**
+     * {@link #put} once the current transaction commits, or right away outside one.
+     */
+    public void putAfterCommit(Long id, String name) {
+        afterCommit(() -> put(id, name));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Ids, in ascending order and greater than {@code afterId}, of up to
+     * {@code limit} accounts whose holder name contains {@code query}, ignoring case.
+     */
+    public List<Long> search(String query, long afterId, int limit) {
+        String needle = normalize(query);
+        List<Long> ids = new ArrayList<>(limit);
+        if (needle.length() < GRAM) {
+            for (Map.Entry<Long, String> entry : names.tailMap(afterId, false).entrySet()) {
+                if (entry.getValue().contains(needle) && ids.add(entry.getKey()) && ids.size() == limit) {
+                    break;
+                }
+            }
+            return ids;
+        }
+
+        Posting rarest = null;
+        for (String gram : grams(needle)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return ids;
+            }
+            if (rarest == null || posting.size.get() < rarest.size.get()) {
+                rarest = posting;
+            }
+        }
+        for (Long id : rarest.ids.tailSet(afterId, false)) {
+            String name = names.get(id);
+            // Removed or renamed since the posting was read, or holds every trigram but not the substring
+            if (name != null && name.contains(needle) && ids.add(id) && ids.size() == limit) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (g, posting) -> {
+            posting.remove(id);
+            return posting.size.get() == 0 ? null : posting;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    static String normalize(String text) {
+        return text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> grams(String text) {
+        List<String> grams = new ArrayList<>(Math.max(0, text.length() - GRAM + 1));
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Ids of the accounts containing one trigram. The size is kept separately
+     * because counting a skip list walks all of it.
+     */
+    private static final class Posting {
+
+        private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Long id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(Long id) {
+            if (ids.remove(id)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
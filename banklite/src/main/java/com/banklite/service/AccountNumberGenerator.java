@@ -0,0 +1,13 @@
+package com.banklite.service;
+
+/**
+ * Source of new, unique account numbers.
+ */
+public interface AccountNumberGenerator {
+
+    /**
+     * Returns an account number that has never been returned before, by this or
+     * any other node sharing the same configuration.
+     */
+    String nextAccountNumber();
+}
@@ -0,0 +1,84 @@
+package com.banklite.service;
+
+import com.banklite.config.OutboxProperties;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.dto.AccountResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes account changes to the {@code account_outbox} table, in the
+ * transaction that makes the change, for {@link OutboxRelay} to deliver.
+ *
+ * An event is therefore stored if and only if its change commits, and
+ * downstream systems learn about changes without polling the accounts table.
+ * Several events are inserted as one JDBC batch.
+ */
+@Service
+public class AccountOutbox {
+
+    static final String INSERT_SQL = "INSERT INTO account_outbox (account_id, event_type, payload, created_at) "
+        + "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public AccountOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, OutboxProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AccountEventType type, AccountResponse account) {
+        recordAll(type, List.of(account));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(AccountEventType type, List<AccountResponse> accounts) {
+        if (!enabled || accounts.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, accounts, accounts.size(), (statement, account) -> {
+            statement.setLong(1, account.getId());
+            statement.setString(2, type.name());
+            statement.setString(3, toPayload(account));
+            statement.setTimestamp(4, now);
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long accountId) {
+        if (enabled) {
+            jdbcTemplate.update(INSERT_SQL, accountId, AccountEventType.DELETED.name(), null,
+                Timestamp.valueOf(LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * The stored form of an account, also used by the reactive API, which
+     * inserts its events over R2DBC.
+     */
+    public String toPayload(AccountResponse account) {
+        try {
+            return objectMapper.writeValueAsString(account);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
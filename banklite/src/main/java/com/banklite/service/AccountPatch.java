@@ -0,0 +1,72 @@
+package com.banklite.service;
+
+import com.banklite.exception.InvalidPatchException;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.PatchOperation;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The fields a patch changes; a null field is left as it is.
+ *
+ * Compiled from the subset of RFC 6902 that makes sense for an account:
+ * {@code replace} (and {@code add}, which means the same on an existing
+ * member) of {@code /accountHolderName}, {@code /balance} or {@code /currency}.
+ */
+public record AccountPatch(String accountHolderName, BigDecimal balance, Currency currency) {
+
+    public static AccountPatch of(AccountRequest request) {
+        return new AccountPatch(request.getAccountHolderName(), request.getBalance(), request.getCurrency());
+    }
+
+    public static AccountPatch from(List<PatchOperation> operations) {
+        String accountHolderName = null;
+        BigDecimal balance = null;
+        Currency currency = null;
+        for (PatchOperation operation : operations) {
+            if (!"replace".equals(operation.getOp()) && !"add".equals(operation.getOp())) {
+                throw new InvalidPatchException("Unsupported patch operation '" + operation.getOp()
+                    + "', only replace and add are supported");
+            }
+            JsonNode value = operation.getValue();
+            switch (String.valueOf(operation.getPath())) {
+                case "/accountHolderName" -> {
+                    if (value == null || !value.isTextual() || value.asText().isBlank()) {
+                        throw new InvalidPatchException("Account holder name must be a non-blank string");
+                    }
+                    accountHolderName = value.asText();
+                }
+                case "/balance" -> {
+                    if (value == null || !value.isNumber()) {
+                        throw new InvalidPatchException("Balance must be a number");
+                    }
+                    balance = new BigDecimal(value.asText());
+                    if (balance.signum() < 0) {
+                        throw new InvalidPatchException("Balance must be greater than or equal to 0");
+                    }
+                }
+                case "/currency" -> {
+                    try {
+                        currency = Currency.valueOf(value == null ? "" : value.asText());
+                    } catch (IllegalArgumentException e) {
+                        throw new InvalidPatchException("Unknown currency '" + (value == null ? null : value.asText()) + "'");
+                    }
+                }
+                default -> throw new InvalidPatchException("Path '" + operation.getPath()
+                    + "' cannot be patched, only /accountHolderName, /balance and /currency can");
+            }
+        }
+        AccountPatch patch = new AccountPatch(accountHolderName, balance, currency);
+        if (patch.isEmpty()) {
+            throw new InvalidPatchException("Patch has no operations");
+        }
+        return patch;
+    }
+
+    public boolean isEmpty() {
+        return accountHolderName == null && balance == null && currency == null;
+    }
+}
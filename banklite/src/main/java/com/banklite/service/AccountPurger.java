@@ -0,0 +1,146 @@
+package com.banklite.service;
+
+import com.banklite.config.AccountPurgeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes soft-deleted accounts once their retention has passed, off the request path.
+ *
+ * Every {@code banklite.account-purge.interval} it removes due rows in batches of
+ * {@code batch-size}, one transaction each, optionally copying them to
+ * {@code accounts_archive} first. It pauses between batches so it never removes
+ * more than {@code max-rows-per-second}, however many accounts were deleted at
+ * once. Batches are claimed with {@code FOR UPDATE SKIP LOCKED}, so replicas
+ * purging at the same time split the work instead of waiting on each other.
+ *
+ * Ledger entries are kept, as they were for hard deletes. Only active when
+ * {@code banklite.account-purge.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "banklite.account-purge", name = "enabled", havingValue = "true")
+public class AccountPurger {
+
+    private static final String CLAIM_SQL = "SELECT id FROM accounts WHERE deleted_at <= ? "
+        + "ORDER BY deleted_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String ARCHIVE_SQL = "INSERT INTO accounts_archive (id, account_holder_name, account_number, "
+        + "balance, currency, last_entry_no, created_at, updated_at, deleted_at, archived_at) "
+        + "SELECT id, account_holder_name, account_number, balance, currency, last_entry_no, created_at, updated_at, "
+        + "deleted_at, ? FROM accounts WHERE id = ANY(?)";
+
+    private static final String DELETE_SQL = "DELETE FROM accounts WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountPurgeProperties properties;
+    private final Counter purged;
+
+    private ScheduledExecutorService scheduler;
+
+    public AccountPurger(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         AccountPurgeProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.purged = Counter.builder("banklite.accounts.purged")
+            .description("Soft-deleted accounts removed from the accounts table")
+            .tag("archived", String.valueOf(properties.isArchive()))
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Removes every account deleted longer than the retention ago, batch by
+     * batch at the configured rate, and returns how many were removed.
+     */
+    int purge() throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        int total = 0;
+        while (true) {
+            long started = System.nanoTime();
+            int removed = transactionTemplate.execute(status -> purgeBatch(cutoff));
+            total += removed;
+            purged.increment(removed);
+            if (removed < properties.getBatchSize()) {
+                return total;
+            }
+            // Paced on the time the batch took, so the rate holds however fast the database is
+            long budgetNanos = TimeUnit.SECONDS.toNanos(removed) / properties.getMaxRowsPerSecond();
+            TimeUnit.NANOSECONDS.sleep(budgetNanos - (System.nanoTime() - started));
+        }
+    }
+
+    private int purgeBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(CLAIM_SQL, Long.class,
+            Timestamp.valueOf(cutoff), properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Long[] idArray = ids.toArray(Long[]::new);
+        if (properties.isArchive()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(ARCHIVE_SQL);
+                statement.setTimestamp(1, now);
+                statement.setArray(2, connection.createArrayOf("BIGINT", idArray));
+                return statement;
+            });
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DELETE_SQL);
+            statement.setArray(1, connection.createArrayOf("BIGINT", idArray));
+            return statement;
+        });
+    }
+
+    private void purgeQuietly() {
+        try {
+            int removed = purge();
+            if (removed > 0) {
+                log.info("Purged {} deleted accounts", removed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Retried at the next interval; the rows stay hidden meanwhile
+            log.warn("Failed to purge deleted accounts", e);
+        }
+    }
+}
@@ -1,81 +1,410 @@
 package com.banklite.service;
 
+import com.banklite.config.CacheConfig;
+import com.banklite.config.PaginationProperties;
+import com.banklite.config.SearchProperties;
 import com.banklite.exception.AccountNotFoundException;
+import com.banklite.exception.AccountVersionMismatchException;
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.exception.InvalidTransferException;
 import com.banklite.model.Account;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.Currency;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.AccountPageResponse;
 import com.banklite.model.dto.AccountRequest;
 import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.TransferResponse;
 import com.banklite.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@Transactional
+@Transactional(timeout = AccountService.WRITE_TIMEOUT_SECONDS)
 public class AccountService {
     
+    /**
+     * Bounds every write transaction, so the longest an account write can take is
+     * known; see {@link IdempotencyService}.
+     */
+    public static final int WRITE_TIMEOUT_SECONDS = 30;
+    
     private final AccountRepository accountRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final LedgerService ledgerService;
+    private final AccountNameIndex accountNameIndex;
+    private final CurrencyStatsService currencyStatsService;
+    private final AccountOutbox accountOutbox;
+    private final EntityManager entityManager;
+    private final PaginationProperties paginationProperties;
+    private final SearchProperties searchProperties;
     
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository,
+                          AccountNumberGenerator accountNumberGenerator,
+                          LedgerService ledgerService,
+                          AccountNameIndex accountNameIndex,
+                          CurrencyStatsService currencyStatsService,
+                          AccountOutbox accountOutbox,
+                          EntityManager entityManager,
+                          PaginationProperties paginationProperties,
+                          SearchProperties searchProperties) {
         this.accountRepository = accountRepository;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.ledgerService = ledgerService;
+        this.accountNameIndex = accountNameIndex;
+        this.currencyStatsService = currencyStatsService;
+        this.accountOutbox = accountOutbox;
+        this.entityManager = entityManager;
+        this.paginationProperties = paginationProperties;
+        this.searchProperties = searchProperties;
     }
     
     public AccountResponse createAccount(AccountRequest request) {
         Account account = new Account();
         account.setAccountHolderName(request.getAccountHolderName());
-        account.setAccountNumber(generateAccountNumber());
+        account.setAccountNumber(accountNumberGenerator.nextAccountNumber());
         account.setBalance(request.getBalance());
         account.setCurrency(request.getCurrency());
+        account.setLastEntryNo(1);
         
         Account saved = accountRepository.save(account);
-        return mapToResponse(saved);
+        ledgerService.recordNumbered(saved, TransactionType.OPENING, saved.getBalance(), null);
+        currencyStatsService.adjust(saved.getCurrency(), 1, saved.getBalance());
+        accountNameIndex.putAfterCommit(saved.getId(), saved.getAccountHolderName());
+        AccountResponse response = mapToResponse(saved);
+        accountOutbox.record(AccountEventType.CREATED, response);
+        return response;
     }
     
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    @Transactional(readOnly = true)
     public AccountResponse getAccount(Long id) {
         Account account = accountRepository.findById(id)
             .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
         return mapToResponse(account);
     }
     
-    public List<AccountResponse> getAllAccounts() {
-        return accountRepository.findAll()
-            .stream()
-            .map(this::mapToResponse)
+    /**
+     * Reads the account past the cache and caches it, for a caller that found the
+     * cached copy older than the row.
+     */
+    @CachePut(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    @Transactional(readOnly = true)
+    public AccountResponse refreshAccount(Long id) {
+        Account account = accountRepository.findById(id)
+            .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
+        return mapToResponse(account);
+    }
+    
+    /**
+     * The account's current version, read on its own rather than with the
+     * entity; enough to answer a conditional GET whose copy is still current.
+     */
+    @Transactional(readOnly = true)
+    public long getAccountVersion(Long id) {
+        return accountRepository.findVersionById(id)
+            .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
+    }
+    
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_IDS_BY_NUMBER, key = "#accountNumber")
+    @Transactional(readOnly = true)
+    public Long getAccountIdByNumber(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+            .map(Account::getId)
+            .orElseThrow(() -> new AccountNotFoundException("Account not found with number: " + accountNumber));
+    }
+    
+    /**
+     * Returns the page of accounts whose id comes strictly after {@code afterId}.
+     * Keyset pagination keeps every page an index range scan on the primary key,
+     * however deep the client has paged.
+     */
+    @Transactional(readOnly = true)
+    public AccountPageResponse getAccounts(Long afterId, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long cursor = afterId == null ? 0L : afterId;
+        
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Account> rows = accountRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<Account> page = hasNext ? rows.subList(0, pageSize) : rows;
+        
+        List<AccountResponse> content = page.stream()
+            .map(AccountService::mapToResponse)
             .collect(Collectors.toList());
+        Long nextCursor = hasNext ? page.get(page.size() - 1).getId() : null;
+        return new AccountPageResponse(content, content.size(), hasNext, nextCursor);
+    }
+    
+    /**
+     * Keyset page, in id order, of the accounts whose holder name contains
+     * {@code query}, ignoring case. Served by {@link AccountNameIndex} when it is
+     * enabled, and otherwise by the database, where PostgreSQL answers the LIKE
+     * from its trigram index.
+     */
+    @Transactional(readOnly = true)
+    public AccountPageResponse searchAccounts(String query, Long afterId, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long cursor = afterId == null ? 0L : afterId;
+        String needle = trimQuery(query, searchProperties.getMaxQueryLength());
+        if (needle.isEmpty()) {
+            return new AccountPageResponse(List.of(), 0, false, null);
+        }
+        
+        List<Account> rows;
+        boolean hasNext;
+        if (accountNameIndex.isEnabled()) {
+            List<Long> ids = accountNameIndex.search(needle, cursor, pageSize + 1);
+            hasNext = ids.size() > pageSize;
+            rows = accountRepository.findAllById(hasNext ? ids.subList(0, pageSize) : ids).stream()
+                .sorted(Comparator.comparing(Account::getId))
+                .toList();
+        } else {
+            rows = accountRepository.searchByHolderName(containsPattern(needle), cursor, Limit.of(pageSize + 1));
+            hasNext = rows.size() > pageSize;
+            rows = hasNext ? rows.subList(0, pageSize) : rows;
+        }
+        
+        List<AccountResponse> content = rows.stream()
+            .map(AccountService::mapToResponse)
+            .toList();
+        Long nextCursor = hasNext ? rows.get(rows.size() - 1).getId() : null;
+        return new AccountPageResponse(content, content.size(), hasNext, nextCursor);
+    }
+    
+    static String trimQuery(String query, int maxLength) {
+        String trimmed = query == null ? "" : query.strip();
+        return trimmed.length() > maxLength ? trimmed.substring(0, maxLength) : trimmed;
     }
     
+    /**
+     * A lower-case LIKE pattern matching names that contain {@code query}, with
+     * its own wildcards escaped by '!'.
+     */
+    static String containsPattern(String query) {
+        String escaped = AccountNameIndex.normalize(query)
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+    
+    /**
+     * Streams every account, in id order, to the given consumer. Rows are read
+     * through a server-side cursor and detached once handed over, so memory stays
+     * flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public void exportAccounts(Consumer<AccountResponse> consumer) {
+        try (Stream<Account> accounts = accountRepository.streamAllByOrderByIdAsc()) {
+            accounts.forEach(account -> {
+                consumer.accept(mapToResponse(account));
+                entityManager.detach(account);
+            });
+        }
+    }
+    
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
     public AccountResponse updateAccount(Long id, AccountRequest request) {
-        Account account = accountRepository.findById(id)
-            .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
-            
-        account.setAccountHolderName(request.getAccountHolderName());
-        account.setBalance(request.getBalance());
-        account.setCurrency(request.getCurrency());
+        return applyPatch(id, AccountPatch.of(request), null);
+    }
+    
+    /**
+     * Updates the account only while its version is one of {@code expectedVersions},
+     * or unconditionally when they are null. The version is compared on the
+     * locked row, so no other write can land between the check and the update.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public AccountResponse updateAccount(Long id, AccountRequest request, Set<Long> expectedVersions) {
+        return applyPatch(id, AccountPatch.of(request), expectedVersions);
+    }
+    
+    /**
+     * Changes only the fields the patch sets. {@link Account} is dynamically
+     * updated, so the UPDATE writes only the columns whose values changed.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public AccountResponse patchAccount(Long id, AccountPatch patch) {
+        return applyPatch(id, patch, null);
+    }
+    
+    /**
+     * Patches the account only while its version is one of {@code expectedVersions},
+     * like {@link #updateAccount(Long, AccountRequest, Set)}.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public AccountResponse patchAccount(Long id, AccountPatch patch, Set<Long> expectedVersions) {
+        return applyPatch(id, patch, expectedVersions);
+    }
+    
+    /**
+     * Locks the row, so the change reported to {@link CurrencyStatsService} is
+     * exact even with concurrent deposits, and the outbox event is numbered after
+     * any earlier change to the same account.
+     */
+    private AccountResponse applyPatch(Long id, AccountPatch patch, Set<Long> expectedVersions) {
+        Account account = lockAccount(id);
+        if (expectedVersions != null && !expectedVersions.contains(account.getVersion())) {
+            throw new AccountVersionMismatchException("Account with id: " + id + " is at version "
+                + account.getVersion() + ", not one of " + expectedVersions);
+        }
+        
+        BigDecimal balance = patch.balance() == null ? account.getBalance() : patch.balance();
+        Currency currency = patch.currency() == null ? account.getCurrency() : patch.currency();
+        BigDecimal adjustment = balance.subtract(account.getBalance());
+        CurrencyStatsService.Changes stats = new CurrencyStatsService.Changes();
+        if (currency != account.getCurrency() || adjustment.signum() != 0) {
+            stats.add(account.getCurrency(), -1, account.getBalance().negate())
+                .add(currency, 1, balance);
+        }
+        if (patch.accountHolderName() != null) {
+            account.setAccountHolderName(patch.accountHolderName());
+        }
+        account.setCurrency(currency);
+        if (adjustment.signum() != 0) {
+            account.setBalance(balance);
+            ledgerService.record(account, TransactionType.ADJUSTMENT, adjustment, null);
+        }
         
         Account updated = accountRepository.save(account);
-        return mapToResponse(updated);
+        // Writes the UPDATE now, so the response carries the version it produced
+        entityManager.flush();
+        currencyStatsService.apply(stats);
+        if (patch.accountHolderName() != null) {
+            accountNameIndex.putAfterCommit(id, updated.getAccountHolderName());
+        }
+        AccountResponse response = mapToResponse(updated);
+        accountOutbox.record(AccountEventType.UPDATED, response);
+        return response;
+    }
+    
+    /**
+     * Adds {@code amount} to the balance in a single UPDATE, so concurrent
+     * deposits never overwrite each other.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public AccountResponse deposit(Long id, BigDecimal amount) {
+        if (accountRepository.credit(id, amount, LocalDateTime.now()) == 0) {
+            throw new AccountNotFoundException("Account not found with id: " + id);
+        }
+        return journal(id, TransactionType.DEPOSIT, amount);
     }
     
+    /**
+     * Subtracts {@code amount} in a single conditional UPDATE that only matches
+     * while the balance covers it, so the overdraft check and the write are atomic.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public AccountResponse withdraw(Long id, BigDecimal amount) {
+        if (accountRepository.debit(id, amount, LocalDateTime.now()) == 0) {
+            if (!accountRepository.existsById(id)) {
+                throw new AccountNotFoundException("Account not found with id: " + id);
+            }
+            throw new InsufficientFundsException("Insufficient funds in account with id: " + id);
+        }
+        return journal(id, TransactionType.WITHDRAWAL, amount.negate());
+    }
+    
+    /**
+     * Moves {@code amount} between two accounts. Both rows are locked in ascending
+     * id order, so two opposing transfers can never deadlock on each other.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#fromId"),
+        @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#toId")
+    })
+    public TransferResponse transfer(Long fromId, Long toId, BigDecimal amount) {
+        if (fromId.equals(toId)) {
+            throw new InvalidTransferException("Cannot transfer to the same account");
+        }
+        
+        Account first = lockAccount(Math.min(fromId, toId));
+        Account second = lockAccount(Math.max(fromId, toId));
+        Account from = first.getId().equals(fromId) ? first : second;
+        Account to = from == first ? second : first;
+        
+        if (from.getCurrency() != to.getCurrency()) {
+            throw new InvalidTransferException("Cannot transfer between " + from.getCurrency()
+                + " and " + to.getCurrency() + " accounts");
+        }
+        if (from.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient funds in account with id: " + fromId);
+        }
+        
+        from.setBalance(from.getBalance().subtract(amount));
+        to.setBalance(to.getBalance().add(amount));
+        ledgerService.record(from, TransactionType.TRANSFER_OUT, amount.negate(), to.getId());
+        ledgerService.record(to, TransactionType.TRANSFER_IN, amount, from.getId());
+        entityManager.flush();
+        AccountResponse fromResponse = mapToResponse(from);
+        AccountResponse toResponse = mapToResponse(to);
+        accountOutbox.recordAll(AccountEventType.UPDATED, List.of(fromResponse, toResponse));
+        return new TransferResponse(fromResponse, toResponse, amount);
+    }
+    
+    /**
+     * Soft-deletes the account with a single conditional UPDATE; {@link AccountPurger}
+     * removes the row later, outside any request. The UPDATE keeps the row locked,
+     * so a concurrent deposit cannot change the balance removed from the statistics.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
     public void deleteAccount(Long id) {
-        if (!accountRepository.existsById(id)) {
+        if (accountRepository.softDelete(id, LocalDateTime.now()) == 0) {
             throw new AccountNotFoundException("Account not found with id: " + id);
         }
-        accountRepository.deleteById(id);
+        currencyStatsService.removeDeleted(id);
+        accountNameIndex.removeAfterCommit(id);
+        accountOutbox.recordDeleted(id);
+    }
+    
+    /**
+     * Reloads an account after a single-statement balance UPDATE, whose row lock
+     * is still held, journals the change, reports it to the statistics and writes
+     * it to the outbox.
+     */
+    private AccountResponse journal(Long id, TransactionType type, BigDecimal amount) {
+        Account account = accountRepository.findById(id)
+            .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
+        ledgerService.recordNumbered(account, type, amount, null);
+        currencyStatsService.adjust(account.getCurrency(), 0, amount);
+        AccountResponse response = mapToResponse(account);
+        accountOutbox.record(AccountEventType.UPDATED, response);
+        return response;
     }
     
-    private String generateAccountNumber() {
-        return "ACC" + System.currentTimeMillis();
+    private Account lockAccount(Long id) {
+        return accountRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new AccountNotFoundException("Account not found with id: " + id));
     }
     
-    private AccountResponse mapToResponse(Account account) {
+    /**
+     * Static so that callers outside this class map entities without going
+     * through the transactional proxy.
+     */
+    public static AccountResponse mapToResponse(Account account) {
         AccountResponse response = new AccountResponse();
         response.setId(account.getId());
         response.setAccountHolderName(account.getAccountHolderName());
         response.setAccountNumber(account.getAccountNumber());
         response.setBalance(account.getBalance());
         response.setCurrency(account.getCurrency());
+        response.setVersion(account.getVersion());
         response.setCreatedAt(account.getCreatedAt());
         return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,224 @@
+package com.banklite.service;
+
+import com.banklite.config.StatusProperties;
+import com.banklite.model.dto.ApplicationStatusResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the /api/v1/status and /api/v1/welcome bodies as pre-serialized JSON.
+ *
+ * Everything that never changes is built once at startup. A background thread
+ * re-reads the runtime figures (memory, connection pool, caches, GC) every
+ * {@code banklite.status.refresh-interval} and swaps in freshly serialized
+ * bodies, so a request only reads a volatile field and writes its bytes,
+ * however often load balancers poll.
+ */
+@Slf4j
+@Service
+public class ApplicationStatusService {
+
+    private static final String APPLICATION = "BankLite Banking System";
+    private static final String VERSION = "1.0.0-SNAPSHOT";
+
+    private static final Map<String, String> ENDPOINTS = orderedMap(
+        "swagger", "/swagger-ui.html",
+        "health", "/actuator/health",
+        "info", "/actuator/info",
+        "prometheus", "/actuator/prometheus",
+        "h2Console", "/h2-console");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<DataSource> dataSource;
+    private final CacheManager cacheManager;
+    private final StatusProperties properties;
+    private final Map<String, Object> welcome;
+
+    private volatile byte[] statusJson;
+    private volatile byte[] welcomeJson;
+    private ScheduledExecutorService refresher;
+
+    public ApplicationStatusService(ObjectMapper objectMapper,
+                                    ObjectProvider<DataSource> dataSource,
+                                    CacheManager cacheManager,
+                                    StatusProperties properties) {
+        this.objectMapper = objectMapper;
+        this.dataSource = dataSource;
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.welcome = buildWelcome();
+        refresh();
+    }
+
+    @PostConstruct
+    void start() {
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getRefreshInterval().toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * The latest status snapshot as UTF-8 JSON. Callers must not modify it.
+     */
+    public byte[] statusJson() {
+        return statusJson;
+    }
+
+    /**
+     * The welcome body as UTF-8 JSON. Callers must not modify it.
+     */
+    public byte[] welcomeJson() {
+        return welcomeJson;
+    }
+
+    void refresh() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        ApplicationStatusResponse status = new ApplicationStatusResponse(APPLICATION, VERSION, "UP", timestamp,
+            systemInfo(), connectionPool(), caches(), garbageCollectors(), ENDPOINTS);
+        Map<String, Object> timedWelcome = new LinkedHashMap<>(welcome);
+        timedWelcome.put("timestamp", timestamp);
+        statusJson = toJson(status);
+        welcomeJson = toJson(timedWelcome);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The previous snapshot keeps being served; its timestamp shows its age
+            log.warn("Failed to refresh the status snapshot", e);
+        }
+    }
+
+    private static ApplicationStatusResponse.SystemInfo systemInfo() {
+        Runtime runtime = Runtime.getRuntime();
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return new ApplicationStatusResponse.SystemInfo(System.getProperty("java.version"),
+            formatBytes(runtime.totalMemory()), formatBytes(runtime.freeMemory()), runtime.availableProcessors(),
+            heap.getUsed(), heap.getMax(), ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private ApplicationStatusResponse.ConnectionPool connectionPool() {
+        DataSource source = dataSource.getIfAvailable();
+        try {
+            if (source == null || !source.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            HikariPoolMXBean pool = source.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            // Null until the pool hands out its first connection
+            return pool == null ? null : new ApplicationStatusResponse.ConnectionPool(pool.getActiveConnections(),
+                pool.getIdleConnections(), pool.getTotalConnections(), pool.getThreadsAwaitingConnection());
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private Map<String, ApplicationStatusResponse.CacheStats> caches() {
+        Map<String, ApplicationStatusResponse.CacheStats> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                var stats = caffeine.stats();
+                caches.put(name, new ApplicationStatusResponse.CacheStats(caffeine.estimatedSize(), stats.hitRate(),
+                    stats.evictionCount()));
+            }
+        }
+        return caches;
+    }
+
+    private static Map<String, ApplicationStatusResponse.GcStats> garbageCollectors() {
+        Map<String, ApplicationStatusResponse.GcStats> collectors = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.put(collector.getName(),
+                new ApplicationStatusResponse.GcStats(collector.getCollectionCount(), collector.getCollectionTime()));
+        }
+        return collectors;
+    }
+
+    private static Map<String, Object> buildWelcome() {
+        Map<String, Object> welcome = new LinkedHashMap<>();
+        welcome.put("message", "Welcome to BankLite Banking API");
+        welcome.put("description", "Modern Banking Application with comprehensive REST API");
+        welcome.put("version", "1.0.0");
+        welcome.put("features", orderedMap(
+            "accountManagement", "Create and manage bank accounts",
+            "transactions", "Process deposits, withdrawals, and transfers",
+            "balanceInquiry", "Check account balances in real-time",
+            "transactionHistory", "View detailed transaction logs",
+            "jwtAuthentication", "Secure JWT-based authentication"));
+        welcome.put("documentation", orderedMap(
+            "swaggerUI", "/swagger-ui.html",
+            "openApiJson", "/v3/api-docs",
+            "openApiYaml", "/v3/api-docs.yaml",
+            "actuatorHealth", "/actuator/health",
+            "actuatorInfo", "/actuator/info"));
+        welcome.put("quickStart", orderedMap(
+            "step1", "Visit /swagger-ui.html for interactive API documentation",
+            "step2", "Check /actuator/health for application health status",
+            "step3", "Use /h2-console for database access (development)",
+            "step4", "Explore API endpoints using Swagger UI"));
+        return welcome;
+    }
+
+    private static Map<String, String> orderedMap(String... keysAndValues) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Formats bytes into human-readable format (e.g. "256.00 MB"). Runs once
+     * per refresh, not per request.
+     */
+    static String formatBytes(long bytes) {
+        if (bytes < 1024)
+            return bytes + " B";
+        if (bytes < 1024 * 1024)
+            return String.format("%.2f KB", bytes / 1024.0);
+        if (bytes < 1024 * 1024 * 1024)
+            return String.format("%.2f MB", bytes / (1024.0 * 1024.0));
+        return String.format("%.2f GB", bytes / (1024.0 * 1024.0 * 1024.0));
+    }
+}
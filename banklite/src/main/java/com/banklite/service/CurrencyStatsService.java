@@ -0,0 +1,186 @@
+package com.banklite.service;
+
+import com.banklite.model.Currency;
+import com.banklite.model.CurrencyStats;
+import com.banklite.model.dto.CurrencyStatsResponse;
+import com.banklite.repository.AccountRepository;
+import com.banklite.repository.CurrencyStatsRepository;
+import com.banklite.repository.CurrencyStatsRepository.CurrencyTotals;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-currency account count and balance total, maintained incrementally.
+ *
+ * Every write path reports its change here in the transaction that changes the
+ * balance, after it has taken its account row locks, and the change is added to
+ * one {@link CurrencyStats} stripe per currency, picked at random for the
+ * transaction, so concurrent writers rarely queue on the same stripe. Stripes
+ * are always updated in (currency, stripe) order, so two writers can never
+ * deadlock on them.
+ * Transfers are not reported: both sides share a currency, so its total is unchanged.
+ *
+ * Minimum and maximum cannot be maintained by adding deltas, so they are read
+ * from the (currency, balance) index as one index seek each. A stats request
+ * therefore costs the same whatever the number of accounts.
+ */
+@Slf4j
+@Service
+@Transactional
+public class CurrencyStatsService {
+
+    private static final int AVERAGE_SCALE = 2;
+
+    private final CurrencyStatsRepository statsRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CurrencyStatsService(CurrencyStatsRepository statsRepository,
+                                AccountRepository accountRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the stripes of every currency that has none yet, from a one-off
+     * scan of the accounts table. Runs before the application takes traffic,
+     * so no writer can miss a stripe. Instances starting together may both
+     * seed; each stripe is inserted only if absent, so the first one wins and
+     * the others, which read the same accounts, leave it as it is.
+     */
+    @PostConstruct
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Currency> missing = EnumSet.allOf(Currency.class);
+            statsRepository.findAll().forEach(stats -> missing.remove(stats.getCurrency()));
+            if (missing.isEmpty()) {
+                return;
+            }
+            Map<Currency, CurrencyTotals> totals = new EnumMap<>(Currency.class);
+            accountRepository.sumBalancesByCurrency().forEach(row -> totals.put(row.getCurrency(), row));
+
+            int inserted = 0;
+            for (Currency currency : missing) {
+                CurrencyTotals existing = totals.get(currency);
+                for (int stripe = 0; stripe < CurrencyStats.STRIPES; stripe++) {
+                    // The existing accounts all go to stripe 0; only the sum over stripes matters
+                    boolean first = stripe == 0 && existing != null;
+                    inserted += statsRepository.insertIfAbsent(currency, stripe,
+                        first ? existing.getAccountCount() : 0L,
+                        first ? existing.getTotalBalance() : BigDecimal.ZERO);
+                }
+            }
+            log.info("Seeded currency statistics for {} ({} stripes)", missing, inserted);
+        });
+    }
+
+    public void adjust(Currency currency, long count, BigDecimal amount) {
+        apply(new Changes().add(currency, count, amount));
+    }
+
+    /**
+     * Takes a just soft-deleted account out of the statistics. The caller holds
+     * the account's row lock, so the balance removed is the one it was deleted with.
+     */
+    public void removeDeleted(Long accountId) {
+        if (statsRepository.removeAccount(accountId, CurrencyStats.anyStripe()) == 0) {
+            throw new IllegalStateException("No statistics stripe for account " + accountId);
+        }
+    }
+
+    /**
+     * Adds every change to its stripe, in (currency, stripe) order.
+     */
+    public void apply(Changes changes) {
+        for (Change change : changes.inLockOrder()) {
+            if (statsRepository.adjust(change.currency(), change.stripe(), change.count(), change.amount()) == 0) {
+                throw new IllegalStateException("No statistics stripe " + change.stripe() + " for " + change.currency());
+            }
+        }
+    }
+
+    /**
+     * Count, total, minimum, maximum and average balance of every currency, in
+     * {@link Currency} order. Minimum, maximum and average are null for a
+     * currency without accounts.
+     */
+    @Transactional(readOnly = true)
+    public List<CurrencyStatsResponse> getStats() {
+        Map<Currency, CurrencyTotals> totals = new EnumMap<>(Currency.class);
+        statsRepository.sumStripes().forEach(row -> totals.put(row.getCurrency(), row));
+
+        List<CurrencyStatsResponse> stats = new ArrayList<>();
+        for (Currency currency : Currency.values()) {
+            CurrencyTotals row = totals.get(currency);
+            long count = row == null ? 0L : row.getAccountCount();
+            BigDecimal total = row == null ? BigDecimal.ZERO : row.getTotalBalance();
+            if (count == 0) {
+                stats.add(new CurrencyStatsResponse(currency, 0L, total, null, null, null));
+                continue;
+            }
+            BigDecimal min = first(accountRepository.findLowestBalances(currency, Limit.of(1)));
+            BigDecimal max = first(accountRepository.findHighestBalances(currency, Limit.of(1)));
+            BigDecimal average = total.divide(BigDecimal.valueOf(count), AVERAGE_SCALE, RoundingMode.HALF_EVEN);
+            stats.add(new CurrencyStatsResponse(currency, count, total, min, max, average));
+        }
+        return stats;
+    }
+
+    private static BigDecimal first(List<BigDecimal> balances) {
+        return balances.isEmpty() ? null : balances.get(0);
+    }
+
+    /**
+     * Changes collected by a writer that touches several accounts or currencies,
+     * netted per currency onto the one stripe picked for them.
+     */
+    public static final class Changes {
+
+        private static final Comparator<CurrencyStats.Key> ORDER =
+            Comparator.comparing(CurrencyStats.Key::getCurrency).thenComparingInt(CurrencyStats.Key::getStripe);
+
+        private final Map<CurrencyStats.Key, Change> changes = new TreeMap<>(ORDER);
+
+        private final int stripe = CurrencyStats.anyStripe();
+
+        public Changes add(Currency currency, long count, BigDecimal amount) {
+            changes.merge(new CurrencyStats.Key(currency, stripe), new Change(currency, stripe, count, amount),
+                Change::plus);
+            return this;
+        }
+
+        /**
+         * The non-zero changes, in the order their stripes must be locked.
+         */
+        public List<Change> inLockOrder() {
+            return changes.values().stream()
+                .filter(change -> change.count() != 0 || change.amount().signum() != 0)
+                .toList();
+        }
+    }
+
+    public record Change(Currency currency, int stripe, long count, BigDecimal amount) {
+
+        private Change plus(Change other) {
+            return new Change(currency, stripe, count + other.count, amount.add(other.amount));
+        }
+    }
+}
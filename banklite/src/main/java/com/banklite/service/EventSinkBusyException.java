@@ -0,0 +1,22 @@
+package com.banklite.service;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Thrown by an {@link AccountEventSink} whose receiver asked to be left alone
+ * for a while, e.g. with HTTP 429 or 503 and a Retry-After header.
+ */
+public class EventSinkBusyException extends IOException {
+
+    private final Duration retryAfter;
+
+    public EventSinkBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
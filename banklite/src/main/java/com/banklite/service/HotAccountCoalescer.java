@@ -0,0 +1,324 @@
+package com.banklite.service;
+
+import com.banklite.config.CacheConfig;
+import com.banklite.config.HotAccountProperties;
+import com.banklite.exception.AccountNotFoundException;
+import com.banklite.exception.BalanceUpdateTimeoutException;
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.model.Account;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.repository.AccountRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group-commits deposits and withdrawals on designated hot accounts.
+ *
+ * Callers enqueue their update and block until it is durable. A single flusher
+ * thread drains every hot account's queue, locks each row once (in id order),
+ * applies the queued updates in arrival order against the locked balance,
+ * writes the net result, journals each accepted update in the ledger and
+ * commits. Only then are callers acknowledged, so a thousand updates on one
+ * account cost one row lock and one UPDATE instead of a thousand, while
+ * overdraft checks still see every earlier update.
+ *
+ * Transfers and other writes keep using row locks directly, which the flusher
+ * honours, so mixing the two paths is safe.
+ */
+@Slf4j
+@Service
+public class HotAccountCoalescer {
+    
+    private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final CurrencyStatsService currencyStatsService;
+    private final AccountOutbox accountOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final HotAccountProperties properties;
+    private final Cache accountCache;
+    
+    private final Map<Long, Queue<PendingUpdate>> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingUpdates = new AtomicInteger();
+    private final LongAdder pendingDeltaCents = new LongAdder();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Timer flushTimer;
+    private final DistributionSummary flushBatchSize;
+    
+    private ScheduledExecutorService flusher;
+    
+    public HotAccountCoalescer(AccountRepository accountRepository,
+                               LedgerService ledgerService,
+                               CurrencyStatsService currencyStatsService,
+                               AccountOutbox accountOutbox,
+                               PlatformTransactionManager transactionManager,
+                               HotAccountProperties properties,
+                               CacheManager cacheManager,
+                               MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.currencyStatsService = currencyStatsService;
+        this.accountOutbox = accountOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(AccountService.WRITE_TIMEOUT_SECONDS);
+        this.properties = properties;
+        this.accountCache = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        
+        Gauge.builder("banklite.hot_accounts.pending.updates", pendingUpdates, AtomicInteger::get)
+            .description("Balance updates buffered and not yet flushed")
+            .register(meterRegistry);
+        Gauge.builder("banklite.hot_accounts.pending.delta", pendingDeltaCents, adder -> adder.sum() / 100.0)
+            .description("Net balance change buffered and not yet flushed")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("banklite.hot_accounts.flush")
+            .description("Time to flush buffered hot-account updates to the database")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.flushBatchSize = DistributionSummary.builder("banklite.hot_accounts.flush.batch.size")
+            .description("Updates written per flush")
+            .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Long id : properties.getAccountIds()) {
+            queues.put(id, new ConcurrentLinkedQueue<>());
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-account-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMicros = properties.getFlushInterval().toNanos() / 1000;
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMicros, intervalMicros, TimeUnit.MICROSECONDS);
+        log.info("Coalescing balance updates for hot accounts {}", properties.getAccountIds());
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        flushQuietly();
+    }
+    
+    public boolean isHot(Long id) {
+        return flusher != null && queues.containsKey(id);
+    }
+    
+    public AccountResponse deposit(Long id, BigDecimal amount) {
+        return submit(id, amount);
+    }
+    
+    public AccountResponse withdraw(Long id, BigDecimal amount) {
+        return submit(id, amount.negate());
+    }
+    
+    private AccountResponse submit(Long id, BigDecimal delta) {
+        Queue<PendingUpdate> queue = queues.get(id);
+        PendingUpdate update = new PendingUpdate(delta);
+        queue.add(update);
+        pendingUpdates.incrementAndGet();
+        pendingDeltaCents.add(update.cents);
+        
+        if (queue.size() >= properties.getMaxBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+        return await(id, update);
+    }
+    
+    private AccountResponse await(Long id, PendingUpdate update) {
+        try {
+            return update.result.get(properties.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (update.abandon()) {
+                throw new BalanceUpdateTimeoutException("Balance update on account " + id + " was not applied in time");
+            }
+            // The flusher already claimed it, so the outcome is seconds away at most
+            return join(update);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BalanceUpdateTimeoutException("Interrupted while waiting for balance update on account " + id);
+        }
+    }
+    
+    private AccountResponse join(PendingUpdate update) {
+        try {
+            return update.result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BalanceUpdateTimeoutException("Interrupted while waiting for balance update");
+        }
+    }
+    
+    private RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+    }
+    
+    private void flushQuietly() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Hot account flush failed", e);
+        }
+    }
+    
+    /**
+     * Drains every queue and commits the result in one transaction, locking rows
+     * in ascending id order. Callers are only completed once the commit succeeded.
+     */
+    void flush() {
+        Map<Long, List<PendingUpdate>> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        List<Runnable> acknowledgements = new ArrayList<>();
+        int size = batch.values().stream().mapToInt(List::size).sum();
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                CurrencyStatsService.Changes stats = new CurrencyStatsService.Changes();
+                for (Map.Entry<Long, List<PendingUpdate>> entry : batch.entrySet()) {
+                    apply(entry.getKey(), entry.getValue(), stats, acknowledgements);
+                }
+                // Only once every account row is locked, the order all writers take these locks in
+                currencyStatsService.apply(stats);
+            }));
+        } catch (RuntimeException e) {
+            batch.values().forEach(updates -> updates.forEach(update -> update.result.completeExceptionally(e)));
+            throw e;
+        } finally {
+            pendingUpdates.addAndGet(-size);
+            batch.values().forEach(updates -> updates.forEach(update -> pendingDeltaCents.add(-update.cents)));
+        }
+        flushBatchSize.record(size);
+        batch.keySet().forEach(accountCache::evict);
+        acknowledgements.forEach(Runnable::run);
+    }
+    
+    private Map<Long, List<PendingUpdate>> drain() {
+        Map<Long, List<PendingUpdate>> batch = new TreeMap<>();
+        queues.forEach((id, queue) -> {
+            List<PendingUpdate> updates = new ArrayList<>();
+            PendingUpdate update;
+            while ((update = queue.poll()) != null) {
+                if (update.claim()) {
+                    updates.add(update);
+                } else {
+                    pendingUpdates.decrementAndGet();
+                    pendingDeltaCents.add(-update.cents);
+                }
+            }
+            if (!updates.isEmpty()) {
+                batch.put(id, updates);
+            }
+        });
+        return batch;
+    }
+    
+    private void apply(Long id, List<PendingUpdate> updates, CurrencyStatsService.Changes stats,
+                       List<Runnable> acknowledgements) {
+        Account account = accountRepository.findByIdForUpdate(id).orElse(null);
+        if (account == null) {
+            AccountNotFoundException notFound = new AccountNotFoundException("Account not found with id: " + id);
+            updates.forEach(update -> acknowledgements.add(() -> update.result.completeExceptionally(notFound)));
+            return;
+        }
+        
+        BigDecimal original = account.getBalance();
+        BigDecimal balance = original;
+        long version = account.getVersion();
+        List<AccountResponse> events = new ArrayList<>();
+        for (PendingUpdate update : updates) {
+            BigDecimal next = balance.add(update.delta);
+            if (next.signum() < 0) {
+                InsufficientFundsException rejected =
+                    new InsufficientFundsException("Insufficient funds in account with id: " + id);
+                acknowledgements.add(() -> update.result.completeExceptionally(rejected));
+                continue;
+            }
+            balance = next;
+            account.setBalance(balance);
+            ledgerService.record(account,
+                update.delta.signum() < 0 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT, update.delta, null);
+            AccountResponse response = AccountService.mapToResponse(account);
+            // Each accepted update gets its own version, as if it had been committed alone
+            response.setVersion(++version);
+            events.add(response);
+            acknowledgements.add(() -> update.result.complete(response));
+        }
+        long applied = version - account.getVersion();
+        if (applied > 1) {
+            // Hibernate raises the version by one when it flushes the entity; this adds the rest
+            accountRepository.raiseVersion(id, applied - 1);
+        }
+        // One event per accepted update, as if each had been committed alone
+        accountOutbox.recordAll(AccountEventType.UPDATED, events);
+        stats.add(account.getCurrency(), 0, balance.subtract(original));
+    }
+    
+    private static final class PendingUpdate {
+        
+        private static final int PENDING = 0;
+        private static final int CLAIMED = 1;
+        private static final int ABANDONED = 2;
+        
+        private final BigDecimal delta;
+        private final long cents;
+        private final CompletableFuture<AccountResponse> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        
+        private PendingUpdate(BigDecimal delta) {
+            this.delta = delta;
+            // Amounts are validated to two decimals; anything else must fail here, not be truncated
+            this.cents = delta.movePointRight(2).longValueExact();
+        }
+        
+        private boolean claim() {
+            return state.compareAndSet(PENDING, CLAIMED);
+        }
+        
+        private boolean abandon() {
+            return state.compareAndSet(PENDING, ABANDONED);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.banklite.service;
+
+import com.banklite.config.HotAccountProperties;
+import com.banklite.config.IdempotencyProperties;
+import com.banklite.exception.IdempotencyKeyInUseException;
+import com.banklite.exception.IdempotencyKeyReusedException;
+import com.banklite.exception.InvalidIdempotencyKeyException;
+import com.banklite.model.IdempotencyRecord;
+import com.banklite.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Makes account writes safe to retry with an {@code Idempotency-Key} header.
+ *
+ * The first request with a key claims it by inserting a row into
+ * {@code idempotency_keys}, runs, and stores its response there. A retry gets the
+ * stored response back without running again, and a retry that arrives while the
+ * first request is still running gets 409. Completed responses are also kept in a
+ * bounded in-memory cache that expires with the key, so the common retry is
+ * answered from memory; the table makes keys survive restarts and work across
+ * replicas. Failed requests release their claim, so they can be retried. A claim
+ * that is never completed or released, because the instance crashed or the final
+ * write failed, lapses after {@code banklite.idempotency.claim-timeout}. That must
+ * be longer than any account write can take, so startup fails otherwise; and a
+ * request only ever completes or releases its own claim, never one a retry took
+ * over after it lapsed.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> completed;
+
+    private ScheduledExecutorService purger;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              IdempotencyProperties properties,
+                              HotAccountProperties hotAccountProperties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        // A write waits for the hot-account flush at most ackTimeout, then for the flush transaction
+        Duration longestWrite = Duration.ofSeconds(AccountService.WRITE_TIMEOUT_SECONDS)
+            .plus(hotAccountProperties.getAckTimeout());
+        if (properties.getClaimTimeout().compareTo(longestWrite) <= 0) {
+            throw new IllegalStateException("banklite.idempotency.claim-timeout (" + properties.getClaimTimeout()
+                + ") must be longer than the longest account write (" + longestWrite + ")");
+        }
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+            .maximumSize(properties.getCacheMaxSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotencyKeys");
+    }
+
+    @PostConstruct
+    void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getPurgeInterval().toMillis();
+        purger.scheduleWithFixedDelay(this::purgeQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Runs {@code action} once per key.
+     *
+     * @param key        the client's Idempotency-Key, or null to simply run the action
+     * @param operation  names the endpoint and target, e.g. {@code "deposit 42"}, so a key
+     *                   reused on another endpoint or account is rejected
+     * @param request    the request body, or null
+     * @param bodyType   the response body type, used to restore a stored response
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > IdempotencyRecord.MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                HEADER + " must be 1 to " + IdempotencyRecord.MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(operation, request);
+
+        StoredResponse stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return replay(key, stored, requestHash, bodyType);
+        }
+
+        // At the column's precision, so complete() and release() can match the claim on it
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (repository.claim(key, requestHash, claimedAt, claimedAt.plus(properties.getTtl())) == 0) {
+            Optional<StoredResponse> existing = load(key, bodyType, claimedAt);
+            if (existing.isPresent()) {
+                return replay(key, existing.get(), requestHash, bodyType);
+            }
+            if (!reclaim(key, requestHash, claimedAt)) {
+                // Another request took it over first
+                return replay(key, load(key, bodyType, claimedAt).orElseThrow(() -> inProgress(key)), requestHash,
+                    bodyType);
+            }
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            repository.release(key, requestHash, claimedAt);
+            throw e;
+        }
+        int status = response.getStatusCode().value();
+        if (repository.complete(key, requestHash, claimedAt, status, toJson(response.getBody())) == 0) {
+            log.warn("Claim on {} {} lapsed before its request completed; the key was claimed again", HEADER, key);
+            return response;
+        }
+        completed.put(key, new StoredResponse(requestHash, status, response.getBody()));
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(String key, StoredResponse stored, String requestHash, Class<T> bodyType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(HEADER + " " + key + " was already used for a different request");
+        }
+        if (stored.status() == null) {
+            throw inProgress(key);
+        }
+        return ResponseEntity.status(stored.status())
+            .header(REPLAYED_HEADER, "true")
+            .body(bodyType.cast(stored.body()));
+    }
+
+    private IdempotencyKeyInUseException inProgress(String key) {
+        return new IdempotencyKeyInUseException("A request with " + HEADER + " " + key + " is still in progress");
+    }
+
+    /**
+     * Claims a key whose record has expired but has not been purged yet, or whose
+     * claim has lapsed, by deleting the record and inserting a new one; false means
+     * another request got there first.
+     */
+    private boolean reclaim(String key, String requestHash, LocalDateTime now) {
+        return repository.deleteIfReclaimable(key, now, now.minus(properties.getClaimTimeout())) == 1
+            && repository.claim(key, requestHash, now, now.plus(properties.getTtl())) == 1;
+    }
+
+    /**
+     * The unexpired record for {@code key}, caching it if it is complete. An in-progress
+     * record whose claim has lapsed is ignored, so the key is claimed again.
+     */
+    private Optional<StoredResponse> load(String key, Class<?> bodyType, LocalDateTime now) {
+        LocalDateTime claimedAfter = now.minus(properties.getClaimTimeout());
+        return repository.findById(key)
+            .filter(record -> record.getExpiresAt().isAfter(now))
+            .filter(record -> record.getResponseStatus() != null || record.getCreatedAt().isAfter(claimedAfter))
+            .map(record -> {
+                if (record.getResponseStatus() == null) {
+                    return new StoredResponse(record.getRequestHash(), null, null);
+                }
+                StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                    fromJson(record.getResponseBody(), bodyType));
+                completed.put(key, stored);
+                return stored;
+            });
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = repository.deleteExpired(LocalDateTime.now());
+            log.debug("Purged {} expired idempotency keys", purged);
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge expired idempotency keys", e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object fromJson(String json, Class<?> bodyType) {
+        try {
+            return json == null ? null : objectMapper.readValue(json, bodyType);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A response as stored for a key; {@code status} is null while the request is in progress.
+     */
+    private record StoredResponse(String requestHash, Integer status, Object body) {
+    }
+}
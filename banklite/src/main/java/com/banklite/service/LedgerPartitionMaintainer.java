@@ -0,0 +1,67 @@
+package com.banklite.service;
+
+import com.banklite.config.LedgerProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps monthly partitions of the PostgreSQL {@code transactions} table created
+ * ahead of time, so entries never land in the default partition.
+ *
+ * Runs {@code create_transaction_partitions} (see init-db.sql) at startup and
+ * then daily. Only active when {@code banklite.ledger.partition-maintenance=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "banklite.ledger", name = "partition-maintenance", havingValue = "true")
+public class LedgerPartitionMaintainer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerProperties properties;
+
+    private ScheduledExecutorService scheduler;
+
+    public LedgerPartitionMaintainer(JdbcTemplate jdbcTemplate, LedgerProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::createPartitionsQuietly, 0, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void createPartitions() {
+        jdbcTemplate.query("SELECT create_transaction_partitions(?)", rs -> { }, properties.getPartitionMonthsAhead());
+        log.info("Transaction partitions ensured for {} months ahead", properties.getPartitionMonthsAhead());
+    }
+
+    private void createPartitionsQuietly() {
+        try {
+            createPartitions();
+        } catch (RuntimeException e) {
+            // Retried tomorrow; entries still land in the default partition meanwhile
+            log.error("Failed to create transaction partitions", e);
+        }
+    }
+}
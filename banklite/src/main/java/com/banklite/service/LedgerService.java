@@ -0,0 +1,127 @@
+package com.banklite.service;
+
+import com.banklite.config.LedgerProperties;
+import com.banklite.config.PaginationProperties;
+import com.banklite.exception.AccountNotFoundException;
+import com.banklite.model.Account;
+import com.banklite.model.AccountTransaction;
+import com.banklite.model.BalanceSnapshot;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.LedgerBalanceResponse;
+import com.banklite.model.dto.TransactionPageResponse;
+import com.banklite.model.dto.TransactionResponse;
+import com.banklite.repository.AccountRepository;
+import com.banklite.repository.AccountTransactionRepository;
+import com.banklite.repository.BalanceSnapshotRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only journal of every balance change, kept alongside {@link AccountService}.
+ *
+ * Writers journal a change in the same transaction that changes the balance,
+ * while they hold the account's row lock. Every {@code snapshotInterval}-th
+ * entry also stores the resulting balance as a {@link BalanceSnapshot}, so the
+ * ledger balance is one snapshot plus fewer than {@code snapshotInterval}
+ * entries, however long the history grows.
+ */
+@Service
+@Transactional
+public class LedgerService {
+
+    private final AccountTransactionRepository transactionRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerProperties ledgerProperties;
+    private final PaginationProperties paginationProperties;
+
+    public LedgerService(AccountTransactionRepository transactionRepository,
+                         BalanceSnapshotRepository snapshotRepository,
+                         AccountRepository accountRepository,
+                         LedgerProperties ledgerProperties,
+                         PaginationProperties paginationProperties) {
+        this.transactionRepository = transactionRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerProperties = ledgerProperties;
+        this.paginationProperties = paginationProperties;
+    }
+
+    /**
+     * Journals a change already applied to {@code account.balance} and advances
+     * the account's entry number.
+     */
+    public AccountTransaction record(Account account, TransactionType type, BigDecimal amount, Long counterpartyAccountId) {
+        account.setLastEntryNo(account.getLastEntryNo() + 1);
+        return recordNumbered(account, type, amount, counterpartyAccountId);
+    }
+
+    /**
+     * Journals a change whose entry number is already reflected in
+     * {@code account.lastEntryNo}: a new account, or a single-statement UPDATE
+     * that advanced it in the database.
+     */
+    public AccountTransaction recordNumbered(Account account, TransactionType type, BigDecimal amount,
+                                             Long counterpartyAccountId) {
+        LocalDateTime now = LocalDateTime.now();
+        AccountTransaction entry = transactionRepository.save(new AccountTransaction(
+            null, account.getId(), account.getLastEntryNo(), type, amount, counterpartyAccountId, now));
+        if (account.getLastEntryNo() % ledgerProperties.getSnapshotInterval() == 0) {
+            snapshotRepository.save(new BalanceSnapshot(
+                null, account.getId(), account.getLastEntryNo(), account.getBalance(), now));
+        }
+        return entry;
+    }
+
+    /**
+     * Newest-first page of an account's entries with an entry number below
+     * {@code before}. Pass the previous page's nextCursor to continue.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPageResponse getHistory(Long accountId, Long before, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long cursor = before == null ? Long.MAX_VALUE : before;
+
+        List<AccountTransaction> rows = transactionRepository
+            .findByAccountIdAndEntryNoLessThanOrderByEntryNoDesc(accountId, cursor, Limit.of(pageSize + 1));
+        if (rows.isEmpty() && before == null && !accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException("Account not found with id: " + accountId);
+        }
+        boolean hasNext = rows.size() > pageSize;
+        List<TransactionResponse> content = (hasNext ? rows.subList(0, pageSize) : rows).stream()
+            .map(LedgerService::mapToResponse)
+            .toList();
+        Long nextCursor = hasNext ? content.get(content.size() - 1).getEntryNo() : null;
+        return new TransactionPageResponse(content, content.size(), hasNext, nextCursor);
+    }
+
+    /**
+     * Rebuilds the balance from the ledger: the latest snapshot plus the entries after it.
+     */
+    @Transactional(readOnly = true)
+    public LedgerBalanceResponse getLedgerBalance(Long accountId) {
+        Optional<BalanceSnapshot> snapshot = snapshotRepository.findFirstByAccountIdOrderByEntryNoDesc(accountId);
+        long snapshotEntryNo = snapshot.map(BalanceSnapshot::getEntryNo).orElse(0L);
+        BigDecimal balance = snapshot.map(BalanceSnapshot::getBalance).orElse(BigDecimal.ZERO);
+
+        AccountTransactionRepository.LedgerDelta delta = transactionRepository.sumAfter(accountId, snapshotEntryNo);
+        if (delta.getLastEntryNo() == null) {
+            if (snapshot.isEmpty() && !accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Account not found with id: " + accountId);
+            }
+            return new LedgerBalanceResponse(accountId, balance, snapshotEntryNo, snapshotEntryNo);
+        }
+        return new LedgerBalanceResponse(accountId, balance.add(delta.getAmount()), delta.getLastEntryNo(), snapshotEntryNo);
+    }
+
+    public static TransactionResponse mapToResponse(AccountTransaction entry) {
+        return new TransactionResponse(entry.getId(), entry.getAccountId(), entry.getEntryNo(), entry.getType(),
+            entry.getAmount(), entry.getCounterpartyAccountId(), entry.getCreatedAt());
+    }
+}
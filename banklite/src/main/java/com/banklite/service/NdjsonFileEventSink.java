@@ -0,0 +1,79 @@
+package com.banklite.service;
+
+import com.banklite.config.OutboxProperties;
+import com.banklite.model.dto.AccountEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local file, one JSON object per line.
+ *
+ * A batch is encoded in memory, written with one call and forced to disk
+ * before it counts as delivered, so a crash can repeat the last batch but
+ * never lose it. Active when {@code banklite.outbox.sink=file}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banklite.outbox", name = "sink", havingValue = "file", matchIfMissing = true)
+public class NdjsonFileEventSink implements AccountEventSink {
+
+    private final ObjectWriter writer;
+    private final Path path;
+
+    private FileChannel channel;
+
+    public NdjsonFileEventSink(ObjectMapper objectMapper, OutboxProperties properties) {
+        this.writer = objectMapper.writerFor(AccountEvent.class);
+        this.path = properties.getFile().getPath();
+    }
+
+    @Override
+    public synchronized void publish(List<AccountEvent> events) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 256);
+        for (AccountEvent event : events) {
+            writer.writeValue(buffer, event);
+            buffer.write('\n');
+        }
+        FileChannel out = channel();
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+        out.force(false);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
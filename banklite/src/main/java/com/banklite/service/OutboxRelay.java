@@ -0,0 +1,224 @@
+package com.banklite.service;
+
+import com.banklite.config.OutboxProperties;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.dto.AccountEvent;
+import com.banklite.model.dto.AccountResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the events written by {@link AccountOutbox} to the configured
+ * {@link AccountEventSink}, oldest first, in batches of
+ * {@code banklite.outbox.batch-size}.
+ *
+ * Each batch is one transaction: the rows are claimed with
+ * {@code FOR UPDATE}, published, and deleted only once the sink has accepted
+ * them. Events of one account are numbered in commit order (see
+ * {@link com.banklite.model.OutboxEvent}), so they are delivered in that order.
+ * Relays on other nodes wait on the claimed rows instead of delivering around
+ * them, which keeps that order across the cluster.
+ *
+ * The claim, and the pooled connection behind it, is therefore held while the
+ * sink publishes. Claiming with {@code SKIP LOCKED}, or publishing outside the
+ * transaction under a lease, would let another node deliver later events of an
+ * account first. The hold is bounded instead: each relay keeps at most one
+ * connection, for as long as one publish may take, which for the webhook sink
+ * is limited by {@code banklite.outbox.webhook.timeout}.
+ *
+ * Backpressure comes from the sink: a new batch is only claimed once the
+ * previous one was accepted, and while the sink fails the relay backs off
+ * exponentially (or as long as the receiver asked, see
+ * {@link EventSinkBusyException}). Undelivered events simply wait in the
+ * table, so nothing builds up in memory.
+ *
+ * Only active when {@code banklite.outbox.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "banklite.outbox", name = "enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final String CLAIM_SQL = "SELECT id, account_id, event_type, payload, created_at "
+        + "FROM account_outbox ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String DELETE_SQL = "DELETE FROM account_outbox WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AccountEventSink sink;
+    private final OutboxProperties properties;
+    private final Counter published;
+    private final Timer publishedBatches;
+    private final Timer failedBatches;
+
+    private ScheduledExecutorService scheduler;
+    private Duration backoff;
+    private volatile double lagSeconds;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper,
+                       AccountEventSink sink,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.sink = sink;
+        this.properties = properties;
+        this.backoff = properties.getPollInterval();
+        this.published = Counter.builder("banklite.outbox.published")
+            .description("Account events delivered to the sink")
+            .tag("sink", sink.name())
+            .register(meterRegistry);
+        this.publishedBatches = publishTimer("success", meterRegistry);
+        this.failedBatches = publishTimer("failure", meterRegistry);
+        Gauge.builder("banklite.outbox.lag", this, relay -> relay.lagSeconds)
+            .description("Age of the oldest undelivered account event at the last poll")
+            .baseUnit("seconds")
+            .tag("sink", sink.name())
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.schedule(this::run, properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Delivers batches until the outbox is empty and returns how many events
+     * were delivered.
+     */
+    int drain() throws IOException {
+        int total = 0;
+        while (true) {
+            int delivered = relayBatch();
+            total += delivered;
+            if (delivered < properties.getBatchSize()) {
+                return total;
+            }
+        }
+    }
+
+    private int relayBatch() throws IOException {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<AccountEvent> events = jdbcTemplate.query(CLAIM_SQL, this::toEvent, properties.getBatchSize());
+                if (events.isEmpty()) {
+                    lagSeconds = 0;
+                    return 0;
+                }
+                lagSeconds = Duration.between(events.get(0).getOccurredAt(), LocalDateTime.now()).toMillis() / 1e3;
+                publish(events);
+                Long[] ids = events.stream().map(AccountEvent::getEventId).toArray(Long[]::new);
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(DELETE_SQL);
+                    statement.setArray(1, connection.createArrayOf("BIGINT", ids));
+                    return statement;
+                });
+                published.increment(events.size());
+                return events.size();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void publish(List<AccountEvent> events) {
+        long started = System.nanoTime();
+        try {
+            sink.publish(events);
+            publishedBatches.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            failedBatches.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            // Rolls the claim back, so the batch is delivered again next time
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void run() {
+        Duration delay = properties.getPollInterval();
+        try {
+            int delivered = drain();
+            if (delivered > 0) {
+                log.debug("Relayed {} account events to {}", delivered, sink.name());
+            }
+            backoff = properties.getPollInterval();
+        } catch (EventSinkBusyException e) {
+            delay = e.getRetryAfter() != null ? e.getRetryAfter() : nextBackoff();
+            log.info("Account event sink is busy, retrying in {}: {}", delay, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            delay = nextBackoff();
+            log.warn("Failed to relay account events, retrying in {}", delay, e);
+        }
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::run, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Duration nextBackoff() {
+        backoff = backoff.multipliedBy(2);
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) {
+            backoff = properties.getMaxBackoff();
+        }
+        return backoff;
+    }
+
+    private AccountEvent toEvent(ResultSet rs, int rowNum) throws SQLException {
+        String payload = rs.getString("payload");
+        AccountResponse account;
+        try {
+            account = payload == null ? null : objectMapper.readValue(payload, AccountResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new AccountEvent(rs.getLong("id"), AccountEventType.valueOf(rs.getString("event_type")),
+            rs.getLong("account_id"), rs.getTimestamp("created_at").toLocalDateTime(), account);
+    }
+
+    private Timer publishTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("banklite.outbox.publish")
+            .description("Time the sink took to accept a batch of account events")
+            .tag("sink", sink.name())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.banklite.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hands out ids for R2DBC inserts from blocks reserved on a database sequence
+ * that steps by {@code allocationSize}. These are the same blocks Hibernate's
+ * pooled optimizer reserves, so reactive and JPA inserts never collide; a new
+ * block is only fetched once the current one is used up.
+ */
+final class PooledIdAllocator {
+
+    private final Supplier<Mono<Long>> nextBlockEnd;
+    private final int allocationSize;
+    private final AtomicReference<IdBlock> block = new AtomicReference<>(IdBlock.EXHAUSTED);
+
+    /**
+     * @param nextBlockEnd  reserves a block by calling the sequence's nextval, which is the block's last id
+     */
+    PooledIdAllocator(Supplier<Mono<Long>> nextBlockEnd, int allocationSize) {
+        this.nextBlockEnd = nextBlockEnd;
+        this.allocationSize = allocationSize;
+    }
+
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock current;
+            while ((current = block.get()).hasNext()) {
+                if (block.compareAndSet(current, current.advance())) {
+                    return Mono.just(current.next());
+                }
+            }
+            return nextBlockEnd.get().map(last -> {
+                // The sequence starts at 1, so the block ending there holds only id 1
+                IdBlock reserved = new IdBlock(Math.max(1, last - allocationSize + 1), last);
+                block.set(reserved.advance());
+                return reserved.next();
+            });
+        });
+    }
+
+    /**
+     * Unused ids {@code next..last} of a reserved block.
+     */
+    private record IdBlock(long next, long last) {
+
+        static final IdBlock EXHAUSTED = new IdBlock(1, 0);
+
+        boolean hasNext() {
+            return next <= last;
+        }
+
+        IdBlock advance() {
+            return new IdBlock(next + 1, last);
+        }
+    }
+}
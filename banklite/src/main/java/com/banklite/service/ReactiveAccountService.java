@@ -0,0 +1,356 @@
+package com.banklite.service;
+
+import com.banklite.config.CacheConfig;
+import com.banklite.config.PaginationProperties;
+import com.banklite.config.SearchProperties;
+import com.banklite.exception.AccountNotFoundException;
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.exception.InvalidTransferException;
+import com.banklite.model.Account;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.AccountRow;
+import com.banklite.model.CurrencyStats;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.AccountPageResponse;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.TransferResponse;
+import com.banklite.repository.ReactiveAccountRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Non-blocking twin of {@link AccountService} on R2DBC, backing /api/v2.
+ *
+ * Every operation gives the same results and errors as its v1 counterpart and
+ * shares the v1 caches, so clients can mix both API versions freely. Writes run
+ * inside a {@link TransactionalOperator} and evict the cached account once the
+ * transaction has committed.
+ */
+@Service
+public class ReactiveAccountService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final ReactiveLedgerService ledgerService;
+    private final AccountNameIndex accountNameIndex;
+    private final AccountOutbox accountOutbox;
+    private final TransactionalOperator transactionalOperator;
+    private final PaginationProperties paginationProperties;
+    private final SearchProperties searchProperties;
+    private final Cache accountCache;
+    private final Cache accountIdCache;
+    private final PooledIdAllocator accountIds;
+
+    public ReactiveAccountService(ReactiveAccountRepository accountRepository,
+                                  R2dbcEntityTemplate entityTemplate,
+                                  AccountNumberGenerator accountNumberGenerator,
+                                  ReactiveLedgerService ledgerService,
+                                  AccountNameIndex accountNameIndex,
+                                  AccountOutbox accountOutbox,
+                                  TransactionalOperator transactionalOperator,
+                                  PaginationProperties paginationProperties,
+                                  SearchProperties searchProperties,
+                                  CacheManager cacheManager) {
+        this.accountRepository = accountRepository;
+        this.entityTemplate = entityTemplate;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.ledgerService = ledgerService;
+        this.accountNameIndex = accountNameIndex;
+        this.accountOutbox = accountOutbox;
+        this.transactionalOperator = transactionalOperator;
+        this.paginationProperties = paginationProperties;
+        this.searchProperties = searchProperties;
+        this.accountCache = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        this.accountIdCache = cacheManager.getCache(CacheConfig.ACCOUNT_IDS_BY_NUMBER);
+        this.accountIds = new PooledIdAllocator(accountRepository::nextIdBlock, Account.ID_ALLOCATION_SIZE);
+    }
+
+    public Mono<AccountResponse> createAccount(AccountRequest request) {
+        return accountIds.nextId()
+            .flatMap(id -> {
+                LocalDateTime now = LocalDateTime.now();
+                AccountRow row = new AccountRow(id, request.getAccountHolderName(),
+                    accountNumberGenerator.nextAccountNumber(), request.getBalance(), request.getCurrency(), 1, null, now, now);
+                // insert() rather than save(): the id is already assigned, which save() would take for an update
+                return entityTemplate.insert(row);
+            })
+            .flatMap(row -> ledgerService.recordNumbered(row, TransactionType.OPENING, row.getBalance(), null)
+                .then(adjustStats(new CurrencyStatsService.Changes()
+                    .add(row.getCurrency(), 1, row.getBalance())))
+                .thenReturn(mapToResponse(row)))
+            .flatMap(response -> recordEvent(AccountEventType.CREATED, response))
+            .as(transactionalOperator::transactional)
+            .doOnSuccess(response -> accountNameIndex.put(response.getId(), response.getAccountHolderName()));
+    }
+
+    public Mono<AccountResponse> getAccount(Long id) {
+        return Mono.defer(() -> {
+            AccountResponse cached = accountCache.get(id, AccountResponse.class);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return accountRepository.findById(id)
+                .switchIfEmpty(accountNotFound(id))
+                .map(ReactiveAccountService::mapToResponse)
+                .doOnNext(response -> accountCache.put(id, response));
+        });
+    }
+
+    public Mono<Long> getAccountIdByNumber(String accountNumber) {
+        return Mono.defer(() -> {
+            Long cached = accountIdCache.get(accountNumber, Long.class);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return accountRepository.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(() ->
+                    new AccountNotFoundException("Account not found with number: " + accountNumber)))
+                .map(AccountRow::getId)
+                .doOnNext(id -> accountIdCache.put(accountNumber, id));
+        });
+    }
+
+    /**
+     * Keyset page of accounts after {@code afterId}; see {@link AccountService#getAccounts}.
+     */
+    public Mono<AccountPageResponse> getAccounts(Long afterId, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long cursor = afterId == null ? 0L : afterId;
+
+        return accountRepository.findByIdGreaterThanOrderByIdAsc(cursor, pageSize + 1)
+            .map(ReactiveAccountService::mapToResponse)
+            .collectList()
+            .map(rows -> {
+                boolean hasNext = rows.size() > pageSize;
+                List<AccountResponse> content = hasNext ? rows.subList(0, pageSize) : rows;
+                Long nextCursor = hasNext ? content.get(content.size() - 1).getId() : null;
+                return new AccountPageResponse(content, content.size(), hasNext, nextCursor);
+            });
+    }
+
+    /**
+     * Keyset page of accounts by holder name; see {@link AccountService#searchAccounts}.
+     */
+    public Mono<AccountPageResponse> searchAccounts(String query, Long afterId, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long cursor = afterId == null ? 0L : afterId;
+        String needle = AccountService.trimQuery(query, searchProperties.getMaxQueryLength());
+        if (needle.isEmpty()) {
+            return Mono.just(new AccountPageResponse(List.of(), 0, false, null));
+        }
+
+        if (accountNameIndex.isEnabled()) {
+            return Mono.defer(() -> {
+                List<Long> ids = accountNameIndex.search(needle, cursor, pageSize + 1);
+                boolean hasNext = ids.size() > pageSize;
+                return accountRepository.findAllById(hasNext ? ids.subList(0, pageSize) : ids)
+                    .collectSortedList(Comparator.comparing(AccountRow::getId))
+                    .map(rows -> toPage(rows, hasNext));
+            });
+        }
+        return accountRepository.searchByHolderName(AccountService.containsPattern(needle), cursor, pageSize + 1)
+            .collectList()
+            .map(rows -> rows.size() > pageSize ? toPage(rows.subList(0, pageSize), true) : toPage(rows, false));
+    }
+
+    private static AccountPageResponse toPage(List<AccountRow> rows, boolean hasNext) {
+        List<AccountResponse> content = rows.stream()
+            .map(ReactiveAccountService::mapToResponse)
+            .toList();
+        Long nextCursor = hasNext ? rows.get(rows.size() - 1).getId() : null;
+        return new AccountPageResponse(content, content.size(), hasNext, nextCursor);
+    }
+
+    /**
+     * Every account in id order. Rows are only read from the database as fast as
+     * the subscriber requests them.
+     */
+    public Flux<AccountResponse> exportAccounts() {
+        return accountRepository.findAllByOrderByIdAsc()
+            .map(ReactiveAccountService::mapToResponse);
+    }
+
+    /**
+     * Locks the row, like {@link AccountService#updateAccount}.
+     */
+    public Mono<AccountResponse> updateAccount(Long id, AccountRequest request) {
+        return lockAccount(id)
+            .flatMap(row -> {
+                BigDecimal adjustment = request.getBalance().subtract(row.getBalance());
+                CurrencyStatsService.Changes stats = new CurrencyStatsService.Changes()
+                    .add(row.getCurrency(), -1, row.getBalance().negate())
+                    .add(request.getCurrency(), 1, request.getBalance());
+                row.setAccountHolderName(request.getAccountHolderName());
+                row.setBalance(request.getBalance());
+                row.setCurrency(request.getCurrency());
+                row.setUpdatedAt(LocalDateTime.now());
+                Mono<Void> journaled = adjustment.signum() != 0
+                    ? ledgerService.record(row, TransactionType.ADJUSTMENT, adjustment, null)
+                    : Mono.empty();
+                return journaled.then(accountRepository.save(row))
+                    .flatMap(saved -> adjustStats(stats).thenReturn(saved));
+            })
+            .map(ReactiveAccountService::mapToResponse)
+            .flatMap(response -> recordEvent(AccountEventType.UPDATED, response))
+            .as(transactionalOperator::transactional)
+            .doOnSuccess(response -> {
+                accountCache.evict(id);
+                accountNameIndex.put(id, response.getAccountHolderName());
+            });
+    }
+
+    public Mono<AccountResponse> deposit(Long id, BigDecimal amount) {
+        return accountRepository.credit(id, amount, LocalDateTime.now())
+            .flatMap(updated -> updated == 0 ? accountNotFound(id) : journal(id, TransactionType.DEPOSIT, amount))
+            .as(transactionalOperator::transactional)
+            .doOnSuccess(response -> accountCache.evict(id));
+    }
+
+    public Mono<AccountResponse> withdraw(Long id, BigDecimal amount) {
+        return accountRepository.debit(id, amount, LocalDateTime.now())
+            .flatMap(updated -> updated > 0
+                ? journal(id, TransactionType.WITHDRAWAL, amount.negate())
+                : accountRepository.existsById(id).flatMap(exists -> exists
+                    ? Mono.error(new InsufficientFundsException("Insufficient funds in account with id: " + id))
+                    : accountNotFound(id)))
+            .as(transactionalOperator::transactional)
+            .doOnSuccess(response -> accountCache.evict(id));
+    }
+
+    /**
+     * Locks both rows in ascending id order, like {@link AccountService#transfer}.
+     */
+    public Mono<TransferResponse> transfer(Long fromId, Long toId, BigDecimal amount) {
+        if (fromId.equals(toId)) {
+            return Mono.error(new InvalidTransferException("Cannot transfer to the same account"));
+        }
+
+        return lockAccount(Math.min(fromId, toId))
+            .zipWhen(first -> lockAccount(Math.max(fromId, toId)))
+            .flatMap(locked -> {
+                AccountRow from = locked.getT1().getId().equals(fromId) ? locked.getT1() : locked.getT2();
+                AccountRow to = from == locked.getT1() ? locked.getT2() : locked.getT1();
+
+                if (from.getCurrency() != to.getCurrency()) {
+                    return Mono.error(new InvalidTransferException("Cannot transfer between " + from.getCurrency()
+                        + " and " + to.getCurrency() + " accounts"));
+                }
+                if (from.getBalance().compareTo(amount) < 0) {
+                    return Mono.error(new InsufficientFundsException("Insufficient funds in account with id: " + fromId));
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                from.setBalance(from.getBalance().subtract(amount));
+                from.setUpdatedAt(now);
+                to.setBalance(to.getBalance().add(amount));
+                to.setUpdatedAt(now);
+                return ledgerService.record(from, TransactionType.TRANSFER_OUT, amount.negate(), to.getId())
+                    .then(ledgerService.record(to, TransactionType.TRANSFER_IN, amount, from.getId()))
+                    .then(accountRepository.save(from))
+                    .then(accountRepository.save(to))
+                    // Mapped once saved, which raises the versions
+                    .then(Mono.defer(() -> recordEvent(AccountEventType.UPDATED, mapToResponse(from))))
+                    .flatMap(fromResponse -> recordEvent(AccountEventType.UPDATED, mapToResponse(to))
+                        .map(toResponse -> new TransferResponse(fromResponse, toResponse, amount)));
+            })
+            .as(transactionalOperator::transactional)
+            .doOnSuccess(response -> {
+                accountCache.evict(fromId);
+                accountCache.evict(toId);
+            });
+    }
+
+    /**
+     * Soft-deletes in one conditional UPDATE; see {@link AccountService#deleteAccount}.
+     */
+    public Mono<Void> deleteAccount(Long id) {
+        return accountRepository.softDelete(id, LocalDateTime.now())
+            .filter(deleted -> deleted > 0)
+            .switchIfEmpty(accountNotFound(id))
+            .flatMap(deleted -> accountRepository.removeFromCurrencyStats(id, CurrencyStats.anyStripe()))
+            .filter(updated -> updated > 0)
+            .switchIfEmpty(Mono.error(() -> new IllegalStateException("No statistics stripe for account " + id)))
+            .then(accountOutbox.isEnabled()
+                ? accountRepository.recordDeletedEvent(id, LocalDateTime.now()).then()
+                : Mono.empty())
+            .as(transactionalOperator::transactional)
+            .doOnSuccess(done -> {
+                accountCache.evict(id);
+                accountNameIndex.remove(id);
+            });
+    }
+
+    /**
+     * Writes the change to the outbox in the surrounding transaction, like
+     * {@link AccountOutbox#record}.
+     */
+    private Mono<AccountResponse> recordEvent(AccountEventType type, AccountResponse response) {
+        if (!accountOutbox.isEnabled()) {
+            return Mono.just(response);
+        }
+        return Mono.fromCallable(() -> accountOutbox.toPayload(response))
+            .flatMap(payload -> accountRepository.recordEvent(response.getId(), type.name(), payload,
+                LocalDateTime.now()))
+            .thenReturn(response);
+    }
+
+    private Mono<AccountRow> lockAccount(Long id) {
+        return accountRepository.findByIdForUpdate(id)
+            .switchIfEmpty(accountNotFound(id));
+    }
+
+    /**
+     * Reloads an account after a single-statement balance UPDATE, whose row lock
+     * is still held, journals the change and writes it to the outbox.
+     */
+    private Mono<AccountResponse> journal(Long id, TransactionType type, BigDecimal amount) {
+        return accountRepository.findById(id)
+            .switchIfEmpty(accountNotFound(id))
+            .flatMap(row -> ledgerService.recordNumbered(row, type, amount, null)
+                .then(adjustStats(new CurrencyStatsService.Changes().add(row.getCurrency(), 0, amount)))
+                .thenReturn(row))
+            .map(ReactiveAccountService::mapToResponse)
+            .flatMap(response -> recordEvent(AccountEventType.UPDATED, response));
+    }
+
+    /**
+     * Applies the changes to the currency statistics stripes in lock order; see {@link CurrencyStatsService}.
+     */
+    private Mono<Void> adjustStats(CurrencyStatsService.Changes changes) {
+        return Flux.fromIterable(changes.inLockOrder())
+            .concatMap(change -> accountRepository.adjustCurrencyStats(change.currency().name(), change.stripe(),
+                    change.count(), change.amount())
+                .filter(updated -> updated > 0)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                    "No statistics stripe " + change.stripe() + " for " + change.currency()))))
+            .then();
+    }
+
+    private static <T> Mono<T> accountNotFound(Long id) {
+        return Mono.error(() -> new AccountNotFoundException("Account not found with id: " + id));
+    }
+
+    public static AccountResponse mapToResponse(AccountRow row) {
+        AccountResponse response = new AccountResponse();
+        response.setId(row.getId());
+        response.setAccountHolderName(row.getAccountHolderName());
+        response.setAccountNumber(row.getAccountNumber());
+        response.setBalance(row.getBalance());
+        response.setCurrency(row.getCurrency());
+        response.setVersion(row.getVersion());
+        response.setCreatedAt(row.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,144 @@
+package com.banklite.service;
+
+import com.banklite.config.LedgerProperties;
+import com.banklite.config.PaginationProperties;
+import com.banklite.exception.AccountNotFoundException;
+import com.banklite.model.AccountRow;
+import com.banklite.model.AccountTransaction;
+import com.banklite.model.AccountTransactionRow;
+import com.banklite.model.BalanceSnapshotRow;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.LedgerBalanceResponse;
+import com.banklite.model.dto.TransactionPageResponse;
+import com.banklite.model.dto.TransactionResponse;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+/**
+ * Reactive twin of {@link LedgerService}, writing to and reading from the same
+ * ledger tables. Callers supply the surrounding transaction.
+ */
+@Service
+public class ReactiveLedgerService {
+
+    private final R2dbcEntityTemplate entityTemplate;
+    private final DatabaseClient databaseClient;
+    private final LedgerProperties ledgerProperties;
+    private final PaginationProperties paginationProperties;
+    private final PooledIdAllocator transactionIds;
+
+    public ReactiveLedgerService(R2dbcEntityTemplate entityTemplate,
+                                 LedgerProperties ledgerProperties,
+                                 PaginationProperties paginationProperties) {
+        this.entityTemplate = entityTemplate;
+        this.databaseClient = entityTemplate.getDatabaseClient();
+        this.ledgerProperties = ledgerProperties;
+        this.paginationProperties = paginationProperties;
+        this.transactionIds = new PooledIdAllocator(
+            () -> databaseClient.sql("SELECT NEXTVAL('transactions_id_seq')")
+                .map(row -> row.get(0, Long.class))
+                .one(),
+            AccountTransaction.ID_ALLOCATION_SIZE);
+    }
+
+    /**
+     * See {@link LedgerService#record}. The entry number is advanced immediately,
+     * so save the account after calling this.
+     */
+    public Mono<Void> record(AccountRow account, TransactionType type, BigDecimal amount, Long counterpartyAccountId) {
+        account.setLastEntryNo(account.getLastEntryNo() + 1);
+        return recordNumbered(account, type, amount, counterpartyAccountId);
+    }
+
+    /**
+     * See {@link LedgerService#recordNumbered}.
+     */
+    public Mono<Void> recordNumbered(AccountRow account, TransactionType type, BigDecimal amount,
+                                     Long counterpartyAccountId) {
+        LocalDateTime now = LocalDateTime.now();
+        long entryNo = account.getLastEntryNo();
+        BigDecimal balance = account.getBalance();
+        Mono<Void> entry = transactionIds.nextId()
+            .flatMap(id -> entityTemplate.insert(new AccountTransactionRow(
+                id, account.getId(), entryNo, type, amount, counterpartyAccountId, now)))
+            .then();
+        if (entryNo % ledgerProperties.getSnapshotInterval() != 0) {
+            return entry;
+        }
+        return entry.then(entityTemplate.insert(new BalanceSnapshotRow(null, account.getId(), entryNo, balance, now)))
+            .then();
+    }
+
+    public Mono<TransactionPageResponse> getHistory(Long accountId, Long before, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long cursor = before == null ? Long.MAX_VALUE : before;
+
+        return entityTemplate.select(AccountTransactionRow.class)
+            .matching(query(where("accountId").is(accountId).and("entryNo").lessThan(cursor))
+                .sort(Sort.by(Sort.Direction.DESC, "entryNo"))
+                .limit(pageSize + 1))
+            .all()
+            .map(ReactiveLedgerService::mapToResponse)
+            .collectList()
+            .flatMap(rows -> rows.isEmpty() && before == null
+                ? requireAccount(accountId).thenReturn(rows)
+                : Mono.just(rows))
+            .map(rows -> {
+                boolean hasNext = rows.size() > pageSize;
+                List<TransactionResponse> content = hasNext ? rows.subList(0, pageSize) : rows;
+                Long nextCursor = hasNext ? content.get(content.size() - 1).getEntryNo() : null;
+                return new TransactionPageResponse(content, content.size(), hasNext, nextCursor);
+            });
+    }
+
+    public Mono<LedgerBalanceResponse> getLedgerBalance(Long accountId) {
+        Mono<BalanceSnapshotRow> latestSnapshot = entityTemplate.select(BalanceSnapshotRow.class)
+            .matching(query(where("accountId").is(accountId))
+                .sort(Sort.by(Sort.Direction.DESC, "entryNo"))
+                .limit(1))
+            .one()
+            .defaultIfEmpty(new BalanceSnapshotRow(null, accountId, 0L, BigDecimal.ZERO, null));
+
+        return latestSnapshot.flatMap(snapshot -> databaseClient
+            .sql("SELECT SUM(amount) AS amount, MAX(entry_no) AS last_entry_no FROM transactions "
+                + "WHERE account_id = :accountId AND entry_no > :after")
+            .bind("accountId", accountId)
+            .bind("after", snapshot.getEntryNo())
+            .map(row -> new LedgerDelta(row.get("amount", BigDecimal.class), row.get("last_entry_no", Long.class)))
+            .one()
+            .flatMap(delta -> {
+                if (delta.lastEntryNo() != null) {
+                    return Mono.just(new LedgerBalanceResponse(accountId, snapshot.getBalance().add(delta.amount()),
+                        delta.lastEntryNo(), snapshot.getEntryNo()));
+                }
+                Mono<Void> exists = snapshot.getId() == null ? requireAccount(accountId) : Mono.empty();
+                return exists.thenReturn(new LedgerBalanceResponse(accountId, snapshot.getBalance(),
+                    snapshot.getEntryNo(), snapshot.getEntryNo()));
+            }));
+    }
+
+    private Mono<Void> requireAccount(Long accountId) {
+        return entityTemplate.exists(query(where("id").is(accountId)), AccountRow.class)
+            .flatMap(exists -> exists
+                ? Mono.<Void>empty()
+                : Mono.error(new AccountNotFoundException("Account not found with id: " + accountId)));
+    }
+
+    public static TransactionResponse mapToResponse(AccountTransactionRow entry) {
+        return new TransactionResponse(entry.getId(), entry.getAccountId(), entry.getEntryNo(), entry.getType(),
+            entry.getAmount(), entry.getCounterpartyAccountId(), entry.getCreatedAt());
+    }
+
+    private record LedgerDelta(BigDecimal amount, Long lastEntryNo) {
+    }
+}
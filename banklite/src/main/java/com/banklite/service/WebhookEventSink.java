@@ -0,0 +1,90 @@
+package com.banklite.service;
+
+import com.banklite.config.OutboxProperties;
+import com.banklite.model.dto.AccountEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * POSTs each batch as one JSON array to {@code banklite.outbox.webhook.url}.
+ *
+ * Any 2xx response acknowledges the batch. A 429 or 503 is taken as the
+ * receiver pushing back, and its Retry-After (in seconds) tells the relay how
+ * long to wait; any other status fails the batch. Active when
+ * {@code banklite.outbox.sink=webhook}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banklite.outbox", name = "sink", havingValue = "webhook")
+public class WebhookEventSink implements AccountEventSink {
+
+    private final ObjectWriter writer;
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public WebhookEventSink(ObjectMapper objectMapper, OutboxProperties properties) {
+        this.writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+            .constructCollectionType(List.class, AccountEvent.class));
+        this.url = Objects.requireNonNull(properties.getWebhook().getUrl(), "banklite.outbox.webhook.url is not set");
+        this.timeout = properties.getWebhook().getTimeout();
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .build();
+    }
+
+    @Override
+    public void publish(List<AccountEvent> events) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+            .timeout(timeout)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(writer.writeValueAsBytes(events)))
+            .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while delivering account events");
+        }
+
+        int status = response.statusCode();
+        if (status == 429 || status == 503) {
+            Duration retryAfter = response.headers().firstValue(HttpHeaders.RETRY_AFTER)
+                .flatMap(WebhookEventSink::parseSeconds)
+                .orElse(null);
+            throw new EventSinkBusyException("Webhook " + url + " answered " + status, retryAfter);
+        }
+        if (status < 200 || status >= 300) {
+            throw new IOException("Webhook " + url + " answered " + status);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    private static Optional<Duration> parseSeconds(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.strip())));
+        } catch (NumberFormatException e) {
+            // The HTTP-date form is not worth supporting here; the relay backs off on its own
+            return Optional.empty();
+        }
+    }
+}
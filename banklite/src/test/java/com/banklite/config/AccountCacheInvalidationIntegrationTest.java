@@ -0,0 +1,95 @@
+package com.banklite.config;
+
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against PostgreSQL initialised with init-db.sql, and plays a second
+ * replica by writing to the accounts table over its own connection.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("postgres")
+@TestPropertySource(properties = "banklite.cache-invalidation.max-staleness=1s")
+class AccountCacheInvalidationIntegrationTest {
+    
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("banklite")
+            .withUsername("banklite_user")
+            .withPassword("banklite_password")
+            .withCopyFileToContainer(MountableFile.forHostPath("init-db.sql"),
+                    "/docker-entrypoint-initdb.d/init-db.sql");
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/banklite");
+    }
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Autowired
+    private AccountCacheInvalidationListener listener;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void shouldEvictAccountChangedByAnotherReplica() throws Exception {
+        // Given a cached account
+        AccountResponse created = restTemplate.postForEntity("/api/v1/accounts",
+                new AccountRequest("Replica Reader", new BigDecimal("100.00"), Currency.USD), AccountResponse.class)
+                .getBody();
+        String url = "/api/v1/accounts/" + created.getId();
+        assertThat(restTemplate.getForObject(url, AccountResponse.class).getBalance()).isEqualByComparingTo("100.00");
+        awaitTrue(listener::isConnected, Duration.ofSeconds(10));
+        
+        // When another replica changes it behind this one's back
+        try (Connection connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE accounts SET balance = 250.00 WHERE id = ?")) {
+            update.setLong(1, created.getId());
+            update.executeUpdate();
+        }
+        
+        // Then this replica serves the new balance well within the staleness bound
+        awaitTrue(() -> restTemplate.getForObject(url, AccountResponse.class).getBalance()
+                .compareTo(new BigDecimal("250.00")) == 0, Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("banklite.cache.invalidation.lag").timer().count()).isPositive();
+    }
+    
+    private static void awaitTrue(Supplier<Boolean> condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.get()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", timeout).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
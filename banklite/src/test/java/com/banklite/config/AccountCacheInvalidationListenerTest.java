@@ -0,0 +1,65 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountCacheInvalidationListenerTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(CacheConfig.ACCOUNTS, CacheConfig.ACCOUNT_IDS_BY_NUMBER);
+    
+    private AccountCacheInvalidationListener listener;
+    private Cache accounts;
+    private Cache accountIds;
+    
+    @BeforeEach
+    void setUp() {
+        listener = new AccountCacheInvalidationListener(new DataSourceProperties(),
+                new CacheInvalidationProperties(), cacheManager, meterRegistry);
+        accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        accountIds = cacheManager.getCache(CacheConfig.ACCOUNT_IDS_BY_NUMBER);
+        accounts.put(1L, "account 1");
+        accounts.put(2L, "account 2");
+        accountIds.put("ACC1", 1L);
+    }
+    
+    @Test
+    void shouldEvictUpdatedAccountAndRecordLag() {
+        // When
+        listener.handle("1,1000", 1250);
+        
+        // Then
+        assertThat(accounts.get(1L)).isNull();
+        assertThat(accounts.get(2L)).isNotNull();
+        assertThat(accountIds.get("ACC1")).isNotNull();
+        assertThat(meterRegistry.get("banklite.cache.invalidations").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("banklite.cache.invalidation.lag").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(250);
+    }
+    
+    @Test
+    void shouldAlsoEvictAccountNumberOfDeletedAccount() {
+        listener.handle("1,1000,ACC1", 1000);
+        
+        assertThat(accounts.get(1L)).isNull();
+        assertThat(accountIds.get("ACC1")).isNull();
+    }
+    
+    @Test
+    void shouldIgnoreMalformedPayload() {
+        listener.handle("not-an-id", 1000);
+        
+        assertThat(accounts.get(1L)).isNotNull();
+        assertThat(meterRegistry.get("banklite.cache.invalidations").counter().count()).isZero();
+        assertThat(listener.isConnected()).isFalse();
+    }
+}
@@ -0,0 +1,180 @@
+package com.banklite.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final int CLIENTS = 48;
+    private static final int POOL_SIZE = 2;
+    private static final Duration QUERY_TIME = Duration.ofMillis(25);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void shouldRejectWithRetryAfterOnlyInTheFullBudget() throws Exception {
+        // Given a write budget of one, held by a request in progress
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.getWrites().setInitialLimit(1);
+        properties.getWrites().setMaxLimit(1);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, objectMapper, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> inProgress = CompletableFuture.supplyAsync(() ->
+            call(filter, "POST", (request, response) -> {
+                started.countDown();
+                await(finish);
+            }));
+        started.await();
+
+        // When
+        MockHttpServletResponse rejected = call(filter, "PUT", (request, response) -> { });
+        MockHttpServletResponse read = call(filter, "GET", (request, response) -> { });
+
+        // Then the second write is turned away at once, reads are not affected
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("\"status\":503", "\"path\":\"/api/v1/accounts/1\"");
+        assertThat(read.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("banklite.concurrency.rejected").tag("budget", "write").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("banklite.concurrency.in-flight").tag("budget", "write").gauge().value())
+            .isEqualTo(1);
+
+        finish.countDown();
+        assertThat(inProgress.get().getStatus()).isEqualTo(200);
+        assertThat(filter.writes().getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldKeepP99BoundedWhenTheRepositoryIsSlow() throws Exception {
+        // Given a "repository" behind a pool of two connections and 25ms per query,
+        // and far more concurrent clients than it can serve
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.getReads().setInitialLimit(20);
+        properties.getReads().setLatencyThreshold(Duration.ofMillis(100));
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, objectMapper, meterRegistry);
+
+        // When
+        Load unlimited = runLoad(null);
+        Load limited = runLoad(filter);
+
+        // Then without a limit every request queues behind all the others
+        assertThat(unlimited.p99()).isGreaterThan(Duration.ofMillis(400));
+        // With it, admitted requests stay close to the threshold and the rest fail fast
+        assertThat(limited.p99()).isLessThan(Duration.ofMillis(300));
+        assertThat(limited.rejected()).isPositive();
+        assertThat(filter.reads().getLimit()).isLessThan(20);
+        assertThat(meterRegistry.get("banklite.concurrency.limit").tag("budget", "read").gauge().value())
+            .isEqualTo(filter.reads().getLimit());
+    }
+
+    /**
+     * Runs the clients for two and a half seconds and returns the latencies of the
+     * requests that were served, ignoring the first second while the limit adapts.
+     */
+    private Load runLoad(ConcurrencyLimitFilter filter) throws InterruptedException {
+        Semaphore pool = new Semaphore(POOL_SIZE, true);
+        FilterChain repository = (request, response) -> {
+            pool.acquireUninterruptibly();
+            try {
+                Thread.sleep(QUERY_TIME.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.release();
+            }
+        };
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(1500);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    int status = filter == null
+                        ? call(repository)
+                        : call(filter, "GET", repository).getStatus();
+                    if (status == 503) {
+                        rejected.incrementAndGet();
+                        sleep(Duration.ofMillis(5));
+                    } else if (start >= measureFrom) {
+                        latencies.add(System.nanoTime() - start);
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        assertThat(clients.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        return new Load(new ArrayList<>(latencies), rejected.get());
+    }
+
+    private static int call(FilterChain chain) {
+        try {
+            chain.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return 200;
+    }
+
+    private static MockHttpServletResponse call(ConcurrencyLimitFilter filter, String method, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/accounts/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Load(List<Long> latencies, int rejected) {
+
+        Duration p99() {
+            List<Long> sorted = latencies.stream().sorted().toList();
+            assertThat(sorted).isNotEmpty();
+            return Duration.ofNanos(sorted.get((int) (sorted.size() * 0.99)));
+        }
+    }
+}
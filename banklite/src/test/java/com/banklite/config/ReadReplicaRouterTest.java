@@ -0,0 +1,162 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadReplicaRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource primary = database("primary");
+
+    private ReadReplicaRouter router;
+    private DataSource readOnly;
+
+    @BeforeEach
+    void setUp() {
+        database("replica-1");
+        database("replica-2");
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setLagQuery("SELECT seconds FROM lag");
+        properties.setReplicas(List.of(replica("replica-1"), replica("replica-2")));
+        router = new ReadReplicaRouter(properties, meterRegistry);
+        readOnly = router.readOnlyDataSource(primary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.stop();
+    }
+
+    @Test
+    void shouldUsePrimaryUntilReplicasHaveBeenChecked() {
+        assertThat(serve(2)).containsExactly("primary", "primary");
+    }
+
+    @Test
+    void shouldSpreadReadsOverReplicasThatAreCaughtUp() {
+        // When
+        router.checkLag();
+
+        // Then
+        assertThat(serve(4)).containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+        assertThat(meterRegistry.get("banklite.datasource.reads").tag("target", "replica-1").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldSkipLaggingReplicaAndFallBackToPrimaryWhenAllLag() {
+        // Given
+        setLag("replica-1", 5);
+        router.checkLag();
+
+        // Then
+        assertThat(serve(2)).containsExactly("replica-2", "replica-2");
+        assertThat(meterRegistry.get("banklite.datasource.replica.available").tag("replica", "replica-1")
+                .gauge().value()).isZero();
+
+        // When the other one falls behind as well
+        setLag("replica-2", 1.5);
+        router.checkLag();
+
+        // Then
+        assertThat(serve(1)).containsExactly("primary");
+        assertThat(meterRegistry.get("banklite.datasource.replica.lag").tag("replica", "replica-2")
+                .gauge().value()).isEqualTo(1.5);
+
+        // When it catches up
+        setLag("replica-2", 0.2);
+        router.checkLag();
+
+        // Then
+        assertThat(serve(1)).containsExactly("replica-2");
+    }
+
+    @Test
+    void shouldRouteOnlyReadOnlyTransactionsToReplicas() {
+        // Given the wiring of ReadReplicaConfig
+        router.checkLag();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnlyTransaction.setReadOnly(true);
+
+        // When / Then
+        String readOnlyServedBy = readOnlyTransaction.execute(status -> whoAmI(jdbcTemplate));
+        String readWriteServedBy = readWrite.execute(status -> whoAmI(jdbcTemplate));
+        assertThat(readOnlyServedBy).isEqualTo("replica-1");
+        assertThat(readWriteServedBy).isEqualTo("primary");
+        assertThat(whoAmI(jdbcTemplate)).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldRefuseReplicaWhoseUrlWasNotResolved() {
+        // Given a replica host left to an environment variable that is not set
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        ReadReplicaProperties.Replica replica = replica("replica-3");
+        replica.setUrl("jdbc:postgresql://${DB_REPLICA_3_HOST}:5432/banklite");
+        properties.setReplicas(List.of(replica));
+
+        // When / Then
+        assertThatThrownBy(() -> new ReadReplicaRouter(properties, meterRegistry))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("replica-3");
+    }
+
+    private List<String> serve(int reads) {
+        List<String> servedBy = new ArrayList<>();
+        for (int i = 0; i < reads; i++) {
+            servedBy.add(whoAmI(new JdbcTemplate(readOnly)));
+        }
+        return servedBy;
+    }
+
+    private static String whoAmI(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static void setLag(String name, double seconds) {
+        new JdbcTemplate(database(name)).update("UPDATE lag SET seconds = ?", seconds);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(name), "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS lag (seconds DOUBLE PRECISION)");
+        jdbcTemplate.execute("DELETE FROM whoami");
+        jdbcTemplate.execute("DELETE FROM lag");
+        jdbcTemplate.update("INSERT INTO whoami VALUES (?)", name);
+        jdbcTemplate.update("INSERT INTO lag VALUES (0)");
+        return dataSource;
+    }
+
+    private static ReadReplicaProperties.Replica replica(String name) {
+        ReadReplicaProperties.Replica replica = new ReadReplicaProperties.Replica();
+        replica.setName(name);
+        replica.setUrl(url(name));
+        replica.setUsername("sa");
+        replica.setPassword("");
+        replica.setMaximumPoolSize(2);
+        return replica;
+    }
+
+    private static String url(String name) {
+        return "jdbc:h2:mem:router-" + name + ";DB_CLOSE_DELAY=-1";
+    }
+}
@@ -0,0 +1,170 @@
+package com.banklite.config;
+
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the wiring of {@link ReadReplicaConfig} end to end, against a
+ * PostgreSQL primary and a hot standby streaming from it, set up as in
+ * docker-compose.replica.yml.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("postgres")
+@TestPropertySource(properties = "banklite.read-replicas.lag-check-interval=50ms")
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:15")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withDatabaseName("banklite")
+            .withUsername("banklite_user")
+            .withPassword("banklite_password")
+            .withCopyFileToContainer(MountableFile.forHostPath("init-replication.sh"),
+                    "/docker-entrypoint-initdb.d/init-replication.sh")
+            .withCopyFileToContainer(MountableFile.forHostPath("init-db.sql"),
+                    "/docker-entrypoint-initdb.d/init-db.sql");
+
+    // Clones the primary, then follows it as a read-only hot standby
+    @Container
+    static final GenericContainer<?> REPLICA = new GenericContainer<>("postgres:15")
+            .withNetwork(NETWORK)
+            .dependsOn(PRIMARY)
+            .withEnv("PGPASSWORD", "replicator_password")
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+            .withCommand("bash", "-c",
+                    "until pg_basebackup -h primary -U replicator -D \"$PGDATA\" -R -X stream; do sleep 1; done; "
+                            + "chmod 0700 \"$PGDATA\"; exec postgres")
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\n", 1));
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + PRIMARY.getHost() + ":"
+                + PRIMARY.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/banklite");
+        registry.add("banklite.read-replicas.enabled", () -> "true");
+        // Replaces the profile's replica list as a whole, so every field is given
+        registry.add("banklite.read-replicas.replicas[0].name", () -> "replica-1");
+        registry.add("banklite.read-replicas.replicas[0].url", ReadReplicaRoutingIntegrationTest::replicaUrl);
+        registry.add("banklite.read-replicas.replicas[0].username", PRIMARY::getUsername);
+        registry.add("banklite.read-replicas.replicas[0].password", PRIMARY::getPassword);
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldServeReadOnlyTransactionsFromReplicaAndWritesFromPrimary() throws Exception {
+        // Given
+        awaitReplicaAvailable();
+        double before = replicaReads();
+
+        // When
+        AccountRequest request = new AccountRequest();
+        request.setAccountHolderName("Replica Reader");
+        request.setBalance(new BigDecimal("10.00"));
+        request.setCurrency(Currency.EUR);
+        Long id = accountService.createAccount(request).getId();
+
+        // Then the write stayed on the primary and reached the replica by streaming replication
+        assertThat(replicaReads()).isEqualTo(before);
+        awaitReplicated(id);
+
+        // When
+        accountService.getAccounts(null, 10);
+        accountService.getAccount(id);
+
+        // Then both reads were served by the replica
+        assertThat(replicaReads()).isEqualTo(before + 2);
+
+        // And only read-only transactions ever reach the standby
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Boolean readOnlyOnStandby = readOnly.execute(status -> inRecovery());
+        Boolean readWriteOnStandby = readWrite.execute(status -> inRecovery());
+        assertThat(readOnlyOnStandby).isTrue();
+        assertThat(readWriteOnStandby).isFalse();
+    }
+
+    private Boolean inRecovery() {
+        return jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class);
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get("banklite.datasource.reads").tag("target", "replica-1").counter().count();
+    }
+
+    private void awaitReplicaAvailable() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (meterRegistry.get("banklite.datasource.replica.available").gauge().value() == 1) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Replica never became available");
+    }
+
+    private static void awaitReplicated(Long id) throws SQLException, InterruptedException {
+        try (Connection connection = DriverManager.getConnection(replicaUrl(),
+                PRIMARY.getUsername(), PRIMARY.getPassword());
+             PreparedStatement select = connection.prepareStatement("SELECT 1 FROM accounts WHERE id = ?")) {
+            select.setLong(1, id);
+            for (int i = 0; i < 200; i++) {
+                try (ResultSet resultSet = select.executeQuery()) {
+                    if (resultSet.next()) {
+                        return;
+                    }
+                }
+                Thread.sleep(50);
+            }
+        }
+        throw new AssertionError("Account " + id + " never reached the replica");
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + REPLICA.getHost() + ":"
+                + REPLICA.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/banklite";
+    }
+}
@@ -0,0 +1,114 @@
+package com.banklite.config;
+
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.service.AccountService;
+import com.banklite.service.CurrencyStatsService;
+import com.banklite.service.IdempotencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceTimingInterceptorTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private FakeService service;
+    
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        ProxyFactory proxyFactory = new ProxyFactory(new FakeService());
+        proxyFactory.addAdvice(new ServiceTimingInterceptor(beanFactory.getBeanProvider(MeterRegistry.class)));
+        proxyFactory.setProxyTargetClass(true);
+        service = (FakeService) proxyFactory.getProxy();
+    }
+    
+    @Test
+    void shouldTagSuccessWithCurrencyOfResultOrRequest() {
+        // When
+        service.find(Currency.EUR);
+        service.find(Currency.EUR);
+        service.create(new AccountRequest("Jane", BigDecimal.ONE, Currency.GBP));
+        service.ping();
+        
+        // Then
+        assertThat(timer("FakeService.find", "EUR", "success", ServiceTimingInterceptor.NONE).count()).isEqualTo(2);
+        assertThat(timer("FakeService.create", "GBP", "success", ServiceTimingInterceptor.NONE).count()).isEqualTo(1);
+        assertThat(timer("FakeService.ping", ServiceTimingInterceptor.NONE, "success", ServiceTimingInterceptor.NONE)
+            .count()).isEqualTo(1);
+    }
+    
+    @Test
+    void shouldTagFailureWithExceptionType() {
+        assertThatThrownBy(() -> service.withdraw(new AccountRequest("Jane", BigDecimal.ONE, Currency.USD)))
+            .isInstanceOf(InsufficientFundsException.class);
+        
+        assertThat(timer("FakeService.withdraw", "USD", "error", "InsufficientFundsException").count()).isEqualTo(1);
+    }
+    
+    @Test
+    void shouldOnlyAdviseOperationsTheControllersCall() {
+        // Given
+        Pointcut pointcut = ((PointcutAdvisor) ServiceMetricsConfig.serviceTimingAdvisor(
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class))).getPointcut();
+        
+        // Then nested services are part of the operation's time, and would be counted twice
+        assertThat(advises(pointcut, AccountService.class, "getAccount")).isTrue();
+        assertThat(advises(pointcut, CurrencyStatsService.class, "apply")).isFalse();
+        assertThat(advises(pointcut, IdempotencyService.class, "execute")).isFalse();
+    }
+    
+    private static boolean advises(Pointcut pointcut, Class<?> service, String name) {
+        Method method = Arrays.stream(service.getMethods())
+            .filter(candidate -> candidate.getName().equals(name))
+            .findFirst()
+            .orElseThrow();
+        return pointcut.getClassFilter().matches(service) && pointcut.getMethodMatcher().matches(method, service);
+    }
+    
+    private Timer timer(String operation, String currency, String outcome, String exception) {
+        return meterRegistry.get(ServiceTimingInterceptor.METRIC)
+            .tag("operation", operation)
+            .tag("currency", currency)
+            .tag("outcome", outcome)
+            .tag("exception", exception)
+            .timer();
+    }
+    
+    static class FakeService {
+        
+        public AccountResponse find(Currency currency) {
+            AccountResponse response = new AccountResponse();
+            response.setCurrency(currency);
+            return response;
+        }
+        
+        public AccountResponse create(AccountRequest request) {
+            return new AccountResponse();
+        }
+        
+        public AccountResponse withdraw(AccountRequest request) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+        
+        public void ping() {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlTelemetryListenerTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SqlTelemetryListener listener;
+    
+    @AfterEach
+    void tearDown() {
+        listener.destroy();
+    }
+    
+    @Test
+    void shouldTimeStatementsByTypeBatchAndOutcome() {
+        // Given
+        listener = new SqlTelemetryListener(new SqlTelemetryProperties(), meterRegistry);
+        
+        // When
+        execute("select a1_0.id from accounts a1_0 where a1_0.id=?", true, false);
+        execute("  insert into accounts (id) values (?)", true, true);
+        execute("UPDATE accounts SET balance = balance + ? WHERE id = ?", false, false);
+        execute("with t as (select 1) select * from t", true, false);
+        
+        // Then
+        assertThat(timerCount("select", "false", "success")).isEqualTo(2);
+        assertThat(timerCount("insert", "true", "success")).isEqualTo(1);
+        assertThat(timerCount("update", "false", "error")).isEqualTo(1);
+        assertThat(meterRegistry.get("banklite.sql.slow_queries").counters())
+            .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+    
+    @Test
+    void shouldCountStatementsOverTheSlowQueryThreshold() {
+        // Given every statement counts as slow
+        SqlTelemetryProperties properties = new SqlTelemetryProperties();
+        properties.setSlowQueryThreshold(Duration.ZERO);
+        listener = new SqlTelemetryListener(properties, meterRegistry);
+        
+        // When
+        execute("delete from accounts where id=?", true, false);
+        execute("alter sequence accounts_id_seq increment by 50", true, false);
+        
+        // Then
+        assertThat(meterRegistry.get("banklite.sql.slow_queries").tag("type", "delete").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("banklite.sql.slow_queries").tag("type", "other").counter().count()).isEqualTo(1);
+    }
+    
+    private void execute(String sql, boolean success, boolean batch) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setSuccess(success);
+        executionInfo.setBatch(batch);
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        listener.beforeQuery(executionInfo, queries);
+        listener.afterQuery(executionInfo, queries);
+    }
+    
+    private long timerCount(String type, String batch, String outcome) {
+        return meterRegistry.get("banklite.sql.queries")
+            .tag("type", type)
+            .tag("batch", batch)
+            .tag("outcome", outcome)
+            .timer()
+            .count();
+    }
+}
@@ -0,0 +1,73 @@
+package com.banklite.config;
+
+import com.banklite.controller.AccountController;
+import com.banklite.service.ApplicationStatusService;
+import com.banklite.service.OutboxRelay;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Starts the application lazily, as the fast-startup profile does, and checks
+ * that only framework extras are deferred.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:lazydb",
+    "spring.main.lazy-initialization=true",
+    "banklite.outbox.enabled=true",
+    "banklite.outbox.file.path=target/lazy-test/account-events.ndjson"
+})
+class StartupConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldCreateApplicationBeansEagerlyAndOpenApiOnFirstUse() throws Exception {
+        // Then BankLite's background workers and request path are up
+        assertThat(beanFactory.getBeanNamesForType(OutboxRelay.class, true, false))
+            .isNotEmpty()
+            .allMatch(beanFactory::containsSingleton);
+        assertThat(beanFactory.getBeanNamesForType(ApplicationStatusService.class, true, false))
+            .isNotEmpty()
+            .allMatch(beanFactory::containsSingleton);
+        assertThat(beanFactory.getBeanNamesForType(AccountController.class, true, false))
+            .isNotEmpty()
+            .allMatch(beanFactory::containsSingleton);
+
+        // And the OpenAPI description has not been built yet
+        assertThat(beanFactory.getBeanNamesForType(OpenAPI.class, true, false))
+            .isNotEmpty()
+            .noneMatch(beanFactory::containsSingleton);
+        assertThat(beanFactory.containsSingleton("openApiConfig")).isFalse();
+
+        // Until the api docs are first requested
+        mockMvc.perform(get("/v3/api-docs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.info.title").exists());
+        assertThat(beanFactory.containsSingleton("openApiConfig")).isTrue();
+    }
+
+    @Test
+    void shouldOnlyKeepApplicationPackagesEager() {
+        assertThat(StartupConfig.isEager(AccountController.class)).isTrue();
+        assertThat(StartupConfig.isEager(OpenApiConfig.class)).isFalse();
+        assertThat(StartupConfig.isEager(OpenAPI.class)).isFalse();
+        assertThat(StartupConfig.isEager(String.class)).isFalse();
+    }
+}
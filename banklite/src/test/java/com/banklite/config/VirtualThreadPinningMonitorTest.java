@@ -0,0 +1,48 @@
+package com.banklite.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// JDK 24+ no longer pins virtual threads inside synchronized blocks
+@EnabledForJreRange(max = JRE.JAVA_23)
+class VirtualThreadPinningMonitorTest {
+    
+    private final Object lock = new Object();
+    
+    @Test
+    void shouldCountVirtualThreadsThatBlockWhilePinned() throws Exception {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+        
+        try {
+            // When a virtual thread sleeps while holding a monitor
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+            
+            // Then the pin is counted once JFR delivers the event
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (meterRegistry.get("banklite.virtual_threads.pinned").counter().count() == 0
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertThat(meterRegistry.get("banklite.virtual_threads.pinned").counter().count()).isPositive();
+        } finally {
+            monitor.stop();
+        }
+    }
+}
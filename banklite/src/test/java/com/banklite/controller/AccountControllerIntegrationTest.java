@@ -1,30 +1,84 @@
 package com.banklite.controller;
 
+import com.banklite.config.CacheConfig;
 import com.banklite.model.Currency;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.AccountPageResponse;
 import com.banklite.model.dto.AccountRequest;
 import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.ApplicationStatusResponse;
+import com.banklite.model.dto.AmountRequest;
+import com.banklite.model.dto.BatchCreateResponse;
+import com.banklite.model.dto.BatchUpdateRequest;
+import com.banklite.model.dto.BatchUpdateResponse;
+import com.banklite.model.dto.CurrencyStatsResponse;
+import com.banklite.model.dto.LedgerBalanceResponse;
+import com.banklite.model.dto.PatchOperation;
+import com.banklite.model.dto.TransactionPageResponse;
+import com.banklite.model.dto.TransactionResponse;
+import com.banklite.model.dto.TransferRequest;
+import com.banklite.model.dto.TransferResponse;
+import com.banklite.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.context.TestPropertySource;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// Publishes to Prometheus as in production; Spring Boot tests otherwise keep metrics in memory only
+@AutoConfigureObservability(tracing = false)
 @TestPropertySource(properties = {
     "spring.datasource.url=jdbc:h2:mem:testdb",
-    "spring.jpa.hibernate.ddl-auto=create-drop"
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "banklite.ledger.snapshot-interval=3"
 })
 class AccountControllerIntegrationTest {
     
     @Autowired
     private TestRestTemplate restTemplate;
     
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @LocalServerPort
+    private int port;
+    
     @Test
     void shouldCreateAndGetAccount() {
         // Create account
@@ -55,21 +109,109 @@ class AccountControllerIntegrationTest {
     }
     
     @Test
-    void shouldGetAllAccounts() {
-        // Create two accounts
-        AccountRequest request1 = createAccountRequest("Alice Smith", "500.00", Currency.EUR);
-        AccountRequest request2 = createAccountRequest("Bob Johnson", "750.00", Currency.GBP);
+    void shouldPageThroughAccounts() {
+        // Create three accounts
+        restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Alice Smith", "500.00", Currency.EUR), AccountResponse.class);
+        restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Bob Johnson", "750.00", Currency.GBP), AccountResponse.class);
+        restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Carol White", "250.00", Currency.USD), AccountResponse.class);
+        
+        // Walk every page, two accounts at a time
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        do {
+            String url = "/api/v1/accounts?size=2" + (cursor == null ? "" : "&after=" + cursor);
+            ResponseEntity<AccountPageResponse> response = restTemplate.getForEntity(url, AccountPageResponse.class);
+            
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().getContent()).hasSizeLessThanOrEqualTo(2);
+            response.getBody().getContent().forEach(account -> seen.add(account.getId()));
+            cursor = response.getBody().getNextCursor();
+        } while (cursor != null);
         
-        restTemplate.postForEntity("/api/v1/accounts", request1, AccountResponse.class);
-        restTemplate.postForEntity("/api/v1/accounts", request2, AccountResponse.class);
+        assertThat(seen).hasSizeGreaterThanOrEqualTo(3).isSorted().doesNotHaveDuplicates();
+    }
+    
+    @Test
+    void shouldExportAccountsAsNdjson() {
+        restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Export Me", "42.00", Currency.USD), AccountResponse.class);
         
-        // Get all accounts
-        ResponseEntity<AccountResponse[]> response = restTemplate.getForEntity(
-            "/api/v1/accounts", AccountResponse[].class);
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/accounts/export", String.class);
         
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().length).isGreaterThanOrEqualTo(2);
+        String[] lines = response.getBody().split("\n");
+        assertThat(lines).isNotEmpty().allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(response.getBody()).contains("\"accountHolderName\":\"Export Me\"");
+    }
+    
+    @Test
+    void shouldExchangeAccountsAsCbor() throws IOException {
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_CBOR);
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        byte[] request = cbor.writeValueAsBytes(createAccountRequest("Cbor Holder", "12.34", Currency.GBP));
+        
+        ResponseEntity<byte[]> created = restTemplate.exchange(
+            "/api/v1/accounts", HttpMethod.POST, new HttpEntity<>(request, headers), byte[].class);
+        
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(created.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        AccountResponse account = cbor.readValue(created.getBody(), AccountResponse.class);
+        assertThat(account.getAccountHolderName()).isEqualTo("Cbor Holder");
+        assertThat(account.getBalance()).isEqualByComparingTo("12.34");
+        assertThat(account.getCreatedAt()).isNotNull();
+        String json = restTemplate.getForObject("/api/v1/accounts/" + account.getId(), String.class);
+        assertThat(created.getBody().length).isLessThan(json.getBytes(StandardCharsets.UTF_8).length);
+        
+        // The export streams the same maps back to back
+        HttpHeaders sequence = new HttpHeaders();
+        sequence.setAccept(List.of(MediaType.parseMediaType("application/cbor-seq")));
+        ResponseEntity<byte[]> export = restTemplate.exchange(
+            "/api/v1/accounts/export", HttpMethod.GET, new HttpEntity<>(sequence), byte[].class);
+        assertThat(export.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("application/cbor-seq"));
+        try (MappingIterator<AccountResponse> exported =
+                     cbor.readerFor(AccountResponse.class).readValues(export.getBody())) {
+            assertThat(exported.readAll())
+                .extracting(AccountResponse::getId)
+                .contains(account.getId())
+                .isSorted();
+        }
+    }
+    
+    @Test
+    void shouldGzipLargeAccountPages() throws IOException, InterruptedException {
+        List<AccountRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            requests.add(createAccountRequest("Compressed " + i, "10.00", Currency.USD));
+        }
+        restTemplate.postForEntity("/api/v1/accounts/batch", requests, BatchCreateResponse.class);
+        // TestRestTemplate's client decompresses transparently and drops Content-Encoding,
+        // so the raw JDK client is used to see the response exactly as it went over the wire
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/accounts?size=40"))
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+            .GET()
+            .build();
+        
+        HttpResponse<byte[]> page;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            page = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+        
+        assertThat(page.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(page.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(page.body()))) {
+            byte[] json = body.readAllBytes();
+            assertThat(json.length).isGreaterThan(page.body().length * 2);
+            assertThat(new String(json, StandardCharsets.UTF_8)).startsWith("{").contains("\"accountHolderName\"");
+        }
     }
     
     @Test
@@ -95,6 +237,89 @@ class AccountControllerIntegrationTest {
         assertThat(getResponse.getBody().getCurrency()).isEqualTo(Currency.EUR);
     }
     
+    @Test
+    void shouldAnswerConditionalRequestsFromTheAccountVersion() {
+        AccountResponse created = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Conditional Reader", "100.00", Currency.USD), AccountResponse.class).getBody();
+        String url = "/api/v1/accounts/" + created.getId();
+        String etag = restTemplate.getForEntity(url, AccountResponse.class).getHeaders().getETag();
+        assertThat(etag).isEqualTo("\"" + created.getId() + "-" + created.getVersion() + "\"");
+        
+        // Unchanged: 304 without a body
+        HttpHeaders ifNoneMatch = new HttpHeaders();
+        ifNoneMatch.setIfNoneMatch(etag);
+        ResponseEntity<String> notModified = restTemplate.exchange(
+            url, HttpMethod.GET, new HttpEntity<>(ifNoneMatch), String.class);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(notModified.getBody()).isNull();
+        
+        // A deposit raises the version, so the same request now gets the account
+        restTemplate.postForEntity(url + "/deposit", new AmountRequest(new BigDecimal("5.00")), AccountResponse.class);
+        ResponseEntity<AccountResponse> changed = restTemplate.exchange(
+            url, HttpMethod.GET, new HttpEntity<>(ifNoneMatch), AccountResponse.class);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getBody().getBalance()).isEqualByComparingTo("105.00");
+        String current = changed.getHeaders().getETag();
+        assertThat(current).isNotEqualTo(etag);
+        
+        // An update based on the old copy is refused and changes nothing
+        HttpHeaders stale = new HttpHeaders();
+        stale.setIfMatch(etag);
+        ResponseEntity<String> refused = restTemplate.exchange(url, HttpMethod.PUT,
+            new HttpEntity<>(createAccountRequest("Lost Update", "0.00", Currency.USD), stale), String.class);
+        assertThat(refused.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        
+        // One based on the current copy applies and returns the next ETag
+        HttpHeaders fresh = new HttpHeaders();
+        fresh.setIfMatch(current);
+        ResponseEntity<AccountResponse> updated = restTemplate.exchange(url, HttpMethod.PUT,
+            new HttpEntity<>(createAccountRequest("Conditional Writer", "105.00", Currency.USD), fresh),
+            AccountResponse.class);
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag())
+            .isEqualTo("\"" + created.getId() + "-" + updated.getBody().getVersion() + "\"")
+            .isNotEqualTo(current);
+        assertThat(restTemplate.getForEntity(url, AccountResponse.class).getBody())
+            .extracting(AccountResponse::getAccountHolderName, AccountResponse::getBalance)
+            .containsExactly("Conditional Writer", new BigDecimal("105.00"));
+        
+        // A patch based on the old copy is refused as well
+        HttpHeaders stalePatch = new HttpHeaders();
+        stalePatch.setContentType(MediaType.parseMediaType("application/json-patch+json"));
+        stalePatch.setIfMatch(current);
+        List<PatchOperation> rename = List.of(
+            new PatchOperation("replace", "/accountHolderName", JsonNodeFactory.instance.textNode("Lost Patch")));
+        ResponseEntity<String> refusedPatch = restTemplate.exchange(url, HttpMethod.PATCH,
+            new HttpEntity<>(rename, stalePatch), String.class);
+        assertThat(refusedPatch.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(restTemplate.getForEntity(url, AccountResponse.class).getBody().getAccountHolderName())
+            .isEqualTo("Conditional Writer");
+    }
+    
+    @Test
+    void shouldNotAnswerFailedRevalidationFromStaleCache() {
+        // Given a cached copy older than the row, as left by a missed invalidation from another replica
+        AccountResponse created = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Stale Cache", "100.00", Currency.USD), AccountResponse.class).getBody();
+        String url = "/api/v1/accounts/" + created.getId();
+        AccountResponse deposited = restTemplate.postForEntity(url + "/deposit",
+            new AmountRequest(new BigDecimal("5.00")), AccountResponse.class).getBody();
+        cacheManager.getCache(CacheConfig.ACCOUNTS).put(created.getId(), created);
+        
+        // When the client revalidates its copy of the old version
+        HttpHeaders ifNoneMatch = new HttpHeaders();
+        ifNoneMatch.setIfNoneMatch("\"" + created.getId() + "-" + created.getVersion() + "\"");
+        ResponseEntity<AccountResponse> response = restTemplate.exchange(
+            url, HttpMethod.GET, new HttpEntity<>(ifNoneMatch), AccountResponse.class);
+        
+        // Then it gets the current account and ETag, not the cached copy
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getBalance()).isEqualByComparingTo("105.00");
+        assertThat(response.getHeaders().getETag())
+            .isEqualTo("\"" + created.getId() + "-" + deposited.getVersion() + "\"");
+    }
+    
     @Test
     void shouldDeleteAccount() {
         // Create account
@@ -122,6 +347,408 @@ class AccountControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
     
+    @Test
+    void shouldDepositWithdrawAndRejectOverdraft() {
+        AccountRequest request = createAccountRequest("Saver", "100.00", Currency.USD);
+        Long accountId = restTemplate.postForEntity(
+            "/api/v1/accounts", request, AccountResponse.class).getBody().getId();
+        
+        ResponseEntity<AccountResponse> deposit = restTemplate.postForEntity(
+            "/api/v1/accounts/" + accountId + "/deposit", new AmountRequest(new BigDecimal("50.00")), AccountResponse.class);
+        assertThat(deposit.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(deposit.getBody().getBalance()).isEqualByComparingTo("150.00");
+        
+        ResponseEntity<AccountResponse> withdraw = restTemplate.postForEntity(
+            "/api/v1/accounts/" + accountId + "/withdraw", new AmountRequest(new BigDecimal("120.00")), AccountResponse.class);
+        assertThat(withdraw.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(withdraw.getBody().getBalance()).isEqualByComparingTo("30.00");
+        
+        ResponseEntity<String> overdraft = restTemplate.postForEntity(
+            "/api/v1/accounts/" + accountId + "/withdraw", new AmountRequest(new BigDecimal("30.01")), String.class);
+        assertThat(overdraft.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    
+    @Test
+    void shouldTransferBetweenAccounts() {
+        Long fromId = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Payer", "500.00", Currency.GBP), AccountResponse.class).getBody().getId();
+        Long toId = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Payee", "10.00", Currency.GBP), AccountResponse.class).getBody().getId();
+        
+        ResponseEntity<TransferResponse> response = restTemplate.postForEntity("/api/v1/accounts/transfer",
+            new TransferRequest(fromId, toId, new BigDecimal("125.50")), TransferResponse.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getFromAccount().getBalance()).isEqualByComparingTo("374.50");
+        assertThat(response.getBody().getToAccount().getBalance()).isEqualByComparingTo("135.50");
+    }
+    
+    @Test
+    void shouldCreateAccountsInBatch() {
+        List<AccountRequest> requests = List.of(
+            createAccountRequest("Batch One", "10.00", Currency.USD),
+            createAccountRequest("", "10.00", Currency.USD),
+            createAccountRequest("Batch Three", "30.00", Currency.GBP));
+        
+        ResponseEntity<BatchCreateResponse> response = restTemplate.postForEntity(
+            "/api/v1/accounts/batch", requests, BatchCreateResponse.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(2);
+        assertThat(response.getBody().getRejected()).isEqualTo(1);
+        Long createdId = response.getBody().getResults().get(2).getAccount().getId();
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + createdId, AccountResponse.class)
+            .getBody().getAccountHolderName()).isEqualTo("Batch Three");
+    }
+    
+    @Test
+    void shouldCreateAccountsFromNdjsonStream() {
+        String body = """
+            {"accountHolderName":"Stream One","balance":1.00,"currency":"USD"}
+            {"accountHolderName":"Stream Two","balance":2.00,"currency":"EUR"}
+            """;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        
+        ResponseEntity<BatchCreateResponse> response = restTemplate.postForEntity(
+            "/api/v1/accounts/batch", new HttpEntity<>(body, headers), BatchCreateResponse.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getCreated()).isEqualTo(2);
+    }
+    
+    @Test
+    void shouldServeRepeatReadsFromCacheAndInvalidateOnWrite() {
+        AccountRequest request = createAccountRequest("Cached Reader", "80.00", Currency.EUR);
+        AccountResponse created = restTemplate.postForEntity(
+            "/api/v1/accounts", request, AccountResponse.class).getBody();
+        double hitsBefore = cacheHits();
+        
+        // Read twice by id and once by number; the later reads are hits
+        restTemplate.getForEntity("/api/v1/accounts/" + created.getId(), AccountResponse.class);
+        restTemplate.getForEntity("/api/v1/accounts/" + created.getId(), AccountResponse.class);
+        ResponseEntity<AccountResponse> byNumber = restTemplate.getForEntity(
+            "/api/v1/accounts/number/" + created.getAccountNumber(), AccountResponse.class);
+        assertThat(byNumber.getBody().getId()).isEqualTo(created.getId());
+        assertThat(cacheHits()).isGreaterThanOrEqualTo(hitsBefore + 2);
+        
+        // A write must not leave a stale entry behind
+        restTemplate.postForEntity("/api/v1/accounts/" + created.getId() + "/deposit",
+            new AmountRequest(new BigDecimal("20.00")), AccountResponse.class);
+        ResponseEntity<AccountResponse> afterWrite = restTemplate.getForEntity(
+            "/api/v1/accounts/" + created.getId(), AccountResponse.class);
+        assertThat(afterWrite.getBody().getBalance()).isEqualByComparingTo("100.00");
+    }
+    
+    @Test
+    void shouldSearchAccountsByHolderName() {
+        List<Long> ids = new ArrayList<>();
+        for (String name : List.of("Quentin Zarkov", "Zarkova Quinn", "Ms Zarkovic", "Unrelated Person")) {
+            ids.add(restTemplate.postForEntity("/api/v1/accounts",
+                createAccountRequest(name, "1.00", Currency.USD), AccountResponse.class).getBody().getId());
+        }
+        
+        // Case-insensitive substring match, paged in id order
+        AccountPageResponse first = restTemplate.getForEntity(
+            "/api/v1/accounts/search?q=ZARKOV&size=2", AccountPageResponse.class).getBody();
+        assertThat(first.getContent()).extracting(AccountResponse::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(first.isHasNext()).isTrue();
+        AccountPageResponse second = restTemplate.getForEntity(
+            "/api/v1/accounts/search?q=ZARKOV&size=2&after=" + first.getNextCursor(), AccountPageResponse.class).getBody();
+        assertThat(second.getContent()).extracting(AccountResponse::getId).containsExactly(ids.get(2));
+        assertThat(second.isHasNext()).isFalse();
+        
+        // Renames and deletes are reflected
+        restTemplate.put("/api/v1/accounts/" + ids.get(0), createAccountRequest("Quentin Smith", "1.00", Currency.USD));
+        restTemplate.delete("/api/v1/accounts/" + ids.get(2));
+        AccountPageResponse after = restTemplate.getForEntity(
+            "/api/v1/accounts/search?q=zarkov", AccountPageResponse.class).getBody();
+        assertThat(after.getContent()).extracting(AccountResponse::getId).containsExactly(ids.get(1));
+    }
+    
+    @Test
+    void shouldJournalEveryBalanceChange() {
+        Long payerId = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Ledger Payer", "100.00", Currency.USD), AccountResponse.class).getBody().getId();
+        Long payeeId = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Ledger Payee", "0.00", Currency.USD), AccountResponse.class).getBody().getId();
+        
+        for (int i = 0; i < 4; i++) {
+            restTemplate.postForEntity("/api/v1/accounts/" + payerId + "/deposit",
+                new AmountRequest(new BigDecimal("10.00")), AccountResponse.class);
+        }
+        restTemplate.postForEntity("/api/v1/accounts/" + payerId + "/withdraw",
+            new AmountRequest(new BigDecimal("25.00")), AccountResponse.class);
+        restTemplate.postForEntity("/api/v1/accounts/transfer",
+            new TransferRequest(payerId, payeeId, new BigDecimal("30.00")), TransferResponse.class);
+        
+        // Walk the history newest first, two entries at a time
+        List<TransactionResponse> history = new ArrayList<>();
+        Long cursor = null;
+        do {
+            String url = "/api/v1/accounts/" + payerId + "/transactions?size=2" + (cursor == null ? "" : "&before=" + cursor);
+            TransactionPageResponse page = restTemplate.getForEntity(url, TransactionPageResponse.class).getBody();
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(2);
+            history.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        assertThat(history).extracting(TransactionResponse::getEntryNo).containsExactly(7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(history).extracting(TransactionResponse::getType).containsExactly(
+            TransactionType.TRANSFER_OUT, TransactionType.WITHDRAWAL, TransactionType.DEPOSIT, TransactionType.DEPOSIT,
+            TransactionType.DEPOSIT, TransactionType.DEPOSIT, TransactionType.OPENING);
+        assertThat(history.get(0).getAmount()).isEqualByComparingTo("-30.00");
+        assertThat(history.get(0).getCounterpartyAccountId()).isEqualTo(payeeId);
+        
+        // The ledger balance is the entry-6 snapshot plus entry 7, and agrees with the account
+        LedgerBalanceResponse ledger = restTemplate.getForEntity(
+            "/api/v1/accounts/" + payerId + "/ledger-balance", LedgerBalanceResponse.class).getBody();
+        assertThat(ledger.getSnapshotEntryNo()).isEqualTo(6L);
+        assertThat(ledger.getAsOfEntryNo()).isEqualTo(7L);
+        assertThat(ledger.getBalance()).isEqualByComparingTo("85.00");
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + payerId, AccountResponse.class)
+            .getBody().getBalance()).isEqualByComparingTo("85.00");
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + payeeId + "/ledger-balance",
+            LedgerBalanceResponse.class).getBody().getBalance()).isEqualByComparingTo("30.00");
+        
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/99999/transactions", String.class).getStatusCode())
+            .isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+    
+    @Test
+    void shouldReplayRetriesWithTheSameIdempotencyKey() {
+        String key = "create-" + System.nanoTime();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", key);
+        HttpEntity<AccountRequest> create = new HttpEntity<>(
+            createAccountRequest("Retried Create", "60.00", Currency.GBP), headers);
+        
+        ResponseEntity<AccountResponse> first = restTemplate.postForEntity("/api/v1/accounts", create, AccountResponse.class);
+        ResponseEntity<AccountResponse> retry = restTemplate.postForEntity("/api/v1/accounts", create, AccountResponse.class);
+        
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(retry.getBody().getAccountNumber()).isEqualTo(first.getBody().getAccountNumber());
+        // The response was stored under the claim the first request made
+        assertThat(idempotencyRecordRepository.findById(key))
+            .hasValueSatisfying(record -> assertThat(record.getResponseStatus()).isEqualTo(201));
+        
+        // A retried deposit is applied once
+        Long accountId = first.getBody().getId();
+        HttpHeaders depositHeaders = new HttpHeaders();
+        depositHeaders.set("Idempotency-Key", "deposit-" + System.nanoTime());
+        HttpEntity<AmountRequest> deposit = new HttpEntity<>(new AmountRequest(new BigDecimal("15.00")), depositHeaders);
+        restTemplate.postForEntity("/api/v1/accounts/" + accountId + "/deposit", deposit, AccountResponse.class);
+        ResponseEntity<AccountResponse> depositRetry = restTemplate.postForEntity(
+            "/api/v1/accounts/" + accountId + "/deposit", deposit, AccountResponse.class);
+        assertThat(depositRetry.getBody().getBalance()).isEqualByComparingTo("75.00");
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + accountId, AccountResponse.class)
+            .getBody().getBalance()).isEqualByComparingTo("75.00");
+        
+        // The same key on a different request is rejected
+        ResponseEntity<String> reused = restTemplate.postForEntity("/api/v1/accounts/" + accountId + "/deposit",
+            new HttpEntity<>(new AmountRequest(new BigDecimal("16.00")), depositHeaders), String.class);
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+    
+    @Test
+    void shouldReleaseIdempotencyKeyWhenRequestFails() {
+        Long accountId = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Retry After Failure", "10.00", Currency.USD), AccountResponse.class).getBody().getId();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "withdraw-" + System.nanoTime());
+        HttpEntity<AmountRequest> withdraw = new HttpEntity<>(new AmountRequest(new BigDecimal("20.00")), headers);
+        
+        ResponseEntity<String> failed = restTemplate.postForEntity(
+            "/api/v1/accounts/" + accountId + "/withdraw", withdraw, String.class);
+        assertThat(failed.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        
+        // Once funds arrive, the same key runs the withdrawal for real
+        restTemplate.postForEntity("/api/v1/accounts/" + accountId + "/deposit",
+            new AmountRequest(new BigDecimal("10.00")), AccountResponse.class);
+        ResponseEntity<AccountResponse> retried = restTemplate.postForEntity(
+            "/api/v1/accounts/" + accountId + "/withdraw", withdraw, AccountResponse.class);
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retried.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+        assertThat(retried.getBody().getBalance()).isEqualByComparingTo("0.00");
+    }
+    
+    @Test
+    void shouldKeepCurrencyStatsInStepWithEveryWrite() {
+        // Given writes through every path that changes a count or balance
+        Long first = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Stats One", "100.00", Currency.GBP), AccountResponse.class).getBody().getId();
+        Long second = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Stats Two", "300.00", Currency.GBP), AccountResponse.class).getBody().getId();
+        restTemplate.postForEntity("/api/v1/accounts/batch", List.of(
+            createAccountRequest("Stats Three", "5.00", Currency.EUR),
+            createAccountRequest("Stats Four", "7.50", Currency.GBP)), BatchCreateResponse.class);
+        restTemplate.postForEntity("/api/v1/accounts/" + first + "/deposit",
+            new AmountRequest(new BigDecimal("50.00")), AccountResponse.class);
+        restTemplate.postForEntity("/api/v1/accounts/" + second + "/withdraw",
+            new AmountRequest(new BigDecimal("25.00")), AccountResponse.class);
+        restTemplate.put("/api/v1/accounts/" + second, createAccountRequest("Stats Two", "400.00", Currency.EUR));
+        restTemplate.delete("/api/v1/accounts/" + first);
+        
+        // When
+        ResponseEntity<CurrencyStatsResponse[]> response = restTemplate.getForEntity(
+            "/api/v1/accounts/stats", CurrencyStatsResponse[].class);
+        
+        // Then the running totals match a full scan of the table
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(CurrencyStatsResponse::getCurrency)
+            .containsExactly(Currency.values());
+        assertMatchesExport(response.getBody(), restTemplate.getForObject("/api/v1/accounts/export", String.class));
+    }
+    
+    @Test
+    void shouldPatchOnlyTheGivenFields() {
+        Long id = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Patch Me", "80.00", Currency.USD), AccountResponse.class).getBody().getId();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/json-patch+json"));
+        List<PatchOperation> patch = List.of(
+            new PatchOperation("replace", "/accountHolderName", JsonNodeFactory.instance.textNode("Patched")),
+            new PatchOperation("replace", "/balance", JsonNodeFactory.instance.numberNode(new BigDecimal("95.10"))));
+        
+        ResponseEntity<AccountResponse> response = restTemplate.exchange("/api/v1/accounts/" + id,
+            HttpMethod.PATCH, new HttpEntity<>(patch, headers), AccountResponse.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getAccountHolderName()).isEqualTo("Patched");
+        assertThat(response.getBody().getBalance()).isEqualByComparingTo("95.10");
+        assertThat(response.getBody().getCurrency()).isEqualTo(Currency.USD);
+        LedgerBalanceResponse ledger = restTemplate.getForObject(
+            "/api/v1/accounts/" + id + "/ledger-balance", LedgerBalanceResponse.class);
+        assertThat(ledger.getBalance()).isEqualByComparingTo("95.10");
+        
+        List<PatchOperation> unsupported = List.of(
+            new PatchOperation("remove", "/accountNumber", null));
+        ResponseEntity<String> rejected = restTemplate.exchange("/api/v1/accounts/" + id,
+            HttpMethod.PATCH, new HttpEntity<>(unsupported, headers), String.class);
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    
+    @Test
+    void shouldMigrateCurrencyOfManyAccountsInOneBatch() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(restTemplate.postForEntity("/api/v1/accounts",
+                createAccountRequest("Migrate " + i, "10.0" + i, i == 0 ? Currency.EUR : Currency.GBP),
+                AccountResponse.class).getBody().getId());
+        }
+        // Cached before the migration, so a stale entry would show
+        restTemplate.getForObject("/api/v1/accounts/" + ids.get(1), AccountResponse.class);
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(Long.MAX_VALUE);
+        BatchUpdateRequest request = new BatchUpdateRequest(requested, List.of(
+            new PatchOperation("replace", "/currency", JsonNodeFactory.instance.textNode("EUR"))));
+        
+        ResponseEntity<BatchUpdateResponse> response = restTemplate.exchange("/api/v1/accounts/batch",
+            HttpMethod.PATCH, new HttpEntity<>(request), BatchUpdateResponse.class);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getUpdated()).isEqualTo(4);
+        assertThat(response.getBody().getUnchanged()).isEqualTo(1);
+        assertThat(response.getBody().getNotFound()).containsExactly(Long.MAX_VALUE);
+        assertThat(restTemplate.getForObject("/api/v1/accounts/" + ids.get(1), AccountResponse.class).getCurrency())
+            .isEqualTo(Currency.EUR);
+        assertMatchesExport(restTemplate.getForObject("/api/v1/accounts/stats", CurrencyStatsResponse[].class),
+            restTemplate.getForObject("/api/v1/accounts/export", String.class));
+        
+        BatchUpdateRequest balances = new BatchUpdateRequest(ids, List.of(
+            new PatchOperation("replace", "/balance", JsonNodeFactory.instance.numberNode(1))));
+        ResponseEntity<String> rejected = restTemplate.exchange("/api/v1/accounts/batch",
+            HttpMethod.PATCH, new HttpEntity<>(balances), String.class);
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPublishSqlLatencyByStatementType() {
+        restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Timed Insert", "1.00", Currency.USD), AccountResponse.class);
+        
+        ResponseEntity<Map> metric = restTemplate.getForEntity(
+            "/actuator/metrics/banklite.sql.queries?tag=type:insert&tag=outcome:success", Map.class);
+        
+        assertThat(metric.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.getBody().get("measurements");
+        assertThat(measurements).anySatisfy(measurement -> {
+            assertThat(measurement.get("statistic")).isEqualTo("COUNT");
+            assertThat(((Number) measurement.get("value")).doubleValue()).isPositive();
+        });
+    }
+    
+    /**
+     * Checks every currency's statistics against the accounts in an NDJSON export.
+     */
+    static void assertMatchesExport(CurrencyStatsResponse[] stats, String export) {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<AccountResponse> accounts = export.lines()
+            .map(line -> {
+                try {
+                    return objectMapper.readValue(line, AccountResponse.class);
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .toList();
+        for (CurrencyStatsResponse currencyStats : stats) {
+            List<BigDecimal> balances = accounts.stream()
+                .filter(account -> account.getCurrency() == currencyStats.getCurrency())
+                .map(AccountResponse::getBalance)
+                .toList();
+            assertThat(currencyStats.getCount()).isEqualTo(balances.size());
+            assertThat(currencyStats.getTotalBalance())
+                .isEqualByComparingTo(balances.stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+            if (!balances.isEmpty()) {
+                assertThat(currencyStats.getMinBalance()).isEqualByComparingTo(Collections.min(balances));
+                assertThat(currencyStats.getMaxBalance()).isEqualByComparingTo(Collections.max(balances));
+            }
+        }
+    }
+    
+    @Test
+    void shouldExposeServiceRepositoryAndPoolLatencyHistogramsToPrometheus() {
+        restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Histogram", "3.00", Currency.EUR), AccountResponse.class);
+        
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+            .containsPattern("banklite_service_seconds_bucket\\{[^}]*currency=\"EUR\"[^}]*"
+                + "operation=\"AccountService.createAccount\"[^}]*outcome=\"success\"")
+            .contains("spring_data_repository_invocations_seconds_bucket")
+            .contains("hikaricp_connections_acquire_seconds_bucket");
+    }
+    
+    @Test
+    void shouldServeStatusSnapshotWithPoolCacheAndGcFigures() {
+        ResponseEntity<ApplicationStatusResponse> response =
+            restTemplate.getForEntity("/api/v1/status", ApplicationStatusResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        ApplicationStatusResponse status = response.getBody();
+        assertThat(status.getStatus()).isEqualTo("UP");
+        assertThat(status.getConnectionPool()).isNotNull();
+        assertThat(status.getCaches()).containsKeys("accounts", "accountIdsByNumber");
+        assertThat(status.getGarbageCollectors()).isNotEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private double cacheHits() {
+        Map<String, Object> metric = restTemplate.getForObject(
+            "/actuator/metrics/cache.gets?tag=name:accounts&tag=result:hit", Map.class);
+        List<Map<String, Object>> measurements = (List<Map<String, Object>>) metric.get("measurements");
+        return ((Number) measurements.get(0).get("value")).doubleValue();
+    }
+    
     private AccountRequest createAccountRequest(String name, String balance, Currency currency) {
         AccountRequest request = new AccountRequest();
         request.setAccountHolderName(name);
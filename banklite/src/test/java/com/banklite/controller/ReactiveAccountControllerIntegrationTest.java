@@ -0,0 +1,295 @@
+package com.banklite.controller;
+
+import com.banklite.model.Currency;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.AccountPageResponse;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.AmountRequest;
+import com.banklite.model.dto.CurrencyStatsResponse;
+import com.banklite.model.dto.LedgerBalanceResponse;
+import com.banklite.model.dto.TransactionPageResponse;
+import com.banklite.model.dto.TransactionResponse;
+import com.banklite.model.dto.TransferRequest;
+import com.banklite.model.dto.TransferResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reactivetestdb",
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactivetestdb",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "banklite.ledger.snapshot-interval=3",
+    // Exercise the database search path; the v1 tests cover the in-memory index
+    "banklite.search.in-memory-index=false"
+})
+class ReactiveAccountControllerIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldCreateAndGetAccount() {
+        // Given
+        AccountRequest request = createAccountRequest("Reactive Jane", "1000.00", Currency.USD);
+
+        // When
+        ResponseEntity<AccountResponse> createResponse = restTemplate.postForEntity(
+            "/api/v2/accounts", request, AccountResponse.class);
+
+        // Then
+        assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        AccountResponse created = createResponse.getBody();
+        assertThat(created.getId()).isPositive();
+        assertThat(created.getAccountNumber()).startsWith("ACC");
+        assertThat(created.getCreatedAt()).isNotNull();
+
+        ResponseEntity<AccountResponse> byId = restTemplate.getForEntity(
+            "/api/v2/accounts/" + created.getId(), AccountResponse.class);
+        assertThat(byId.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(byId.getBody().getAccountHolderName()).isEqualTo("Reactive Jane");
+        assertThat(byId.getBody().getBalance()).isEqualByComparingTo("1000.00");
+
+        ResponseEntity<AccountResponse> byNumber = restTemplate.getForEntity(
+            "/api/v2/accounts/number/" + created.getAccountNumber(), AccountResponse.class);
+        assertThat(byNumber.getBody().getId()).isEqualTo(created.getId());
+    }
+
+    @Test
+    void shouldShareAccountsAndIdsWithV1() {
+        // Given one account created through each API version
+        Long v1Id = restTemplate.postForEntity("/api/v1/accounts",
+            createAccountRequest("Created In V1", "10.00", Currency.EUR), AccountResponse.class).getBody().getId();
+        Long v2Id = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Created In V2", "20.00", Currency.EUR), AccountResponse.class).getBody().getId();
+
+        // Then ids never collide and each version reads the other's writes
+        assertThat(v2Id).isNotEqualTo(v1Id);
+        assertThat(restTemplate.getForEntity("/api/v2/accounts/" + v1Id, AccountResponse.class)
+            .getBody().getAccountHolderName()).isEqualTo("Created In V1");
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + v2Id, AccountResponse.class)
+            .getBody().getAccountHolderName()).isEqualTo("Created In V2");
+
+        // When v1 has cached the account and v2 changes it
+        restTemplate.getForEntity("/api/v1/accounts/" + v1Id, AccountResponse.class);
+        restTemplate.postForEntity("/api/v2/accounts/" + v1Id + "/deposit",
+            new AmountRequest(new BigDecimal("5.00")), AccountResponse.class);
+
+        // Then v1 does not serve the stale entry
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + v1Id, AccountResponse.class)
+            .getBody().getBalance()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void shouldPageThroughAccounts() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            restTemplate.postForEntity("/api/v2/accounts",
+                createAccountRequest("Page Holder " + i, "1.00", Currency.GBP), AccountResponse.class);
+        }
+
+        // When
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        do {
+            String url = "/api/v2/accounts?size=2" + (cursor == null ? "" : "&after=" + cursor);
+            ResponseEntity<AccountPageResponse> response = restTemplate.getForEntity(url, AccountPageResponse.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().getContent()).hasSizeLessThanOrEqualTo(2);
+            response.getBody().getContent().forEach(account -> seen.add(account.getId()));
+            cursor = response.getBody().getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertThat(seen).hasSizeGreaterThanOrEqualTo(3).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldExportAccountsAsNdjson() {
+        // Given
+        restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Reactive Export", "42.00", Currency.USD), AccountResponse.class);
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v2/accounts/export", String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        String[] lines = response.getBody().split("\n");
+        assertThat(lines).isNotEmpty().allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        assertThat(response.getBody()).contains("\"accountHolderName\":\"Reactive Export\"");
+    }
+
+    @Test
+    void shouldUpdateAndDeleteAccount() {
+        // Given
+        Long accountId = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Original Name", "100.00", Currency.USD), AccountResponse.class).getBody().getId();
+
+        // When
+        restTemplate.put("/api/v2/accounts/" + accountId, createAccountRequest("Updated Name", "200.00", Currency.EUR));
+
+        // Then
+        AccountResponse updated = restTemplate.getForEntity(
+            "/api/v2/accounts/" + accountId, AccountResponse.class).getBody();
+        assertThat(updated.getAccountHolderName()).isEqualTo("Updated Name");
+        assertThat(updated.getCurrency()).isEqualTo(Currency.EUR);
+
+        // When
+        restTemplate.delete("/api/v2/accounts/" + accountId);
+
+        // Then - 500 as in v1, since GlobalExceptionHandler is disabled
+        assertThat(restTemplate.getForEntity("/api/v2/accounts/" + accountId, String.class).getStatusCode())
+            .isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void shouldDepositWithdrawAndRejectOverdraft() {
+        // Given
+        Long accountId = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Reactive Saver", "100.00", Currency.USD), AccountResponse.class).getBody().getId();
+
+        // When / Then
+        ResponseEntity<AccountResponse> deposit = restTemplate.postForEntity(
+            "/api/v2/accounts/" + accountId + "/deposit", new AmountRequest(new BigDecimal("50.00")), AccountResponse.class);
+        assertThat(deposit.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(deposit.getBody().getBalance()).isEqualByComparingTo("150.00");
+
+        ResponseEntity<AccountResponse> withdraw = restTemplate.postForEntity(
+            "/api/v2/accounts/" + accountId + "/withdraw", new AmountRequest(new BigDecimal("120.00")), AccountResponse.class);
+        assertThat(withdraw.getBody().getBalance()).isEqualByComparingTo("30.00");
+
+        ResponseEntity<String> overdraft = restTemplate.postForEntity(
+            "/api/v2/accounts/" + accountId + "/withdraw", new AmountRequest(new BigDecimal("30.01")), String.class);
+        assertThat(overdraft.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+
+        ResponseEntity<String> missing = restTemplate.postForEntity(
+            "/api/v2/accounts/99999/deposit", new AmountRequest(new BigDecimal("1.00")), String.class);
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void shouldTransferBetweenAccounts() {
+        // Given
+        Long fromId = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Reactive Payer", "500.00", Currency.GBP), AccountResponse.class).getBody().getId();
+        Long toId = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Reactive Payee", "10.00", Currency.GBP), AccountResponse.class).getBody().getId();
+        Long euroId = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Euro Payee", "10.00", Currency.EUR), AccountResponse.class).getBody().getId();
+
+        // When
+        ResponseEntity<TransferResponse> response = restTemplate.postForEntity("/api/v2/accounts/transfer",
+            new TransferRequest(fromId, toId, new BigDecimal("125.50")), TransferResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getFromAccount().getBalance()).isEqualByComparingTo("374.50");
+        assertThat(response.getBody().getToAccount().getBalance()).isEqualByComparingTo("135.50");
+
+        ResponseEntity<String> crossCurrency = restTemplate.postForEntity("/api/v2/accounts/transfer",
+            new TransferRequest(fromId, euroId, new BigDecimal("1.00")), String.class);
+        assertThat(crossCurrency.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + fromId, AccountResponse.class)
+            .getBody().getBalance()).isEqualByComparingTo("374.50");
+    }
+
+    @Test
+    void shouldSearchAccountsByHolderNameInDatabase() {
+        // Given
+        Long first = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Wilhelmina 50%_Off", "1.00", Currency.USD), AccountResponse.class).getBody().getId();
+        Long second = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("WILHELMINA Grey", "1.00", Currency.USD), AccountResponse.class).getBody().getId();
+
+        // When
+        AccountPageResponse page = restTemplate.getForEntity(
+            "/api/v2/accounts/search?q=wilhelmina&size=1", AccountPageResponse.class).getBody();
+        AccountPageResponse next = restTemplate.getForEntity(
+            "/api/v2/accounts/search?q=wilhelmina&size=1&after=" + page.getNextCursor(), AccountPageResponse.class).getBody();
+
+        // Then
+        assertThat(page.getContent()).extracting(AccountResponse::getId).containsExactly(first);
+        assertThat(next.getContent()).extracting(AccountResponse::getId).containsExactly(second);
+        assertThat(next.isHasNext()).isFalse();
+        // LIKE wildcards in the query are matched literally
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/search?q={q}", AccountPageResponse.class, "50%_")
+            .getBody().getContent()).extracting(AccountResponse::getId).containsExactly(first);
+        assertThat(restTemplate.getForEntity("/api/v2/accounts/search?q={q}", AccountPageResponse.class, "5_%")
+            .getBody().getContent()).isEmpty();
+    }
+
+    @Test
+    void shouldJournalBalanceChangesAcrossVersions() {
+        // Given
+        Long accountId = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Reactive Ledger", "50.00", Currency.EUR), AccountResponse.class).getBody().getId();
+
+        // When the account is changed through both API versions
+        restTemplate.postForEntity("/api/v2/accounts/" + accountId + "/deposit",
+            new AmountRequest(new BigDecimal("25.00")), AccountResponse.class);
+        restTemplate.postForEntity("/api/v1/accounts/" + accountId + "/withdraw",
+            new AmountRequest(new BigDecimal("5.00")), AccountResponse.class);
+        restTemplate.put("/api/v2/accounts/" + accountId, createAccountRequest("Reactive Ledger", "100.00", Currency.EUR));
+
+        // Then both versions read one continuous history
+        TransactionPageResponse page = restTemplate.getForEntity(
+            "/api/v2/accounts/" + accountId + "/transactions", TransactionPageResponse.class).getBody();
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getContent()).extracting(TransactionResponse::getType).containsExactly(
+            TransactionType.ADJUSTMENT, TransactionType.WITHDRAWAL, TransactionType.DEPOSIT, TransactionType.OPENING);
+        assertThat(page.getContent().get(0).getAmount()).isEqualByComparingTo("30.00");
+
+        LedgerBalanceResponse v2 = restTemplate.getForEntity(
+            "/api/v2/accounts/" + accountId + "/ledger-balance", LedgerBalanceResponse.class).getBody();
+        assertThat(v2.getBalance()).isEqualByComparingTo("100.00");
+        assertThat(v2.getSnapshotEntryNo()).isEqualTo(3L);
+        assertThat(v2.getAsOfEntryNo()).isEqualTo(4L);
+        assertThat(restTemplate.getForEntity("/api/v1/accounts/" + accountId + "/ledger-balance",
+            LedgerBalanceResponse.class).getBody().getBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void shouldKeepCurrencyStatsInStepWithV2Writes() {
+        // Given
+        Long first = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Reactive Stats One", "80.00", Currency.USD), AccountResponse.class).getBody().getId();
+        Long second = restTemplate.postForEntity("/api/v2/accounts",
+            createAccountRequest("Reactive Stats Two", "20.00", Currency.USD), AccountResponse.class).getBody().getId();
+        restTemplate.postForEntity("/api/v2/accounts/" + first + "/deposit",
+            new AmountRequest(new BigDecimal("15.00")), AccountResponse.class);
+        restTemplate.postForEntity("/api/v2/accounts/" + first + "/withdraw",
+            new AmountRequest(new BigDecimal("5.00")), AccountResponse.class);
+        restTemplate.put("/api/v2/accounts/" + first, createAccountRequest("Reactive Stats One", "70.00", Currency.GBP));
+        restTemplate.delete("/api/v2/accounts/" + second);
+
+        // When
+        CurrencyStatsResponse[] stats = restTemplate.getForObject("/api/v1/accounts/stats", CurrencyStatsResponse[].class);
+
+        // Then
+        AccountControllerIntegrationTest.assertMatchesExport(stats,
+            restTemplate.getForObject("/api/v2/accounts/export", String.class));
+    }
+
+    private AccountRequest createAccountRequest(String name, String balance, Currency currency) {
+        AccountRequest request = new AccountRequest();
+        request.setAccountHolderName(name);
+        request.setBalance(new BigDecimal(balance));
+        request.setCurrency(currency);
+        return request;
+    }
+}
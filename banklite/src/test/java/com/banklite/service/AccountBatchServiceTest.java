@@ -0,0 +1,130 @@
+package com.banklite.service;
+
+import com.banklite.config.BatchProperties;
+import com.banklite.model.Account;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.BatchCreateResponse;
+import com.banklite.model.dto.BatchItemResult;
+import com.banklite.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountBatchServiceTest {
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+    
+    @Mock
+    private LedgerService ledgerService;
+    
+    @Mock
+    private AccountNameIndex accountNameIndex;
+    
+    @Mock
+    private CurrencyStatsService currencyStatsService;
+    
+    @Mock
+    private AccountOutbox accountOutbox;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private AccountBatchService accountBatchService;
+    
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        BatchProperties properties = new BatchProperties();
+        properties.setChunkSize(2);
+        properties.setMaxItems(4);
+        accountBatchService = new AccountBatchService(accountRepository, accountNumberGenerator, ledgerService,
+            accountNameIndex, currencyStatsService, accountOutbox, entityManager, transactionManager, validator, properties);
+        
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(accountNumberGenerator.nextAccountNumber()).thenReturn("ACC1");
+        // Ids are assigned on persist
+        AtomicLong ids = new AtomicLong();
+        lenient().when(accountRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Account> accounts = invocation.getArgument(0);
+            accounts.forEach(account -> account.setId(ids.incrementAndGet()));
+            return accounts;
+        });
+    }
+    
+    @Test
+    void shouldInsertValidItemsInChunksAndReportInvalidOnesByIndex() {
+        // Given three valid requests around one invalid one
+        List<AccountRequest> requests = List.of(
+            request("Alice", "10.00"),
+            request("", "-5.00"),
+            request("Bob", "20.00"),
+            request("Carol", "30.00"));
+        
+        // When
+        BatchCreateResponse response = accountBatchService.createAccounts(requests.iterator());
+        
+        // Then the valid ones go in as one full chunk and one partial chunk
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(BatchItemResult.Status.INVALID);
+        assertThat(response.getResults().get(1).getErrors()).hasSize(2);
+        
+        verify(accountRepository, times(2)).saveAll(anyList());
+        verify(currencyStatsService, times(2)).apply(any());
+        verify(entityManager, times(2)).clear();
+    }
+    
+    @Test
+    void shouldRejectItemsBeyondTheBatchLimit() {
+        List<AccountRequest> requests = List.of(
+            request("A", "1.00"), request("B", "1.00"), request("C", "1.00"),
+            request("D", "1.00"), request("E", "1.00"));
+        
+        BatchCreateResponse response = accountBatchService.createAccounts(requests.iterator());
+        
+        assertThat(response.getCreated()).isEqualTo(4);
+        assertThat(response.getResults().get(4).getStatus()).isEqualTo(BatchItemResult.Status.INVALID);
+    }
+    
+    @Test
+    void shouldMarkWholeChunkFailedWhenInsertFails() {
+        doThrow(new IllegalStateException("boom")).when(accountRepository).saveAll(anyList());
+        
+        BatchCreateResponse response = accountBatchService.createAccounts(
+            List.of(request("A", "1.00"), request("B", "1.00")).iterator());
+        
+        assertThat(response.getCreated()).isZero();
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus)
+            .containsOnly(BatchItemResult.Status.FAILED);
+    }
+    
+    private AccountRequest request(String name, String balance) {
+        return new AccountRequest(name, new BigDecimal(balance), Currency.USD);
+    }
+}
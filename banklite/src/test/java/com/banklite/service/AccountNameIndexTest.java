@@ -0,0 +1,68 @@
+package com.banklite.service;
+
+import com.banklite.config.SearchProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountNameIndexTest {
+
+    private AccountNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties properties = new SearchProperties();
+        properties.setInMemoryIndex(true);
+        index = new AccountNameIndex(null, properties);
+        index.put(1L, "John Doe");
+        index.put(2L, "Jane Doerr");
+        index.put(3L, "Bob Johnson");
+        index.put(4L, "Alice Brown");
+    }
+
+    @Test
+    void shouldFindSubstringsIgnoringCaseInIdOrder() {
+        assertThat(index.search("DOE", 0L, 10)).containsExactly(1L, 2L);
+        assertThat(index.search("john", 0L, 10)).containsExactly(1L, 3L);
+        assertThat(index.search("n d", 0L, 10)).containsExactly(1L);
+        assertThat(index.search("xyz", 0L, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldPageFromCursor() {
+        assertThat(index.search("o", 0L, 2)).containsExactly(1L, 2L);
+        assertThat(index.search("o", 2L, 2)).containsExactly(3L, 4L);
+        assertThat(index.search("john", 1L, 10)).containsExactly(3L);
+    }
+
+    @Test
+    void shouldNotMatchTrigramsSpreadAcrossTheName() {
+        // "Alice Brown" holds "bro" and "own" but not "brown alice"
+        index.put(5L, "Brownie Owner");
+        assertThat(index.search("brown", 0L, 10)).containsExactly(4L, 5L);
+        assertThat(index.search("rownie", 0L, 10)).containsExactly(5L);
+    }
+
+    @Test
+    void shouldFollowRenamesAndRemovals() {
+        // When
+        index.put(1L, "Johnny Cash");
+        index.remove(3L);
+
+        // Then
+        assertThat(index.search("doe", 0L, 10)).containsExactly(2L);
+        assertThat(index.search("johnny", 0L, 10)).containsExactly(1L);
+        assertThat(index.search("johnson", 0L, 10)).isEmpty();
+        assertThat(index.search("bo", 0L, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        AccountNameIndex disabled = new AccountNameIndex(null, new SearchProperties());
+        disabled.put(1L, "John Doe");
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.search("john", 0L, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.banklite.service;
+
+import com.banklite.exception.InvalidPatchException;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.PatchOperation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountPatchTest {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    @Test
+    void shouldCompileReplaceOperations() throws Exception {
+        // Given a balance Jackson would otherwise read as a double
+        JsonNode balance = new ObjectMapper().readTree("0.1");
+
+        // When
+        AccountPatch patch = AccountPatch.from(List.of(
+            new PatchOperation("replace", "/currency", NODES.textNode("GBP")),
+            new PatchOperation("add", "/balance", balance)));
+
+        // Then
+        assertThat(patch.accountHolderName()).isNull();
+        assertThat(patch.currency()).isEqualTo(Currency.GBP);
+        assertThat(patch.balance()).isEqualByComparingTo("0.1").hasToString("0.1");
+    }
+
+    @Test
+    void shouldRejectWhatCannotBePatched() {
+        assertThatThrownBy(() -> AccountPatch.from(List.of(
+            new PatchOperation("remove", "/accountHolderName", null))))
+            .isInstanceOf(InvalidPatchException.class);
+        assertThatThrownBy(() -> AccountPatch.from(List.of(
+            new PatchOperation("replace", "/accountNumber", NODES.textNode("ACC1")))))
+            .isInstanceOf(InvalidPatchException.class);
+        assertThatThrownBy(() -> AccountPatch.from(List.of(
+            new PatchOperation("replace", "/balance", NODES.numberNode(-1)))))
+            .isInstanceOf(InvalidPatchException.class);
+        assertThatThrownBy(() -> AccountPatch.from(List.of(
+            new PatchOperation("replace", "/currency", NODES.textNode("JPY")))))
+            .isInstanceOf(InvalidPatchException.class);
+        assertThatThrownBy(() -> AccountPatch.from(List.of()))
+            .isInstanceOf(InvalidPatchException.class);
+    }
+}
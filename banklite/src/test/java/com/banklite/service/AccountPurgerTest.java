@@ -0,0 +1,83 @@
+package com.banklite.service;
+
+import com.banklite.exception.AccountNotFoundException;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the purger against a real database: deleted accounts disappear from
+ * reads at once, and are archived and removed in batches once due.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:purgedb",
+    "banklite.account-purge.retention=0s",
+    "banklite.account-purge.interval=1h",
+    "banklite.account-purge.batch-size=2",
+    "banklite.account-purge.archive=true"
+})
+class AccountPurgerTest {
+
+    @Autowired
+    private AccountPurger accountPurger;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldHideDeletedAccountsAndPurgeThemInBatches() throws Exception {
+        // Given five accounts, three of them deleted
+        List<Long> deleted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long id = createAccount("Purge Me " + i);
+            accountService.deleteAccount(id);
+            deleted.add(id);
+        }
+        Long kept = createAccount("Keep Me");
+
+        // Then they are gone from reads before the purger ever runs
+        assertThatThrownBy(() -> accountService.getAccount(deleted.get(0)))
+            .isInstanceOf(AccountNotFoundException.class);
+        assertThatThrownBy(() -> accountService.deleteAccount(deleted.get(0)))
+            .isInstanceOf(AccountNotFoundException.class);
+        assertThat(countRows("accounts")).isEqualTo(4);
+
+        // When
+        int removed = accountPurger.purge();
+
+        // Then every deleted row moved to the archive, over two batches
+        assertThat(removed).isEqualTo(3);
+        assertThat(countRows("accounts")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM accounts_archive ORDER BY id", Long.class))
+            .containsExactlyElementsOf(deleted);
+        assertThat(accountService.getAccount(kept).getAccountHolderName()).isEqualTo("Keep Me");
+        assertThat(accountPurger.purge()).isZero();
+    }
+
+    private Long createAccount(String holderName) {
+        AccountRequest request = new AccountRequest();
+        request.setAccountHolderName(holderName);
+        request.setBalance(new BigDecimal("10.00"));
+        request.setCurrency(Currency.USD);
+        return accountService.createAccount(request).getId();
+    }
+
+    private long countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,137 @@
+package com.banklite.service;
+
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a handful of hot accounts from many threads and checks that no
+ * balance update is lost and no account is ever overdrawn.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:concurrencydb;LOCK_TIMEOUT=30000",
+    "spring.datasource.hikari.maximum-pool-size=16"
+})
+class AccountServiceConcurrencyTest {
+    
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 250;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("10000.00");
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Test
+    void shouldNotLoseUpdatesUnderConcurrentDepositsWithdrawalsAndTransfers() throws Exception {
+        // Given three hot accounts
+        long[] ids = new long[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = createAccount("Hot Account " + i, OPENING_BALANCE);
+        }
+        AtomicLongArray expectedCents = new AtomicLongArray(ids.length);
+        
+        // When every thread mixes deposits, withdrawals and transfers in both directions
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                int a = random.nextInt(ids.length);
+                long cents = 1 + random.nextInt(500);
+                BigDecimal amount = BigDecimal.valueOf(cents, 2);
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        accountService.deposit(ids[a], amount);
+                        expectedCents.addAndGet(a, cents);
+                    }
+                    case 1 -> {
+                        accountService.withdraw(ids[a], amount);
+                        expectedCents.addAndGet(a, -cents);
+                    }
+                    default -> {
+                        int b = (a + 1 + random.nextInt(ids.length - 1)) % ids.length;
+                        accountService.transfer(ids[a], ids[b], amount);
+                        expectedCents.addAndGet(a, -cents);
+                        expectedCents.addAndGet(b, cents);
+                    }
+                }
+            }
+        });
+        
+        // Then every account reflects exactly the operations applied to it
+        for (int i = 0; i < ids.length; i++) {
+            BigDecimal expected = OPENING_BALANCE.add(BigDecimal.valueOf(expectedCents.get(i), 2));
+            assertThat(accountService.getAccount(ids[i]).getBalance()).isEqualByComparingTo(expected);
+        }
+    }
+    
+    @Test
+    void shouldNeverOverdrawUnderConcurrentWithdrawals() throws Exception {
+        // Given an account that can cover exactly 100 withdrawals
+        long id = createAccount("Contended Account", new BigDecimal("100.00"));
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        
+        // When far more withdrawals than that race for it
+        runConcurrently(() -> {
+            for (int op = 0; op < 20; op++) {
+                try {
+                    accountService.withdraw(id, BigDecimal.ONE);
+                    succeeded.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        
+        // Then exactly 100 succeed and the balance lands on zero
+        assertThat(succeeded.get()).isEqualTo(100);
+        assertThat(rejected.get()).isEqualTo(THREADS * 20 - 100);
+        assertThat(accountService.getAccount(id).getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+    
+    private long createAccount(String name, BigDecimal balance) {
+        AccountRequest request = new AccountRequest();
+        request.setAccountHolderName(name);
+        request.setBalance(balance);
+        request.setCurrency(Currency.USD);
+        return accountService.createAccount(request).getId();
+    }
+    
+    private void runConcurrently(Runnable work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    work.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,25 +1,42 @@
 package com.banklite.service;
 
+import com.banklite.config.PaginationProperties;
+import com.banklite.config.SearchProperties;
 import com.banklite.exception.AccountNotFoundException;
+import com.banklite.exception.AccountVersionMismatchException;
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.exception.InvalidTransferException;
 import com.banklite.model.Account;
+import com.banklite.model.AccountEventType;
 import com.banklite.model.Currency;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.AccountPageResponse;
 import com.banklite.model.dto.AccountRequest;
 import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.TransferResponse;
 import com.banklite.repository.AccountRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +45,30 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
     
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+    
+    @Mock
+    private LedgerService ledgerService;
+    
+    @Mock
+    private AccountNameIndex accountNameIndex;
+    
+    @Mock
+    private CurrencyStatsService currencyStatsService;
+    
+    @Mock
+    private AccountOutbox accountOutbox;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+    
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties();
+    
     @InjectMocks
     private AccountService accountService;
     
@@ -47,6 +88,7 @@ class AccountServiceTest {
         savedAccount.setCurrency(Currency.USD);
         savedAccount.setCreatedAt(LocalDateTime.now());
         
+        when(accountNumberGenerator.nextAccountNumber()).thenReturn("ACC123456789");
         when(accountRepository.save(any(Account.class))).thenReturn(savedAccount);
         
         // When
@@ -60,6 +102,9 @@ class AccountServiceTest {
         assertThat(response.getAccountNumber()).isEqualTo("ACC123456789");
         
         verify(accountRepository).save(any(Account.class));
+        verify(ledgerService).recordNumbered(savedAccount, TransactionType.OPENING, new BigDecimal("1000.00"), null);
+        verify(currencyStatsService).adjust(Currency.USD, 1, new BigDecimal("1000.00"));
+        verify(accountOutbox).record(AccountEventType.CREATED, response);
     }
     
     @Test
@@ -101,22 +146,90 @@ class AccountServiceTest {
     }
     
     @Test
-    void shouldGetAllAccounts() {
+    void shouldGetFirstPageOfAccounts() {
         // Given
         Account account1 = createTestAccount(1L, "John Doe", "ACC111");
         Account account2 = createTestAccount(2L, "Jane Doe", "ACC222");
+        Account account3 = createTestAccount(3L, "Jim Doe", "ACC333");
         
-        when(accountRepository.findAll()).thenReturn(List.of(account1, account2));
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+            .thenReturn(List.of(account1, account2, account3));
         
         // When
-        List<AccountResponse> responses = accountService.getAllAccounts();
+        AccountPageResponse page = accountService.getAccounts(null, 2);
         
         // Then
-        assertThat(responses).hasSize(2);
-        assertThat(responses.get(0).getAccountHolderName()).isEqualTo("John Doe");
-        assertThat(responses.get(1).getAccountHolderName()).isEqualTo("Jane Doe");
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent().get(0).getAccountHolderName()).isEqualTo("John Doe");
+        assertThat(page.getContent().get(1).getAccountHolderName()).isEqualTo("Jane Doe");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(2L);
+        
+        verify(accountRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3));
+    }
+    
+    @Test
+    void shouldGetLastPageOfAccounts() {
+        // Given
+        Account account3 = createTestAccount(3L, "Jim Doe", "ACC333");
         
-        verify(accountRepository).findAll();
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+            .thenReturn(List.of(account3));
+        
+        // When
+        AccountPageResponse page = accountService.getAccounts(2L, 2);
+        
+        // Then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+    
+    @Test
+    void shouldClampRequestedPageSize() {
+        // Given
+        paginationProperties.setMaxPageSize(10);
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(List.of());
+        
+        // When
+        AccountPageResponse page = accountService.getAccounts(null, 1000);
+        
+        // Then
+        assertThat(page.getContent()).isEmpty();
+        verify(accountRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11));
+    }
+    
+    @Test
+    void shouldSearchDatabaseWithEscapedPatternWhenIndexDisabled() {
+        // Given
+        Account account = createTestAccount(7L, "100% Dough_Co", "ACC777");
+        when(accountNameIndex.isEnabled()).thenReturn(false);
+        when(accountRepository.searchByHolderName("%100!% dough!_%", 0L, Limit.of(3))).thenReturn(List.of(account));
+        
+        // When
+        AccountPageResponse page = accountService.searchAccounts("  100% DOUGH_ ", null, 2);
+        
+        // Then
+        assertThat(page.getContent()).extracting(AccountResponse::getId).containsExactly(7L);
+        assertThat(page.isHasNext()).isFalse();
+    }
+    
+    @Test
+    void shouldSearchInMemoryIndexWhenEnabled() {
+        // Given
+        when(accountNameIndex.isEnabled()).thenReturn(true);
+        when(accountNameIndex.search("doe", 5L, 3)).thenReturn(List.of(8L, 6L, 9L));
+        when(accountRepository.findAllById(List.of(8L, 6L)))
+            .thenReturn(List.of(createTestAccount(8L, "Jane Doe", "ACC888"), createTestAccount(6L, "John Doe", "ACC666")));
+        
+        // When
+        AccountPageResponse page = accountService.searchAccounts("doe", 5L, 2);
+        
+        // Then
+        assertThat(page.getContent()).extracting(AccountResponse::getId).containsExactly(6L, 8L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(8L);
+        verify(accountRepository, never()).searchByHolderName(any(), any(), any());
     }
     
     @Test
@@ -133,7 +246,7 @@ class AccountServiceTest {
         updatedAccount.setBalance(new BigDecimal("2000.00"));
         updatedAccount.setCurrency(Currency.GBP);
         
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(existingAccount));
         when(accountRepository.save(any(Account.class))).thenReturn(updatedAccount);
         
         // When
@@ -144,35 +257,177 @@ class AccountServiceTest {
         assertThat(response.getBalance()).isEqualTo(new BigDecimal("2000.00"));
         assertThat(response.getCurrency()).isEqualTo(Currency.GBP);
         
-        verify(accountRepository).findById(1L);
+        verify(accountRepository).findByIdForUpdate(1L);
         verify(accountRepository).save(any(Account.class));
+        verify(entityManager).flush();
+        verify(ledgerService).record(existingAccount, TransactionType.ADJUSTMENT, new BigDecimal("1000.00"), null);
+        
+        // The account and its balance move from the USD to the GBP statistics
+        ArgumentCaptor<CurrencyStatsService.Changes> stats = ArgumentCaptor.forClass(CurrencyStatsService.Changes.class);
+        verify(currencyStatsService).apply(stats.capture());
+        assertThat(stats.getValue().inLockOrder())
+            .extracting(CurrencyStatsService.Change::currency, CurrencyStatsService.Change::count,
+                CurrencyStatsService.Change::amount)
+            .containsExactly(
+                tuple(Currency.USD, -1L, new BigDecimal("-1000.00")),
+                tuple(Currency.GBP, 1L, new BigDecimal("2000.00")));
+    }
+
+    @Test
+    void shouldRejectUpdateWhenTheAccountChangedSinceTheExpectedVersion() {
+        // Given an account written once more since the client read version 3
+        Account existingAccount = createTestAccount(1L, "John Doe", "ACC111");
+        existingAccount.setVersion(4);
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(existingAccount));
+        
+        AccountRequest updateRequest = new AccountRequest();
+        updateRequest.setAccountHolderName("John Smith");
+        updateRequest.setBalance(new BigDecimal("2000.00"));
+        updateRequest.setCurrency(Currency.GBP);
+        
+        // When & Then
+        assertThatThrownBy(() -> accountService.updateAccount(1L, updateRequest, Set.of(3L)))
+            .isInstanceOf(AccountVersionMismatchException.class);
+        assertThat(existingAccount.getAccountHolderName()).isEqualTo("John Doe");
+        verify(accountRepository, never()).save(any());
+        verifyNoInteractions(ledgerService, currencyStatsService, accountOutbox);
     }
     
     @Test
-    void shouldDeleteAccount() {
+    void shouldPatchOnlyTheHolderName() {
         // Given
-        when(accountRepository.existsById(1L)).thenReturn(true);
+        Account existingAccount = createTestAccount(1L, "John Doe", "ACC111");
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(existingAccount));
+        when(accountRepository.save(existingAccount)).thenReturn(existingAccount);
+
+        // When
+        AccountResponse response = accountService.patchAccount(1L, new AccountPatch("John Smith", null, null));
+
+        // Then
+        assertThat(response.getAccountHolderName()).isEqualTo("John Smith");
+        assertThat(response.getBalance()).isEqualTo(new BigDecimal("1000.00"));
+        assertThat(response.getCurrency()).isEqualTo(Currency.USD);
+        verifyNoInteractions(ledgerService);
+        verify(accountNameIndex).putAfterCommit(1L, "John Smith");
+
+        // Neither the count nor the balance moved
+        ArgumentCaptor<CurrencyStatsService.Changes> stats = ArgumentCaptor.forClass(CurrencyStatsService.Changes.class);
+        verify(currencyStatsService).apply(stats.capture());
+        assertThat(stats.getValue().inLockOrder()).isEmpty();
+    }
+
+    @Test
+    void shouldSoftDeleteAccountWithoutLoadingIt() {
+        // Given
+        when(accountRepository.softDelete(eq(1L), any(LocalDateTime.class))).thenReturn(1);
         
         // When
         accountService.deleteAccount(1L);
         
         // Then
-        verify(accountRepository).existsById(1L);
-        verify(accountRepository).deleteById(1L);
+        verify(accountRepository, never()).findByIdForUpdate(any());
+        verify(accountRepository, never()).delete(any());
+        verify(currencyStatsService).removeDeleted(1L);
+        verify(accountNameIndex).removeAfterCommit(1L);
+        verify(accountOutbox).recordDeleted(1L);
     }
     
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentAccount() {
         // Given
-        when(accountRepository.existsById(999L)).thenReturn(false);
+        when(accountRepository.softDelete(eq(999L), any(LocalDateTime.class))).thenReturn(0);
         
         // When & Then
         assertThatThrownBy(() -> accountService.deleteAccount(999L))
             .isInstanceOf(AccountNotFoundException.class)
             .hasMessage("Account not found with id: 999");
         
-        verify(accountRepository).existsById(999L);
-        verify(accountRepository, never()).deleteById(any());
+        verify(accountRepository, never()).delete(any());
+        verifyNoInteractions(currencyStatsService);
+    }
+    
+    @Test
+    void shouldDepositIntoAccount() {
+        // Given
+        Account account = createTestAccount(1L, "John Doe", "ACC111");
+        account.setBalance(new BigDecimal("1250.00"));
+        
+        when(accountRepository.credit(eq(1L), eq(new BigDecimal("250.00")), any())).thenReturn(1);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        
+        // When
+        AccountResponse response = accountService.deposit(1L, new BigDecimal("250.00"));
+        
+        // Then
+        assertThat(response.getBalance()).isEqualTo(new BigDecimal("1250.00"));
+        verify(accountRepository).credit(eq(1L), eq(new BigDecimal("250.00")), any());
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(ledgerService).recordNumbered(account, TransactionType.DEPOSIT, new BigDecimal("250.00"), null);
+        verify(currencyStatsService).adjust(Currency.USD, 0, new BigDecimal("250.00"));
+    }
+    
+    @Test
+    void shouldThrowExceptionWhenDepositingIntoNonExistentAccount() {
+        // Given
+        when(accountRepository.credit(eq(999L), any(), any())).thenReturn(0);
+        
+        // When & Then
+        assertThatThrownBy(() -> accountService.deposit(999L, BigDecimal.TEN))
+            .isInstanceOf(AccountNotFoundException.class)
+            .hasMessage("Account not found with id: 999");
+    }
+    
+    @Test
+    void shouldRejectWithdrawalWhenFundsAreInsufficient() {
+        // Given
+        when(accountRepository.debit(eq(1L), any(), any())).thenReturn(0);
+        when(accountRepository.existsById(1L)).thenReturn(true);
+        
+        // When & Then
+        assertThatThrownBy(() -> accountService.withdraw(1L, new BigDecimal("5000.00")))
+            .isInstanceOf(InsufficientFundsException.class)
+            .hasMessage("Insufficient funds in account with id: 1");
+        
+        verify(accountRepository, never()).findById(any());
+    }
+    
+    @Test
+    void shouldTransferBetweenAccountsLockingLowerIdFirst() {
+        // Given
+        Account from = createTestAccount(2L, "Jane Doe", "ACC222");
+        Account to = createTestAccount(1L, "John Doe", "ACC111");
+        
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(to));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(from));
+        
+        // When
+        TransferResponse response = accountService.transfer(2L, 1L, new BigDecimal("400.00"));
+        
+        // Then
+        assertThat(response.getFromAccount().getBalance()).isEqualTo(new BigDecimal("600.00"));
+        assertThat(response.getToAccount().getBalance()).isEqualTo(new BigDecimal("1400.00"));
+        
+        InOrder lockOrder = inOrder(accountRepository);
+        lockOrder.verify(accountRepository).findByIdForUpdate(1L);
+        lockOrder.verify(accountRepository).findByIdForUpdate(2L);
+        verify(ledgerService).record(from, TransactionType.TRANSFER_OUT, new BigDecimal("-400.00"), 1L);
+        verify(ledgerService).record(to, TransactionType.TRANSFER_IN, new BigDecimal("400.00"), 2L);
+    }
+    
+    @Test
+    void shouldRejectTransferBetweenDifferentCurrencies() {
+        // Given
+        Account from = createTestAccount(1L, "John Doe", "ACC111");
+        Account to = createTestAccount(2L, "Jane Doe", "ACC222");
+        to.setCurrency(Currency.EUR);
+        
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(to));
+        
+        // When & Then
+        assertThatThrownBy(() -> accountService.transfer(1L, 2L, BigDecimal.ONE))
+            .isInstanceOf(InvalidTransferException.class);
+        assertThat(from.getBalance()).isEqualTo(new BigDecimal("1000.00"));
     }
     
     private Account createTestAccount(Long id, String name, String accountNumber) {
@@ -0,0 +1,81 @@
+package com.banklite.service;
+
+import com.banklite.config.CacheConfig;
+import com.banklite.config.StatusProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationStatusServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CaffeineCacheManager cacheManager;
+    private ApplicationStatusService service;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(CacheConfig.ACCOUNTS);
+        cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+        service = new ApplicationStatusService(objectMapper,
+                new StaticListableBeanFactory().getBeanProvider(DataSource.class), cacheManager, new StatusProperties());
+    }
+
+    @Test
+    void shouldServeTheSameBytesUntilRefreshed() throws Exception {
+        // Given
+        byte[] first = service.statusJson();
+
+        // When
+        cacheManager.getCache(CacheConfig.ACCOUNTS).put(1L, "account");
+        cacheManager.getCache(CacheConfig.ACCOUNTS).get(1L);
+        byte[] unchanged = service.statusJson();
+        service.refresh();
+
+        // Then
+        assertThat(unchanged).isSameAs(first);
+        JsonNode cache = objectMapper.readTree(service.statusJson()).path("caches").path(CacheConfig.ACCOUNTS);
+        assertThat(cache.path("size").asLong()).isEqualTo(1);
+        assertThat(cache.path("hitRate").asDouble()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReportRuntimeFigures() throws Exception {
+        // When
+        JsonNode status = objectMapper.readTree(service.statusJson());
+
+        // Then
+        assertThat(status.path("status").asText()).isEqualTo("UP");
+        assertThat(status.path("system").path("processors").asInt()).isPositive();
+        assertThat(status.path("system").path("heapUsedBytes").asLong()).isPositive();
+        assertThat(status.path("garbageCollectors").size()).isPositive();
+        // No Hikari pool behind this service
+        assertThat(status.has("connectionPool")).isFalse();
+    }
+
+    @Test
+    void shouldStampTheWelcomeWithTheSnapshotTime() throws Exception {
+        // When
+        JsonNode status = objectMapper.readTree(service.statusJson());
+        JsonNode welcome = objectMapper.readTree(service.welcomeJson());
+
+        // Then
+        assertThat(welcome.path("message").asText()).isEqualTo("Welcome to BankLite Banking API");
+        assertThat(welcome.path("quickStart").size()).isEqualTo(4);
+        assertThat(welcome.path("timestamp").asText()).isEqualTo(status.path("timestamp").asText());
+    }
+
+    @Test
+    void shouldFormatBytes() {
+        assertThat(ApplicationStatusService.formatBytes(512)).isEqualTo("512 B");
+        assertThat(ApplicationStatusService.formatBytes(256L * 1024 * 1024)).isEqualTo("256.00 MB");
+    }
+}
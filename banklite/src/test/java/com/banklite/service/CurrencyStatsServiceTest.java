@@ -0,0 +1,163 @@
+package com.banklite.service;
+
+import com.banklite.model.Currency;
+import com.banklite.model.CurrencyStats;
+import com.banklite.model.dto.CurrencyStatsResponse;
+import com.banklite.repository.AccountRepository;
+import com.banklite.repository.CurrencyStatsRepository;
+import com.banklite.repository.CurrencyStatsRepository.CurrencyTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrencyStatsServiceTest {
+
+    @Mock
+    private CurrencyStatsRepository statsRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CurrencyStatsService currencyStatsService;
+
+    @BeforeEach
+    void setUp() {
+        currencyStatsService = new CurrencyStatsService(statsRepository, accountRepository, transactionManager);
+    }
+
+    @Test
+    void shouldNetChangesPerCurrencyOntoOneStripe() {
+        // Given
+        CurrencyStatsService.Changes changes = new CurrencyStatsService.Changes()
+            .add(Currency.GBP, 1, new BigDecimal("10.00"))
+            .add(Currency.USD, 0, new BigDecimal("5.00"))
+            .add(Currency.GBP, 0, new BigDecimal("2.50"))
+            .add(Currency.USD, 0, new BigDecimal("-5.00"));
+        when(statsRepository.adjust(any(), anyInt(), anyLong(), any())).thenReturn(1);
+
+        // When
+        currencyStatsService.apply(changes);
+
+        // Then the GBP changes are added up and the USD changes cancel out
+        ArgumentCaptor<Integer> stripe = ArgumentCaptor.forClass(Integer.class);
+        verify(statsRepository).adjust(eq(Currency.GBP), stripe.capture(), eq(1L), eq(new BigDecimal("12.50")));
+        assertThat(stripe.getValue()).isBetween(0, CurrencyStats.STRIPES - 1);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void shouldSpreadTransactionsOverStripes() {
+        // Given the same account, changed by many transactions
+        Set<Integer> stripes = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            stripes.addAll(new CurrencyStatsService.Changes().add(Currency.EUR, 0, BigDecimal.ONE).inLockOrder()
+                .stream().map(CurrencyStatsService.Change::stripe).toList());
+        }
+
+        // Then
+        assertThat(stripes).hasSizeGreaterThan(1).allMatch(stripe -> stripe >= 0 && stripe < CurrencyStats.STRIPES);
+    }
+
+    @Test
+    void shouldFailWhenStripeIsMissing() {
+        when(statsRepository.adjust(eq(Currency.EUR), anyInt(), eq(1L), eq(BigDecimal.ONE))).thenReturn(0);
+
+        assertThatThrownBy(() -> currencyStatsService.adjust(Currency.EUR, 1, BigDecimal.ONE))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldServeStatsFromStripeTotalsAndIndexSeeks() {
+        // Given
+        when(statsRepository.sumStripes()).thenReturn(List.of(
+            totals(Currency.EUR, 3, "100.00"),
+            totals(Currency.USD, 0, "0.00")));
+        when(accountRepository.findLowestBalances(Currency.EUR, Limit.of(1))).thenReturn(List.of(new BigDecimal("10.00")));
+        when(accountRepository.findHighestBalances(Currency.EUR, Limit.of(1))).thenReturn(List.of(new BigDecimal("60.00")));
+
+        // When
+        List<CurrencyStatsResponse> stats = currencyStatsService.getStats();
+
+        // Then
+        assertThat(stats).extracting(CurrencyStatsResponse::getCurrency).containsExactly(Currency.values());
+        CurrencyStatsResponse eur = stats.get(Currency.EUR.ordinal());
+        assertThat(eur.getCount()).isEqualTo(3);
+        assertThat(eur.getTotalBalance()).isEqualByComparingTo("100.00");
+        assertThat(eur.getMinBalance()).isEqualByComparingTo("10.00");
+        assertThat(eur.getMaxBalance()).isEqualByComparingTo("60.00");
+        assertThat(eur.getAverageBalance()).isEqualTo(new BigDecimal("33.33"));
+
+        CurrencyStatsResponse usd = stats.get(Currency.USD.ordinal());
+        assertThat(usd.getCount()).isZero();
+        assertThat(usd.getMinBalance()).isNull();
+        assertThat(usd.getAverageBalance()).isNull();
+        verify(accountRepository, never()).findLowestBalances(eq(Currency.USD), any());
+    }
+
+    @Test
+    void shouldSeedOnlyCurrenciesWithoutStripes() {
+        // Given USD was seeded before and EUR already has accounts
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(statsRepository.findAll()).thenReturn(List.of(new CurrencyStats(Currency.USD, 0, 1, BigDecimal.TEN)));
+        when(accountRepository.sumBalancesByCurrency()).thenReturn(List.of(
+            totals(Currency.USD, 1, "10.00"),
+            totals(Currency.EUR, 2, "30.00")));
+
+        // When
+        currencyStatsService.seed();
+
+        // Then each stripe is inserted only if absent, so a concurrently starting instance cannot fail it
+        InOrder inOrder = inOrder(statsRepository);
+        inOrder.verify(statsRepository).findAll();
+        inOrder.verify(statsRepository).insertIfAbsent(Currency.EUR, 0, 2L, new BigDecimal("30.00"));
+        verify(statsRepository, times(2 * CurrencyStats.STRIPES - 1))
+            .insertIfAbsent(any(), anyInt(), eq(0L), eq(BigDecimal.ZERO));
+        verify(statsRepository, never()).insertIfAbsent(eq(Currency.USD), anyInt(), anyLong(), any());
+        verify(statsRepository, never()).saveAll(any());
+    }
+
+    private static CurrencyTotals totals(Currency currency, long count, String total) {
+        return new CurrencyTotals() {
+            @Override
+            public Currency getCurrency() {
+                return currency;
+            }
+
+            @Override
+            public Long getAccountCount() {
+                return count;
+            }
+
+            @Override
+            public BigDecimal getTotalBalance() {
+                return new BigDecimal(total);
+            }
+        };
+    }
+}
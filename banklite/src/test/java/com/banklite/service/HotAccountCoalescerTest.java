@@ -0,0 +1,121 @@
+package com.banklite.service;
+
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.AccountResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:hotaccountdb",
+    "banklite.hot-accounts.enabled=true",
+    "banklite.hot-accounts.account-ids=1",
+    "banklite.hot-accounts.flush-interval=20ms",
+    "banklite.outbox.enabled=true",
+    "banklite.outbox.poll-interval=1h",
+    "banklite.outbox.file.path=target/hot-account-test/account-events.ndjson"
+})
+class HotAccountCoalescerTest {
+    
+    private static final int THREADS = 32;
+    private static final int WITHDRAWALS_PER_THREAD = 10;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private HotAccountCoalescer hotAccountCoalescer;
+    
+    @Autowired
+    private CurrencyStatsService currencyStatsService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void shouldCoalesceWithdrawalsWithoutOverdrawing() throws Exception {
+        // Given the designated hot account, which can cover exactly 200 withdrawals
+        AccountRequest request = new AccountRequest("Merchant", new BigDecimal("200.00"), Currency.USD);
+        AccountResponse created = accountService.createAccount(request);
+        Long id = created.getId();
+        assertThat(hotAccountCoalescer.isHot(id)).isTrue();
+        AtomicInteger succeeded = new AtomicInteger();
+        Set<Long> versions = ConcurrentHashMap.newKeySet();
+        AtomicInteger rejected = new AtomicInteger();
+        
+        // When 320 withdrawals race for it
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int op = 0; op < WITHDRAWALS_PER_THREAD; op++) {
+                    try {
+                        versions.add(hotAccountCoalescer.withdraw(id, BigDecimal.ONE).getVersion());
+                        succeeded.incrementAndGet();
+                    } catch (InsufficientFundsException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        // Then exactly 200 succeed, the committed balance is zero and flushes were batched
+        assertThat(succeeded.get()).isEqualTo(200);
+        assertThat(rejected.get()).isEqualTo(THREADS * WITHDRAWALS_PER_THREAD - 200);
+        assertThat(accountService.getAccount(id).getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        
+        // And every withdrawal got its own version, up to the one committed
+        assertThat(versions).containsExactlyInAnyOrderElementsOf(
+            LongStream.rangeClosed(created.getVersion() + 1, created.getVersion() + 200).boxed().toList());
+        assertThat(accountService.getAccount(id).getVersion()).isEqualTo(created.getVersion() + 200);
+        
+        Timer flushes = meterRegistry.get("banklite.hot_accounts.flush").timer();
+        assertThat(flushes.count()).isPositive().isLessThan(THREADS * WITHDRAWALS_PER_THREAD);
+        assertThat(meterRegistry.get("banklite.hot_accounts.pending.updates").gauge().value()).isZero();
+        
+        // And an acknowledged deposit is already visible in the database
+        BigDecimal acknowledged = hotAccountCoalescer.deposit(id, new BigDecimal("5.00")).getBalance();
+        assertThat(acknowledged).isEqualByComparingTo("5.00");
+        assertThat(accountService.getAccount(id).getBalance()).isEqualByComparingTo(acknowledged);
+        
+        // And every accepted update wrote its own change event
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_outbox "
+            + "WHERE account_id = ? AND event_type = 'UPDATED'", Long.class, id)).isEqualTo(201);
+        
+        // And the currency statistics saw the net of every flush
+        assertThat(currencyStatsService.getStats().get(Currency.USD.ordinal()).getTotalBalance())
+            .isEqualByComparingTo(acknowledged);
+    }
+}
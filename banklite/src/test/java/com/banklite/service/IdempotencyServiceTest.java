@@ -0,0 +1,209 @@
+package com.banklite.service;
+
+import com.banklite.config.HotAccountProperties;
+import com.banklite.config.IdempotencyProperties;
+import com.banklite.exception.IdempotencyKeyInUseException;
+import com.banklite.exception.InsufficientFundsException;
+import com.banklite.exception.InvalidIdempotencyKeyException;
+import com.banklite.model.IdempotencyRecord;
+import com.banklite.model.dto.AccountResponse;
+import com.banklite.model.dto.AmountRequest;
+import com.banklite.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(repository, new IdempotencyProperties(),
+            new HotAccountProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldAnswerRetryFromMemoryWithoutRunningAgain() {
+        // Given
+        AmountRequest request = new AmountRequest(new BigDecimal("10.00"));
+        AtomicInteger runs = new AtomicInteger();
+        when(repository.claim(eq("key-1"), anyString(), any(), any())).thenReturn(1);
+        when(repository.complete(eq("key-1"), anyString(), any(), eq(200), anyString())).thenReturn(1);
+
+        // When
+        ResponseEntity<AccountResponse> first = idempotencyService.execute("key-1", "deposit 1", request,
+            AccountResponse.class, () -> ResponseEntity.ok(account(runs.incrementAndGet())));
+        ResponseEntity<AccountResponse> retry = idempotencyService.execute("key-1", "deposit 1", request,
+            AccountResponse.class, () -> ResponseEntity.ok(account(runs.incrementAndGet())));
+
+        // Then a new key costs the claiming INSERT and the completing UPDATE, without a lookup first
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        verify(repository).claim(eq("key-1"), anyString(), any(), any());
+        verify(repository).complete(eq("key-1"), anyString(), any(), eq(200), anyString());
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void shouldRejectRetryWhileFirstRequestIsInProgress() {
+        // Given a concurrent request holds the key
+        AmountRequest request = new AmountRequest(new BigDecimal("10.00"));
+        IdempotencyRecord claimed = new IdempotencyRecord("key-2", null, null, null,
+            LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+        when(repository.claim(eq("key-2"), anyString(), any(), any()))
+            .thenAnswer(invocation -> {
+                claimed.setRequestHash(invocation.getArgument(1));
+                return 0;
+            });
+        when(repository.findById("key-2")).thenReturn(Optional.of(claimed));
+
+        // When / Then
+        assertThatThrownBy(() -> idempotencyService.execute("key-2", "deposit 1", request, AccountResponse.class,
+            () -> ResponseEntity.ok(account(1))))
+            .isInstanceOf(IdempotencyKeyInUseException.class);
+        verify(repository, never()).complete(anyString(), anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    void shouldReclaimExpiredKeyThatIsNotPurgedYet() {
+        // Given the key's record expired but is still in the table
+        AmountRequest request = new AmountRequest(new BigDecimal("10.00"));
+        IdempotencyRecord expired = new IdempotencyRecord("key-5", "old-hash", 200, "{\"id\":1}",
+            LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        when(repository.claim(eq("key-5"), anyString(), any(), any())).thenReturn(0, 1);
+        when(repository.findById("key-5")).thenReturn(Optional.of(expired));
+        when(repository.deleteIfReclaimable(eq("key-5"), any(), any())).thenReturn(1);
+        when(repository.complete(eq("key-5"), anyString(), any(), eq(200), anyString())).thenReturn(1);
+
+        // When
+        ResponseEntity<AccountResponse> response = idempotencyService.execute("key-5", "deposit 1", request,
+            AccountResponse.class, () -> ResponseEntity.ok(account(2)));
+
+        // Then the request runs again instead of failing on the stale row
+        assertThat(response.getBody().getId()).isEqualTo(2);
+        assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        verify(repository, times(2)).claim(eq("key-5"), anyString(), any(), any());
+        verify(repository).complete(eq("key-5"), anyString(), any(), eq(200), anyString());
+    }
+
+    @Test
+    void shouldReclaimKeyWhoseClaimHasLapsed() {
+        // Given a request claimed the key five minutes ago and never completed or released it
+        AmountRequest request = new AmountRequest(new BigDecimal("10.00"));
+        IdempotencyRecord abandoned = new IdempotencyRecord("key-6", null, null, null,
+            LocalDateTime.now().minusMinutes(5), LocalDateTime.now().plusHours(23));
+        when(repository.claim(eq("key-6"), anyString(), any(), any())).thenReturn(0, 1);
+        when(repository.findById("key-6")).thenReturn(Optional.of(abandoned));
+        when(repository.deleteIfReclaimable(eq("key-6"), any(), any())).thenReturn(1);
+        when(repository.complete(eq("key-6"), anyString(), any(), eq(200), anyString())).thenReturn(1);
+
+        // When
+        ResponseEntity<AccountResponse> response = idempotencyService.execute("key-6", "deposit 1", request,
+            AccountResponse.class, () -> ResponseEntity.ok(account(3)));
+
+        // Then the retry runs instead of getting 409 until the key expires
+        assertThat(response.getBody().getId()).isEqualTo(3);
+        verify(repository).deleteIfReclaimable(eq("key-6"), any(),
+            argThat(claimedBefore -> claimedBefore.isAfter(abandoned.getCreatedAt())));
+        verify(repository).complete(eq("key-6"), anyString(), any(), eq(200), anyString());
+    }
+
+    @Test
+    void shouldLeaveKeyToTheRetryThatTookOverALapsedClaim() {
+        // Given the request outlived its claim, and a retry claimed the key again meanwhile
+        AmountRequest request = new AmountRequest(new BigDecimal("10.00"));
+        ArgumentCaptor<LocalDateTime> claimedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(repository.claim(eq("key-7"), anyString(), claimedAt.capture(), any())).thenReturn(1);
+        when(repository.complete(eq("key-7"), anyString(), any(), eq(200), anyString())).thenReturn(0);
+
+        // When
+        ResponseEntity<AccountResponse> response = idempotencyService.execute("key-7", "deposit 1", request,
+            AccountResponse.class, () -> ResponseEntity.ok(account(4)));
+
+        // Then only a record with our own claim could have been completed, and nothing is cached for the key
+        assertThat(response.getBody().getId()).isEqualTo(4);
+        verify(repository).complete(eq("key-7"), anyString(), eq(claimedAt.getValue()), eq(200), anyString());
+        idempotencyService.execute("key-7", "deposit 1", request, AccountResponse.class,
+            () -> ResponseEntity.ok(account(5)));
+        verify(repository, times(2)).claim(eq("key-7"), anyString(), any(), any());
+    }
+
+    @Test
+    void shouldReleaseOnlyItsOwnClaimWhenRequestFails() {
+        // Given
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> claimedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(repository.claim(eq("key-3"), requestHash.capture(), claimedAt.capture(), any())).thenReturn(1);
+
+        // When / Then
+        assertThatThrownBy(() -> idempotencyService.execute("key-3", "withdraw 1",
+            new AmountRequest(new BigDecimal("10.00")), AccountResponse.class, () -> {
+                throw new InsufficientFundsException("Insufficient funds in account with id: 1");
+            }))
+            .isInstanceOf(InsufficientFundsException.class);
+        verify(repository).release("key-3", requestHash.getValue(), claimedAt.getValue());
+        verify(repository, never()).complete(anyString(), anyString(), any(), anyInt(), any());
+    }
+
+    @Test
+    void shouldRefuseClaimTimeoutNoLongerThanTheLongestWrite() {
+        // Given a claim could lapse while a hot-account write still waits for its flush
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setClaimTimeout(Duration.ofSeconds(AccountService.WRITE_TIMEOUT_SECONDS));
+
+        // When / Then
+        assertThatThrownBy(() -> new IdempotencyService(repository, properties, new HotAccountProperties(),
+            new ObjectMapper(), new SimpleMeterRegistry()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("claim-timeout");
+    }
+
+    @Test
+    void shouldRunDirectlyWithoutKeyAndRejectOversizedKey() {
+        // When
+        ResponseEntity<AccountResponse> response = idempotencyService.execute(null, "create", null,
+            AccountResponse.class, () -> ResponseEntity.status(HttpStatus.CREATED).body(account(5)));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verifyNoInteractions(repository);
+        assertThatThrownBy(() -> idempotencyService.execute("k".repeat(256), "create", null,
+            AccountResponse.class, () -> ResponseEntity.ok(account(6))))
+            .isInstanceOf(InvalidIdempotencyKeyException.class);
+    }
+
+    private AccountResponse account(long id) {
+        AccountResponse response = new AccountResponse();
+        response.setId(id);
+        response.setBalance(new BigDecimal("10.00"));
+        return response;
+    }
+}
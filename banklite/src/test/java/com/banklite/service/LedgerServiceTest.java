@@ -0,0 +1,110 @@
+package com.banklite.service;
+
+import com.banklite.config.LedgerProperties;
+import com.banklite.config.PaginationProperties;
+import com.banklite.exception.AccountNotFoundException;
+import com.banklite.model.Account;
+import com.banklite.model.AccountTransaction;
+import com.banklite.model.BalanceSnapshot;
+import com.banklite.model.TransactionType;
+import com.banklite.model.dto.LedgerBalanceResponse;
+import com.banklite.repository.AccountRepository;
+import com.banklite.repository.AccountTransactionRepository;
+import com.banklite.repository.BalanceSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private AccountTransactionRepository transactionRepository;
+
+    @Mock
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        LedgerProperties ledgerProperties = new LedgerProperties();
+        ledgerProperties.setSnapshotInterval(2);
+        ledgerService = new LedgerService(transactionRepository, snapshotRepository, accountRepository,
+            ledgerProperties, new PaginationProperties());
+    }
+
+    @Test
+    void shouldSnapshotEveryIntervalEntries() {
+        // Given
+        Account account = new Account();
+        account.setId(1L);
+        account.setBalance(new BigDecimal("100.00"));
+        account.setLastEntryNo(1);
+        when(transactionRepository.save(any(AccountTransaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        account.setBalance(new BigDecimal("150.00"));
+        AccountTransaction second = ledgerService.record(account, TransactionType.DEPOSIT, new BigDecimal("50.00"), null);
+        account.setBalance(new BigDecimal("140.00"));
+        AccountTransaction third = ledgerService.record(account, TransactionType.WITHDRAWAL, new BigDecimal("-10.00"), null);
+
+        // Then
+        assertThat(second.getEntryNo()).isEqualTo(2L);
+        assertThat(third.getEntryNo()).isEqualTo(3L);
+        assertThat(account.getLastEntryNo()).isEqualTo(3L);
+        ArgumentCaptor<BalanceSnapshot> snapshot = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(snapshotRepository).save(snapshot.capture());
+        assertThat(snapshot.getValue().getEntryNo()).isEqualTo(2L);
+        assertThat(snapshot.getValue().getBalance()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    void shouldRebuildBalanceFromSnapshotAndLaterEntries() {
+        // Given
+        when(snapshotRepository.findFirstByAccountIdOrderByEntryNoDesc(1L)).thenReturn(Optional.of(
+            new BalanceSnapshot(7L, 1L, 4L, new BigDecimal("200.00"), LocalDateTime.now())));
+        AccountTransactionRepository.LedgerDelta delta = mock(AccountTransactionRepository.LedgerDelta.class);
+        when(delta.getAmount()).thenReturn(new BigDecimal("-25.00"));
+        when(delta.getLastEntryNo()).thenReturn(5L);
+        when(transactionRepository.sumAfter(1L, 4L)).thenReturn(delta);
+
+        // When
+        LedgerBalanceResponse response = ledgerService.getLedgerBalance(1L);
+
+        // Then
+        assertThat(response.getBalance()).isEqualByComparingTo("175.00");
+        assertThat(response.getAsOfEntryNo()).isEqualTo(5L);
+        assertThat(response.getSnapshotEntryNo()).isEqualTo(4L);
+    }
+
+    @Test
+    void shouldThrowWhenLedgerOfMissingAccountRequested() {
+        // Given
+        when(snapshotRepository.findFirstByAccountIdOrderByEntryNoDesc(99L)).thenReturn(Optional.empty());
+        AccountTransactionRepository.LedgerDelta noEntries = mock(AccountTransactionRepository.LedgerDelta.class);
+        when(noEntries.getLastEntryNo()).thenReturn(null);
+        when(transactionRepository.sumAfter(99L, 0L)).thenReturn(noEntries);
+        when(accountRepository.existsById(99L)).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> ledgerService.getLedgerBalance(99L))
+            .isInstanceOf(AccountNotFoundException.class)
+            .hasMessage("Account not found with id: 99");
+    }
+}
@@ -0,0 +1,209 @@
+package com.banklite.service;
+
+import com.banklite.config.OutboxProperties;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.Currency;
+import com.banklite.model.dto.AccountEvent;
+import com.banklite.model.dto.AccountRequest;
+import com.banklite.model.dto.BatchUpdateResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the outbox against a real database: every account change leaves one
+ * event, and the relay delivers them in order and only forgets them once the
+ * sink has accepted them.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outboxdb",
+    "banklite.outbox.enabled=true",
+    "banklite.outbox.poll-interval=1h",
+    "banklite.outbox.batch-size=2",
+    "banklite.outbox.file.path=target/outbox-test/account-events.ndjson"
+})
+class OutboxRelayTest {
+
+    private static final Path EVENTS = Path.of("target/outbox-test/account-events.ndjson");
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountBatchUpdateService accountBatchUpdateService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outboxRelay.drain();
+        // Truncated rather than deleted: the sink keeps the file open between tests
+        Files.createDirectories(EVENTS.getParent());
+        Files.write(EVENTS, new byte[0]);
+    }
+
+    @Test
+    void shouldDeliverEveryChangeInOrderAsNdjson() throws Exception {
+        // Given
+        Long id = createAccount("Outbox Owner");
+        accountService.updateAccount(id, request("Outbox Renamed"));
+        accountBatchUpdateService.updateAccounts(List.of(id), new AccountPatch("Outbox Batched", null, null));
+        accountService.deleteAccount(id);
+        double publishedBefore = meterRegistry.get("banklite.outbox.published").counter().count();
+
+        // When
+        int delivered = outboxRelay.drain();
+
+        // Then all four events were written, in order, over two batches
+        assertThat(delivered).isEqualTo(4);
+        List<AccountEvent> events = readEvents();
+        assertThat(events).extracting(AccountEvent::getType).containsExactly(AccountEventType.CREATED,
+            AccountEventType.UPDATED, AccountEventType.UPDATED, AccountEventType.DELETED);
+        assertThat(events).extracting(AccountEvent::getAccountId).containsOnly(id);
+        assertThat(events).extracting(AccountEvent::getEventId).isSorted();
+        assertThat(events.get(1).getAccount().getAccountHolderName()).isEqualTo("Outbox Renamed");
+        assertThat(events.get(2).getAccount().getAccountHolderName()).isEqualTo("Outbox Batched");
+        assertThat(events.get(3).getAccount()).isNull();
+        assertThat(countOutbox()).isZero();
+        assertThat(meterRegistry.get("banklite.outbox.published").counter().count())
+            .isEqualTo(publishedBefore + 4);
+    }
+
+    @Test
+    void shouldDeliverBalanceChanges() throws Exception {
+        // Given
+        Long from = createAccount("Outbox Payer");
+        Long to = createAccount("Outbox Payee");
+        accountService.deposit(from, new BigDecimal("5.00"));
+        accountService.withdraw(from, new BigDecimal("2.00"));
+        accountService.transfer(from, to, new BigDecimal("3.00"));
+
+        // When
+        outboxRelay.drain();
+
+        // Then every balance change produced an event carrying the new balance
+        List<AccountEvent> updates = readEvents().stream()
+            .filter(event -> event.getType() == AccountEventType.UPDATED)
+            .toList();
+        assertThat(updates).extracting(AccountEvent::getAccountId).containsExactly(from, from, from, to);
+        assertThat(updates).extracting(event -> event.getAccount().getBalance())
+            .usingElementComparator(BigDecimal::compareTo)
+            .containsExactly(new BigDecimal("15.00"), new BigDecimal("13.00"), new BigDecimal("10.00"),
+                new BigDecimal("13.00"));
+    }
+
+    @Test
+    void shouldNotWriteEventsForChangesThatRollBack() throws Exception {
+        // When
+        BatchUpdateResponse response = accountBatchUpdateService.updateAccounts(List.of(Long.MAX_VALUE),
+            new AccountPatch("Nobody", null, null));
+        assertThatThrownBy(() -> accountService.updateAccount(Long.MAX_VALUE, request("Nobody")))
+            .isInstanceOf(RuntimeException.class);
+
+        // Then
+        assertThat(response.getNotFound()).containsExactly(Long.MAX_VALUE);
+        assertThat(countOutbox()).isZero();
+        assertThat(outboxRelay.drain()).isZero();
+    }
+
+    @Test
+    void shouldKeepEventsWhileTheSinkFails() throws Exception {
+        // Given a relay whose sink rejects the first delivery
+        List<AccountEvent> received = new ArrayList<>();
+        FlakySink sink = new FlakySink(received);
+        OutboxRelay relay = new OutboxRelay(jdbcTemplate, transactionManager, objectMapper, sink, properties,
+            new SimpleMeterRegistry());
+        Long id = createAccount("Flaky Sink");
+
+        // When / Then the batch stays in the outbox
+        assertThatThrownBy(relay::drain).isInstanceOf(IOException.class);
+        assertThat(countOutbox()).isEqualTo(1);
+
+        // When / Then it is delivered by the next attempt
+        assertThat(relay.drain()).isEqualTo(1);
+        assertThat(received).extracting(AccountEvent::getAccountId).containsExactly(id);
+        assertThat(countOutbox()).isZero();
+    }
+
+    private Long createAccount(String holderName) {
+        return accountService.createAccount(request(holderName)).getId();
+    }
+
+    private static AccountRequest request(String holderName) {
+        AccountRequest request = new AccountRequest();
+        request.setAccountHolderName(holderName);
+        request.setBalance(new BigDecimal("10.00"));
+        request.setCurrency(Currency.USD);
+        return request;
+    }
+
+    private List<AccountEvent> readEvents() throws IOException {
+        List<AccountEvent> events = new ArrayList<>();
+        for (String line : Files.readAllLines(EVENTS)) {
+            events.add(objectMapper.readValue(line, AccountEvent.class));
+        }
+        return events;
+    }
+
+    private long countOutbox() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_outbox", Long.class);
+    }
+
+    private static class FlakySink implements AccountEventSink {
+
+        private final List<AccountEvent> received;
+        private boolean failed;
+
+        FlakySink(List<AccountEvent> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void publish(List<AccountEvent> events) throws IOException {
+            if (!failed) {
+                failed = true;
+                throw new IOException("Sink unavailable");
+            }
+            received.addAll(events);
+        }
+
+        @Override
+        public String name() {
+            return "flaky";
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.banklite.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeAccountNumberGeneratorTest {
+    
+    private static final long EPOCH = 1735689600000L;
+    
+    @Test
+    void shouldGenerateUniqueIdsAcrossThreads() throws Exception {
+        // Given
+        SnowflakeAccountNumberGenerator generator = new SnowflakeAccountNumberGenerator(7, EPOCH, System::currentTimeMillis);
+        int threads = 8;
+        int idsPerThread = 250_000;
+        
+        // When every thread draws its share as fast as it can
+        long[] all = drawConcurrently(generator, threads, idsPerThread);
+        
+        // Then no id was handed out twice
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).isNotEqualTo(all[i - 1]);
+        }
+    }
+    
+    @Test
+    void shouldNotCollideAcrossNodesSharingOneClock() {
+        // Given two nodes whose clocks read the same millisecond forever
+        SnowflakeAccountNumberGenerator node1 = new SnowflakeAccountNumberGenerator(1, EPOCH, () -> EPOCH + 1_000);
+        SnowflakeAccountNumberGenerator node2 = new SnowflakeAccountNumberGenerator(2, EPOCH, () -> EPOCH + 1_000);
+        
+        // When each draws more ids than one millisecond's sequence can hold
+        long[] ids = new long[20_000];
+        for (int i = 0; i < 10_000; i++) {
+            ids[2 * i] = node1.nextId();
+            ids[2 * i + 1] = node2.nextId();
+        }
+        
+        // Then every id is distinct
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+    
+    @Test
+    void shouldStayMonotonicWhenClockStepsBackwards() {
+        // Given a clock that jumps back one second after the first call
+        AtomicLong now = new AtomicLong(EPOCH + 5_000);
+        SnowflakeAccountNumberGenerator generator = new SnowflakeAccountNumberGenerator(0, EPOCH, now::get);
+        long first = generator.nextId();
+        
+        // When
+        now.addAndGet(-1_000);
+        long second = generator.nextId();
+        
+        // Then
+        assertThat(second).isGreaterThan(first);
+    }
+    
+    @Test
+    void shouldFormatWithPrefixAndValidCheckDigit() {
+        SnowflakeAccountNumberGenerator generator = new SnowflakeAccountNumberGenerator(3, EPOCH, System::currentTimeMillis);
+        
+        for (int i = 0; i < 1_000; i++) {
+            long id = generator.nextId();
+            String accountNumber = SnowflakeAccountNumberGenerator.format(id);
+            
+            assertThat(accountNumber).startsWith("ACC").hasSizeLessThanOrEqualTo(23);
+            assertThat(accountNumber.substring(3, accountNumber.length() - 1)).isEqualTo(Long.toString(id));
+            assertThat(SnowflakeAccountNumberGenerator.isValid(accountNumber)).isTrue();
+        }
+    }
+    
+    @Test
+    void shouldDetectMistypedAccountNumbers() {
+        // 7992739871 is the textbook Luhn example, with check digit 3
+        assertThat(SnowflakeAccountNumberGenerator.format(7992739871L)).isEqualTo("ACC79927398713");
+        assertThat(SnowflakeAccountNumberGenerator.isValid("ACC79927398713")).isTrue();
+        assertThat(SnowflakeAccountNumberGenerator.isValid("ACC79927398714")).isFalse();
+        assertThat(SnowflakeAccountNumberGenerator.isValid("ACC79927389713")).isFalse();
+    }
+    
+    @Test
+    void shouldRejectOutOfRangeNodeId() {
+        assertThatThrownBy(() -> new SnowflakeAccountNumberGenerator(1024, EPOCH, System::currentTimeMillis))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private long[] drawConcurrently(SnowflakeAccountNumberGenerator generator, int threads, int idsPerThread)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Callable<long[]> draw = () -> {
+                long[] ids = new long[idsPerThread];
+                start.await();
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            };
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(draw);
+            }
+            start.countDown();
+            
+            long[] all = new long[threads * idsPerThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy((long[]) futures[t].get(), 0, all, t * idsPerThread, idsPerThread);
+            }
+            return all;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
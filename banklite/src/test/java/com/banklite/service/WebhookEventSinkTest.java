@@ -0,0 +1,88 @@
+package com.banklite.service;
+
+import com.banklite.config.OutboxProperties;
+import com.banklite.model.AccountEventType;
+import com.banklite.model.dto.AccountEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookEventSinkTest {
+
+    // None of these tests exercise the timeout; it only has to outlast a cold WireMock on a slow build agent
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final WireMockServer server = new WireMockServer(options().dynamicPort());
+    private WebhookEventSink sink;
+
+    @BeforeEach
+    void setUp() {
+        server.start();
+        OutboxProperties properties = new OutboxProperties();
+        properties.getWebhook().setUrl(URI.create(server.baseUrl() + "/events"));
+        properties.getWebhook().setTimeout(TIMEOUT);
+        sink = new WebhookEventSink(new ObjectMapper().registerModule(new JavaTimeModule()), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void shouldPostBatchAsJsonArray() throws IOException {
+        // Given
+        server.stubFor(post("/events").willReturn(aResponse().withStatus(202)));
+
+        // When
+        sink.publish(List.of(event(1L), event(2L)));
+
+        // Then
+        server.verify(postRequestedFor(urlEqualTo("/events"))
+            .withHeader("Content-Type", equalTo("application/json"))
+            .withRequestBody(equalToJson("[{\"eventId\":1,\"type\":\"DELETED\",\"accountId\":7},"
+                + "{\"eventId\":2,\"type\":\"DELETED\",\"accountId\":7}]", true, true)));
+    }
+
+    @Test
+    void shouldReportRetryAfterWhenReceiverIsBusy() {
+        server.stubFor(post("/events").willReturn(aResponse().withStatus(429).withHeader("Retry-After", "7")));
+
+        assertThatThrownBy(() -> sink.publish(List.of(event(1L))))
+            .isInstanceOfSatisfying(EventSinkBusyException.class,
+                e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(7)));
+    }
+
+    @Test
+    void shouldFailBatchOnServerError() {
+        server.stubFor(post("/events").willReturn(aResponse().withStatus(500)));
+
+        assertThatThrownBy(() -> sink.publish(List.of(event(1L))))
+            .isInstanceOf(IOException.class)
+            .isNotInstanceOf(EventSinkBusyException.class)
+            .hasMessageContaining("500");
+    }
+
+    private static AccountEvent event(Long eventId) {
+        return new AccountEvent(eventId, AccountEventType.DELETED, 7L, LocalDateTime.now(), null);
+    }
+}